@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import io.github.tomoncle.http.RecordStream;
+import io.github.tomoncle.http.Requests;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 单个连接上逐条读取小事件的吞吐量，每次操作读取 {@link #EVENTS} 条记录
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventStreamBenchmark {
+    private static final int EVENTS = 100_000;
+
+    @Param({"events", "lines"})
+    public String format;
+
+    private MockWebServer server;
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        Buffer body = new Buffer();
+        for (int i = 0; i < EVENTS; i++) {
+            if ("events".equals(format)) {
+                body.writeUtf8("id: ").writeUtf8(Integer.toString(i)).writeUtf8("\ndata: {\"seq\":")
+                        .writeUtf8(Integer.toString(i)).writeUtf8(",\"price\":99.5}\n\n");
+            } else {
+                body.writeUtf8("{\"seq\":").writeUtf8(Integer.toString(i)).writeUtf8(",\"price\":99.5}\n");
+            }
+        }
+        String contentType = "events".equals(format) ? "text/event-stream" : "application/x-ndjson";
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.OFF);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                return new MockResponse().setHeader("Content-Type", contentType).setChunkedBody(body.clone(), 64 * 1024);
+            }
+        });
+        server.start();
+        url = server.url("/stream").toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long read() throws IOException {
+        long checksum = 0;
+        try (RecordStream<?> stream = "events".equals(format) ? Requests.GET.events(url, null) : Requests.GET.lines(url, null)) {
+            for (int i = 0; i < EVENTS; i++) {
+                checksum += stream.read().hashCode();
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import ch.qos.logback.classic.Level;
+import io.github.tomoncle.http.RequestsInterceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestsInterceptor} 在 DEBUG 开启/关闭时相对无拦截器客户端的开销
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorBenchmark {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    @Param({"none", "debugOff", "debugOn"})
+    public String mode;
+
+    private LocalServer server;
+    private OkHttpClient client;
+    private Request request;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new LocalServer();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        if (!"none".equals(mode)) {
+            builder.addInterceptor(new RequestsInterceptor());
+        }
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(RequestsInterceptor.class))
+                .setLevel("debugOn".equals(mode) ? Level.DEBUG : Level.INFO);
+        client = builder.build();
+        request = new Request.Builder().url(server.url("/json"))
+                .post(RequestBody.create(LocalServer.JSON, JSON))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public String call() throws IOException {
+        try (Response response = client.newCall(request).execute(); ResponseBody body = response.body()) {
+            return null == body ? null : body.string();
+        }
+    }
+}
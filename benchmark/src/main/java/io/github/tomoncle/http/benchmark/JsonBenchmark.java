@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import io.github.tomoncle.http.Requests;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code JSON.parseObject(GET.request(url))} 与 {@code GET.json(url, Class)} 的耗时与分配对比
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    /**
+     * 响应体中的数组元素个数，1 约 130 字节，1000 约 120KB
+     */
+    @Param({"1", "1000"})
+    private int items;
+
+    private LocalServer server;
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder builder = new StringBuilder("{\"code\":200,\"message\":\"success\",\"data\":[");
+        for (int i = 0; i < items; i++) {
+            builder.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"name\":\"tomoncle\",\"tags\":[\"java\",\"http\",\"okhttp\"],\"active\":true,\"score\":99.5}");
+        }
+        server = new LocalServer(builder.append("]}").toString());
+        url = server.url("/json");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public Page string() throws IOException {
+        return JSON.parseObject(Requests.GET.request(url), Page.class);
+    }
+
+    @Benchmark
+    public Page stream() throws IOException {
+        return Requests.GET.json(url, Page.class);
+    }
+
+    public static class Page {
+        private int code;
+        private String message;
+        private List<JSONObject> data;
+
+        public int getCode() {
+            return code;
+        }
+
+        public void setCode(int code) {
+            this.code = code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public List<JSONObject> getData() {
+            return data;
+        }
+
+        public void setData(List<JSONObject> data) {
+            this.data = data;
+        }
+    }
+}
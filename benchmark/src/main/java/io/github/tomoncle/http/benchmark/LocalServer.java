@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 进程内的 HTTP 服务，避免基准测试受外网影响
+ *
+ * @author tomoncle
+ */
+public final class LocalServer implements AutoCloseable {
+    public static final String JSON = "{\"code\":200,\"message\":\"success\",\"data\":{\"id\":1024,\"name\":\"tomoncle\","
+            + "\"tags\":[\"java\",\"http\",\"okhttp\"],\"active\":true,\"score\":99.5}}";
+
+    private final MockWebServer server = new MockWebServer();
+
+    public LocalServer() throws IOException {
+        this(JSON);
+    }
+
+    /**
+     * @param body 所有请求返回的 JSON 响应体
+     * @throws IOException e
+     */
+    public LocalServer(String body) throws IOException {
+        this(body, Collections.singletonList(Protocol.HTTP_1_1));
+    }
+
+    /**
+     * @param body      所有请求返回的 JSON 响应体
+     * @param protocols 服务端支持的协议，h2c 使用 {@link Protocol#H2_PRIOR_KNOWLEDGE}
+     * @throws IOException e
+     */
+    public LocalServer(String body, List<Protocol> protocols) throws IOException {
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.OFF);
+        // 关闭 Nagle 算法，否则响应头与响应体分两次写出时会触发 40ms 的延迟确认
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setProtocols(protocols);
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                return new MockResponse().setHeader("Content-Type", "application/json; charset=utf-8").setBody(body);
+            }
+        });
+        server.start();
+    }
+
+    public MockWebServer server() {
+        return server;
+    }
+
+    public String url(String path) {
+        return server.url(path).toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * 与 {@link ServerSocketFactory#getDefault()} 相同地创建并绑定服务端套接字，只是接受的连接都开启 TCP_NODELAY
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new NoDelayServerSocket();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return new NoDelayServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return new NoDelayServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            return new NoDelayServerSocket(port, backlog, address);
+        }
+    }
+
+    private static final class NoDelayServerSocket extends ServerSocket {
+        NoDelayServerSocket() throws IOException {
+            super();
+        }
+
+        NoDelayServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            super(port, backlog, address);
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            Socket socket = super.accept();
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.HttpVersion;
+import io.github.tomoncle.http.metrics.HostSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP/1.1 与 h2c 在并发异步请求下的吞吐量，每次操作同时发出 {@link #CONCURRENCY} 个请求；
+ * 连接数与流数量通过 {@link Connections} 作为辅助计数器出现在结果中
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtocolBenchmark {
+    private static final int CONCURRENCY = 64;
+
+    @Param({"HTTP_1_1", "H2C"})
+    public HttpVersion version;
+
+    private LocalServer server;
+    private RequestsClient client;
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new LocalServer(LocalServer.JSON, version.protocols());
+        client = Requests.register("protocol-" + version, RequestsConfig.builder()
+                .connectionPool(CONCURRENCY, 5, TimeUnit.MINUTES)
+                .httpVersion(version)
+                .build());
+        url = server.url("/json");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public Object concurrent(Connections connections) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            futures[i] = client.GET.requestAsync(url);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    /**
+     * 每轮迭代结束时记录该主机累计的连接数与 HTTP/2 流数量，取值不随测量时长变化
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+        public long connections;
+        public long streams;
+
+        @TearDown(Level.Iteration)
+        public void record(ProtocolBenchmark benchmark) {
+            HostSnapshot host = benchmark.client.metrics().snapshot().getHosts().get(benchmark.server.server().getHostName());
+            if (null != host) {
+                connections = host.getConnections();
+                streams = host.getStreams();
+            }
+        }
+    }
+}
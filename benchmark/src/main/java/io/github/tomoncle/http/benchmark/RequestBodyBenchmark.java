@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SimpleRequestBody#toRequestBody()} 的开销，包括把请求体写出到 {@link Buffer}
+ *
+ * @author tomoncle
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBodyBenchmark {
+    @Param({"FORM", "BODY"})
+    public DataType dataType;
+
+    @Param({"4", "64"})
+    public int params;
+
+    private SimpleRequestBody simpleRequestBody;
+
+    @Setup
+    public void setup() {
+        SimpleRequestBody.Builder builder = SimpleRequestBody.builder(dataType);
+        for (int i = 0; i < params; i++) {
+            builder.setParam("key" + i, "value-" + i + "-中文");
+        }
+        simpleRequestBody = builder.build();
+    }
+
+    @Benchmark
+    public RequestBody toRequestBody() {
+        return simpleRequestBody.toRequestBody();
+    }
+
+    @Benchmark
+    public long toRequestBodyAndWrite() throws IOException {
+        Buffer buffer = new Buffer();
+        simpleRequestBody.toRequestBody().writeTo(buffer);
+        long size = buffer.size();
+        buffer.clear();
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.ByteBufferRequestBody;
+import io.github.tomoncle.http.domain.FileRegionRequestBody;
+import io.github.tomoncle.http.domain.InputStreamRequestBody;
+import io.github.tomoncle.http.domain.ProgressRequestBody;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多部分上传吞吐量，{@link ProgressRequestBody} 相对原始请求体的开销，以及输入流、内存映射与文件区间请求体的写出速度
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadBenchmark {
+    @Param({"65536", "4194304"})
+    public int size;
+
+    private LocalServer server;
+    private Path path;
+    private RequestBody fileBody;
+    private RequestBody mappedBody;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new LocalServer();
+        path = Files.createTempFile("requests-benchmark", ".bin");
+        Files.write(path, new byte[size]);
+        fileBody = RequestBody.create(path.toFile(), Requests.OCTET_STREAM);
+        mappedBody = ByteBufferRequestBody.map(path, 0, size, Requests.OCTET_STREAM);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public int upload() throws IOException {
+        try (Response response = Requests.POST.upload(server.url("/upload"), path.toString(), Collections.emptyMap(), Collections.emptyMap())) {
+            return response.code();
+        }
+    }
+
+    @Benchmark
+    public void writeRawBody() throws IOException {
+        write(fileBody);
+    }
+
+    @Benchmark
+    public void writeProgressBody() throws IOException {
+        write(new ProgressRequestBody(fileBody, (bytesWritten, contentLength, done, logPrompt) -> {
+        }, null));
+    }
+
+    @Benchmark
+    public void writeProgressBodyWithDefaultListener() throws IOException {
+        write(new ProgressRequestBody(fileBody, "benchmark"));
+    }
+
+    @Benchmark
+    public void writeInputStreamBody() throws IOException {
+        write(new InputStreamRequestBody(Files.newInputStream(path), Requests.OCTET_STREAM));
+    }
+
+    @Benchmark
+    public void writeMappedBody() throws IOException {
+        write(mappedBody);
+    }
+
+    @Benchmark
+    public void writeFileRegionBody() throws IOException {
+        write(new FileRegionRequestBody(path, 0, size, Requests.OCTET_STREAM));
+    }
+
+    private static void write(RequestBody body) throws IOException {
+        try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+            body.writeTo(sink);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.benchmark;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Requests#GET} 与 {@link Requests#POST} 单次调用的耗时与分配
+ *
+ * @author tomoncle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerbBenchmark {
+    private LocalServer server;
+    private String url;
+    private SimpleRequestBody body;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new LocalServer();
+        url = server.url("/json");
+        body = SimpleRequestBody.builder(DataType.BODY)
+                .setParam("username", "tomoncle")
+                .setParam("age", 18)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public String get() throws IOException {
+        return Requests.GET.request(url);
+    }
+
+    @Benchmark
+    public String post() throws IOException {
+        return Requests.POST.request(url, body);
+    }
+}
@@ -16,13 +16,27 @@
 
 package io.github.tomoncle.http;
 
+import com.alibaba.fastjson.TypeReference;
+import io.github.tomoncle.http.domain.ServerSentEvent;
+import io.github.tomoncle.http.domain.StreamLine;
+import okhttp3.Call;
 import okhttp3.Headers;
+import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
@@ -35,6 +49,12 @@ import java.io.IOException;
  * @since JDK1.8
  */
 abstract class AbstractBasic {
+    private final Supplier<OkHttpClient> client;
+
+    AbstractBasic(Supplier<OkHttpClient> client) {
+        this.client = client;
+    }
+
     public @Nullable String request(String url) throws IOException {
         try (Response response = this.response(url); ResponseBody responseBody = response.body()) {
             return null == responseBody ? null : responseBody.string();
@@ -55,5 +75,155 @@ abstract class AbstractBasic {
         return method(url, null, headers);
     }
 
-    abstract Response method(String url, RequestBody requestBody, Headers headers) throws IOException;
+    /**
+     * 直接从响应体字节流反序列化，不经过中间 String，响应体为空时返回 null
+     *
+     * @param url   url
+     * @param clazz 目标类型
+     * @param <T>   目标类型
+     * @return T
+     * @throws IOException e
+     */
+    public <T> T json(String url, Class<T> clazz) throws IOException {
+        return json(url, null, (Type) clazz);
+    }
+
+    public <T> T json(String url, Headers headers, Class<T> clazz) throws IOException {
+        return json(url, headers, (Type) clazz);
+    }
+
+    public <T> T json(String url, TypeReference<T> type) throws IOException {
+        return json(url, null, type.getType());
+    }
+
+    public <T> T json(String url, Headers headers, TypeReference<T> type) throws IOException {
+        return json(url, headers, type.getType());
+    }
+
+    public <T> T json(String url, Headers headers, Type type) throws IOException {
+        return JsonResponses.decode(this.response(url, headers), type);
+    }
+
+    /**
+     * 以输入流的方式读取响应体，调用方负责关闭输入流
+     *
+     * @param url     url
+     * @param headers headers
+     * @return InputStream
+     * @throws IOException e
+     */
+    public InputStream stream(String url, Headers headers) throws IOException {
+        return ResponseStreams.inputStream(this.response(url, headers));
+    }
+
+    public long writeTo(String url, Headers headers, Path path) throws IOException {
+        return ResponseStreams.copy(this.response(url, headers), path);
+    }
+
+    public long writeTo(String url, Headers headers, OutputStream outputStream) throws IOException {
+        return ResponseStreams.copy(this.response(url, headers), outputStream);
+    }
+
+    public long writeTo(String url, Headers headers, WritableByteChannel channel) throws IOException {
+        return ResponseStreams.copy(this.response(url, headers), channel);
+    }
+
+    public long consume(String url, Headers headers, ChunkConsumer consumer) throws IOException {
+        return ResponseStreams.consume(this.response(url, headers), consumer);
+    }
+
+    /**
+     * 以 {@link Flow.Publisher} 的方式读取响应体，订阅者第一次 request 时才发送请求
+     *
+     * @param url     url
+     * @param headers headers
+     * @return Flow.Publisher
+     */
+    public Flow.Publisher<ByteBuffer> publisher(String url, Headers headers) {
+        return ResponsePublisher.of(newCall(url, null, headers));
+    }
+
+    /**
+     * 逐条读取 text/event-stream，断线后携带 Last-Event-ID 自动重连，调用方负责关闭
+     *
+     * @param url     url
+     * @param headers headers
+     * @return RecordStream
+     */
+    public RecordStream<ServerSentEvent> events(String url, Headers headers) {
+        RecordParsers.EventStream parser = new RecordParsers.EventStream();
+        return new RecordStream<>(() -> newCall(url, null, streamHeaders(headers, "text/event-stream", parser.lastEventId())), parser);
+    }
+
+    public long events(String url, Headers headers, RecordConsumer<? super ServerSentEvent> consumer) throws IOException {
+        try (RecordStream<ServerSentEvent> stream = this.events(url, headers)) {
+            return stream.consume(consumer);
+        }
+    }
+
+    /**
+     * 逐行读取 NDJSON 等按行分隔的响应，调用方负责关闭
+     *
+     * @param url     url
+     * @param headers headers
+     * @return RecordStream
+     */
+    public RecordStream<StreamLine> lines(String url, Headers headers) {
+        return new RecordStream<>(() -> newCall(url, null, streamHeaders(headers, null, null)), new RecordParsers.Lines());
+    }
+
+    public long lines(String url, Headers headers, RecordConsumer<? super StreamLine> consumer) throws IOException {
+        try (RecordStream<StreamLine> stream = this.lines(url, headers)) {
+            return stream.consume(consumer);
+        }
+    }
+
+    public CompletableFuture<String> requestAsync(String url) {
+        return requestAsync(url, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, Headers headers) {
+        return requestAsync(url, headers, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.string(client(), newCall(url, null, headers), null, executor);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url) {
+        return responseAsync(url, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, Headers headers) {
+        return responseAsync(url, headers, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.response(client(), newCall(url, null, headers), executor);
+    }
+
+    Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
+        return newCall(url, requestBody, headers).execute();
+    }
+
+    /**
+     * 流式请求带上 no-store，缓存与请求合并不会缓冲永不结束的响应体
+     */
+    private static Headers streamHeaders(@Nullable Headers headers, @Nullable String accept, @Nullable String lastEventId) {
+        Headers.Builder builder = null == headers ? new Headers.Builder() : headers.newBuilder();
+        builder.set("Cache-Control", "no-store");
+        if (null != accept && null == builder.get("Accept")) {
+            builder.set("Accept", accept);
+        }
+        if (null != lastEventId) {
+            builder.set("Last-Event-ID", lastEventId);
+        }
+        return builder.build();
+    }
+
+    OkHttpClient client() {
+        return client.get();
+    }
+
+    abstract Call newCall(String url, RequestBody requestBody, Headers headers);
 }
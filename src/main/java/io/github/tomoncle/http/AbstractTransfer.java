@@ -16,15 +16,31 @@
 
 package io.github.tomoncle.http;
 
+import com.alibaba.fastjson.TypeReference;
+import io.github.tomoncle.http.domain.ProgressRequestBody;
+import io.github.tomoncle.http.domain.PublisherRequestBody;
+import io.github.tomoncle.http.domain.RelayRequestBody;
 import io.github.tomoncle.http.domain.SimpleRequestBody;
+import okhttp3.Call;
 import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
@@ -37,6 +53,10 @@ import java.util.Objects;
  * @since JDK1.8
  */
 abstract class AbstractTransfer extends AbstractBasic {
+    AbstractTransfer(Supplier<OkHttpClient> client) {
+        super(client);
+    }
+
     public @Nullable String request(String url, SimpleRequestBody simpleRequestBody) throws IOException {
         try (Response response = this.response(url, simpleRequestBody); ResponseBody body = response.body()) {
             return body != null ? body.string() : "";
@@ -49,6 +69,16 @@ abstract class AbstractTransfer extends AbstractBasic {
         }
     }
 
+    public @Nullable String request(String url, RequestBody requestBody) throws IOException {
+        return request(url, requestBody, null);
+    }
+
+    public @Nullable String request(String url, RequestBody requestBody, Headers headers) throws IOException {
+        try (Response response = this.response(url, requestBody, headers); ResponseBody body = response.body()) {
+            return body != null ? body.string() : "";
+        }
+    }
+
     public Response response(String url, SimpleRequestBody simpleRequestBody, Headers headers) throws IOException {
         return method(url, simpleRequestBody, headers);
     }
@@ -65,6 +95,134 @@ abstract class AbstractTransfer extends AbstractBasic {
         return response(url, requestBody, null);
     }
 
+    public <T> T json(String url, SimpleRequestBody simpleRequestBody, Class<T> clazz) throws IOException {
+        return json(url, simpleRequestBody, null, clazz);
+    }
+
+    public <T> T json(String url, SimpleRequestBody simpleRequestBody, Headers headers, Class<T> clazz) throws IOException {
+        return JsonResponses.decode(this.response(url, simpleRequestBody, headers), clazz);
+    }
+
+    public <T> T json(String url, SimpleRequestBody simpleRequestBody, TypeReference<T> type) throws IOException {
+        return json(url, simpleRequestBody, null, type);
+    }
+
+    public <T> T json(String url, SimpleRequestBody simpleRequestBody, Headers headers, TypeReference<T> type) throws IOException {
+        return JsonResponses.decode(this.response(url, simpleRequestBody, headers), type.getType());
+    }
+
+    public <T> T json(String url, RequestBody requestBody, Headers headers, Type type) throws IOException {
+        return JsonResponses.decode(this.response(url, requestBody, headers), type);
+    }
+
+    public InputStream stream(String url, RequestBody requestBody, Headers headers) throws IOException {
+        return ResponseStreams.inputStream(this.response(url, requestBody, headers));
+    }
+
+    public long writeTo(String url, RequestBody requestBody, Headers headers, Path path) throws IOException {
+        return ResponseStreams.copy(this.response(url, requestBody, headers), path);
+    }
+
+    public long writeTo(String url, RequestBody requestBody, Headers headers, OutputStream outputStream) throws IOException {
+        return ResponseStreams.copy(this.response(url, requestBody, headers), outputStream);
+    }
+
+    public long writeTo(String url, RequestBody requestBody, Headers headers, WritableByteChannel channel) throws IOException {
+        return ResponseStreams.copy(this.response(url, requestBody, headers), channel);
+    }
+
+    public long consume(String url, RequestBody requestBody, Headers headers, ChunkConsumer consumer) throws IOException {
+        return ResponseStreams.consume(this.response(url, requestBody, headers), consumer);
+    }
+
+    public Flow.Publisher<ByteBuffer> publisher(String url, RequestBody requestBody, Headers headers) {
+        return ResponsePublisher.of(newCall(url, requestBody, headers));
+    }
+
+    /**
+     * 把上游响应体直接作为请求体发送，不经过 String 或临时文件。
+     * Content-Type、Content-Length 与 Content-Encoding 随之传递；无论成功失败，方法返回时上游响应都已关闭
+     *
+     * @param url      url
+     * @param upstream 上游响应，非 2xx 时不转发，抛出异常
+     * @param headers  headers
+     * @return 本次请求的响应，调用方负责关闭
+     * @throws IOException e
+     */
+    public Response relay(String url, Response upstream, Headers headers) throws IOException {
+        return relay(url, upstream, headers, null);
+    }
+
+    /**
+     * @param listener 上传进度，为空时不统计
+     */
+    public Response relay(String url, Response upstream, Headers headers, @Nullable ProgressListener listener) throws IOException {
+        try (Response source = upstream) {
+            ResponseBody body = source.body();
+            if (!source.isSuccessful() || Objects.isNull(body)) {
+                throw new IOException("上游响应不可转发: " + source.code() + " " + source.request().url());
+            }
+            RequestBody requestBody = new RelayRequestBody(body);
+            if (Objects.nonNull(listener)) {
+                requestBody = new ProgressRequestBody(requestBody, listener, "转发 " + source.request().url() + " ");
+            }
+            // 上游未被解码的压缩内容原样转发，需要同时声明编码
+            String encoding = source.header("Content-Encoding");
+            if (Objects.nonNull(encoding) && (Objects.isNull(headers) || Objects.isNull(headers.get("Content-Encoding")))) {
+                headers = (Objects.isNull(headers) ? new Headers.Builder() : headers.newBuilder()).set("Content-Encoding", encoding).build();
+            }
+            return this.response(url, requestBody, headers);
+        }
+    }
+
+    public CompletableFuture<String> requestAsync(String url, SimpleRequestBody simpleRequestBody) {
+        return requestAsync(url, simpleRequestBody, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, SimpleRequestBody simpleRequestBody, Headers headers) {
+        return requestAsync(url, simpleRequestBody, headers, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, SimpleRequestBody simpleRequestBody, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.string(client(), newCall(url, simpleRequestBody.toRequestBody(), headers), "", executor);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, RequestBody requestBody) {
+        return requestAsync(url, requestBody, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, RequestBody requestBody, Headers headers) {
+        return requestAsync(url, requestBody, headers, null);
+    }
+
+    public CompletableFuture<String> requestAsync(String url, RequestBody requestBody, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.string(client(), newCall(url, requestBody, headers), "", executor);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, SimpleRequestBody simpleRequestBody) {
+        return responseAsync(url, simpleRequestBody, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, SimpleRequestBody simpleRequestBody, Headers headers) {
+        return responseAsync(url, simpleRequestBody, headers, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, SimpleRequestBody simpleRequestBody, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.response(client(), newCall(url, simpleRequestBody.toRequestBody(), headers), executor);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, RequestBody requestBody) {
+        return responseAsync(url, requestBody, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, RequestBody requestBody, Headers headers) {
+        return responseAsync(url, requestBody, headers, null);
+    }
+
+    public CompletableFuture<Response> responseAsync(String url, RequestBody requestBody, Headers headers, @Nullable Executor executor) {
+        return AsyncCalls.response(client(), newCall(url, requestBody, headers), executor);
+    }
+
     Response method(String url, SimpleRequestBody simpleRequestBody, Headers headers) throws IOException {
         return method(url, simpleRequestBody.toRequestBody(), headers);
     }
@@ -73,4 +231,15 @@ abstract class AbstractTransfer extends AbstractBasic {
         return Objects.isNull(requestBody) ? RequestBody.create("".getBytes()) : requestBody;
     }
 
+    /**
+     * 创建调用，发布者请求体绑定该调用，等待发布者数据时能够响应取消与调用超时
+     */
+    Call newCall(Request request) {
+        Call call = client().newCall(request);
+        if (request.body() instanceof PublisherRequestBody) {
+            ((PublisherRequestBody) request.body()).bind(call);
+        }
+        return call;
+    }
+
 }
\ No newline at end of file
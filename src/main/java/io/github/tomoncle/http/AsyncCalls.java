@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：基于 {@link Call#enqueue(Callback)} 的异步调用，将 OkHttp 回调转换为 {@link CompletableFuture}
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 取消返回的 Future 会同时取消底层的 {@link Call}；指定 executor 时，完成回调在该 executor 中执行。
+ * @since JDK1.8
+ */
+final class AsyncCalls {
+    private AsyncCalls() {
+    }
+
+    /**
+     * 响应转换函数，在 OkHttp 的回调线程中执行，可以进行阻塞读取
+     *
+     * @param <T> 转换结果
+     */
+    interface ResponseMapper<T> {
+        T apply(Response response) throws IOException;
+    }
+
+    static CompletableFuture<Response> response(OkHttpClient client, Call call, @Nullable Executor executor) {
+        return enqueue(client, call, response -> response, executor);
+    }
+
+    static CompletableFuture<String> string(OkHttpClient client, Call call, @Nullable String defaultValue, @Nullable Executor executor) {
+        return enqueue(client, call, response -> {
+            try (ResponseBody body = response.body()) {
+                return null == body ? defaultValue : body.string();
+            }
+        }, executor);
+    }
+
+    /**
+     * @param client 创建 call 的客户端，注册了 {@link RateLimiter} 时由其决定入队时机
+     */
+    static <T> CompletableFuture<T> enqueue(OkHttpClient client, Call call, ResponseMapper<T> mapper, @Nullable Executor executor) {
+        CallFuture<T> future = new CallFuture<>(call);
+        Callback callback = new Callback() {
+            @Override
+            public void onFailure(@NotNull Call c, @NotNull IOException e) {
+                complete(future, null, e, executor);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call c, @NotNull Response response) {
+                if (future.isDone()) {
+                    response.close();
+                    return;
+                }
+                T value;
+                try {
+                    value = mapper.apply(response);
+                } catch (Throwable e) {
+                    response.close();
+                    complete(future, null, e, executor);
+                    return;
+                }
+                complete(future, value, null, executor);
+            }
+        };
+        RateLimiter limiter = RateLimiter.of(client);
+        if (Objects.isNull(limiter)) {
+            call.enqueue(callback);
+        } else {
+            limiter.enqueue(call, callback);
+        }
+        return future;
+    }
+
+    private static <T> void complete(CallFuture<T> future, T value, Throwable error, @Nullable Executor executor) {
+        Runnable task = () -> {
+            boolean completed = Objects.isNull(error) ? future.complete(value) : future.completeExceptionally(error);
+            if (!completed && value instanceof Response) {
+                ((Response) value).close();
+            }
+        };
+        if (Objects.isNull(executor)) {
+            task.run();
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            // executor 已关闭或拒绝任务时，直接在回调线程中完成
+            task.run();
+        }
+    }
+
+    /**
+     * 绑定了 {@link Call} 的 Future，取消时同步取消网络请求
+     */
+    static final class CallFuture<T> extends CompletableFuture<T> {
+        private final Call call;
+
+        CallFuture(Call call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                call.cancel();
+            }
+            return cancelled;
+        }
+    }
+}
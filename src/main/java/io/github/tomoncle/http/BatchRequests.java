@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.BatchResult;
+import io.github.tomoncle.http.domain.RequestSpec;
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：有界并发的批量请求执行器，按完成顺序返回结果
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 输入序列按需拉取，同一时刻最多 concurrency 个请求在执行；JDK21+ 默认使用虚拟线程，
+ * 否则使用大小为 concurrency 的线程池。在途请求与尚未取走的结果合计不超过 concurrency 个，调用方消费变慢时生产随之暂停。
+ * 单个请求的失败记录在 {@link BatchResult#getError()} 中，不会中断整个批次；{@link #close()} 取消在途请求并停止提交。
+ * @since JDK1.8
+ */
+public final class BatchRequests implements Iterator<BatchResult>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchRequests.class);
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final BatchResult END = BatchResult.failure(-1, null, null, 0);
+
+    private final Function<String, AbstractBasic> verbs;
+    private final Semaphore permits;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final BlockingQueue<BatchResult> results = new LinkedBlockingQueue<>();
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+    /**
+     * 生产者自身占 1，每个已提交的请求占 1，归零时写入结束标记
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private volatile boolean closed;
+    private BatchResult next;
+    private boolean finished;
+
+    BatchRequests(Function<String, AbstractBasic> verbs, int concurrency, @Nullable ExecutorService executor) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be > 0: " + concurrency);
+        }
+        this.verbs = verbs;
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        this.ownExecutor = Objects.isNull(executor);
+        this.executor = ownExecutor ? RequestsExecutors.newExecutor("requests-batch", concurrency) : executor;
+    }
+
+    BatchRequests start(Iterator<RequestSpec> specs) {
+        RequestsExecutors.daemon(() -> produce(specs), "requests-batch-producer-" + SEQUENCE.incrementAndGet()).start();
+        return this;
+    }
+
+    /**
+     * 许可在调用方取走结果时才归还，在途请求与未被消费的结果合计不超过 concurrency 个
+     */
+    private void produce(Iterator<RequestSpec> specs) {
+        long index = 0;
+        try {
+            while (!closed && specs.hasNext()) {
+                RequestSpec spec = specs.next();
+                permits.acquire();
+                if (closed) {
+                    break;
+                }
+                long current = index++;
+                pending.incrementAndGet();
+                try {
+                    executor.execute(() -> complete(execute(current, spec)));
+                } catch (RuntimeException e) {
+                    complete(BatchResult.failure(current, spec, e, 0));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("读取批量请求失败!", e);
+            // 生产者已停止，取走该结果时多归还的一个许可不会再被使用
+            results.add(BatchResult.failure(index, null, e, 0));
+        } finally {
+            complete(null);
+            if (ownExecutor) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private void complete(@Nullable BatchResult result) {
+        if (Objects.nonNull(result) && !closed) {
+            results.add(result);
+        }
+        if (pending.decrementAndGet() == 0) {
+            results.add(END);
+        }
+    }
+
+    private BatchResult execute(long index, RequestSpec spec) {
+        long start = System.currentTimeMillis();
+        Call call = null;
+        try {
+            if (closed) {
+                throw new IOException("Canceled");
+            }
+            call = verbs.apply(spec.getMethod()).newCall(spec.getUrl(), spec.getRequestBody(), spec.getHeaders());
+            calls.add(call);
+            if (closed) {
+                call.cancel();
+            }
+            try (Response response = call.execute();
+                 ResponseBody body = response.body()) {
+                String value = null == body ? null : body.string();
+                return BatchResult.success(index, spec, response.code(), response.headers(), value, System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            return BatchResult.failure(index, spec, e, System.currentTimeMillis() - start);
+        } finally {
+            if (Objects.nonNull(call)) {
+                calls.remove(call);
+            }
+        }
+    }
+
+    /**
+     * 阻塞等待下一个完成的请求
+     *
+     * @return 是否还有结果
+     */
+    @Override
+    public boolean hasNext() {
+        if (Objects.nonNull(next)) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        try {
+            BatchResult result = results.take();
+            if (result == END || closed) {
+                finished = true;
+                return false;
+            }
+            permits.release();
+            next = result;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = true;
+            return false;
+        }
+    }
+
+    @Override
+    public BatchResult next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BatchResult result = next;
+        next = null;
+        return result;
+    }
+
+    public Stream<BatchResult> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * 停止提交新的请求并取消在途请求，未被消费的结果被丢弃
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        calls.forEach(Call::cancel);
+        results.clear();
+        // 唤醒等待许可的生产者，使其看到关闭标记后退出
+        permits.release(concurrency);
+    }
+}
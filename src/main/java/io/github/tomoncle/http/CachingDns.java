@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Dns;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：带过期时间的 DNS 缓存
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#dns(Dns)} 注册。解析结果缓存 {@link Builder#ttl(long, TimeUnit)}，
+ * 超过 {@link Builder#refreshAhead(double)} 比例后在后台刷新，刷新期间和刷新失败时继续使用旧结果；
+ * 解析失败缓存 {@link Builder#negativeTtl(long, TimeUnit)}，避免对不存在的主机反复解析。
+ * {@link Builder#preResolve(String...)} 中的主机在创建时于后台解析，第一次请求不再等待 DNS。
+ * @since JDK1.8
+ */
+public class CachingDns implements Dns {
+    private static final Logger logger = LoggerFactory.getLogger(CachingDns.class);
+
+    private final Dns delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final long refreshNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService executor = RequestsExecutors.newExecutor("requests-dns", 2);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    private CachingDns(Builder builder) {
+        this.delegate = builder.delegate;
+        this.ttlNanos = builder.ttlNanos;
+        this.negativeTtlNanos = builder.negativeTtlNanos;
+        this.refreshNanos = (long) (builder.ttlNanos * builder.refreshAhead);
+        this.maxEntries = builder.maxEntries;
+        preResolve(builder.preResolve.toArray(new String[0]));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 在后台解析主机，已缓存的主机跳过
+     *
+     * @param hosts 主机名
+     */
+    public void preResolve(String... hosts) {
+        for (String host : hosts) {
+            if (!entries.containsKey(host)) {
+                executor.execute(() -> resolve(host, null));
+            }
+        }
+    }
+
+    /**
+     * @return 命中缓存的次数，包括失败缓存
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 命中失败缓存的次数
+     */
+    public long negativeHits() {
+        return negativeHits.sum();
+    }
+
+    /**
+     * @return 同步解析的次数
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 后台刷新的次数
+     */
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return 命中缓存省下的解析耗时（毫秒），按每个主机最近一次解析耗时估算
+     */
+    public long savedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(savedNanos.sum());
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void evictAll() {
+        entries.clear();
+    }
+
+    @NotNull
+    @Override
+    public List<InetAddress> lookup(@NotNull String hostname) throws UnknownHostException {
+        long now = System.nanoTime();
+        Entry entry = entries.get(hostname);
+        if (Objects.isNull(entry) || now - entry.expiresAt >= 0) {
+            misses.increment();
+            entry = resolve(hostname, entry);
+        } else {
+            hits.increment();
+            savedNanos.add(entry.resolveNanos);
+            if (Objects.nonNull(entry.error)) {
+                negativeHits.increment();
+            } else if (now - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true)) {
+                refreshes.increment();
+                Entry previous = entry;
+                executor.execute(() -> resolve(hostname, previous));
+            }
+        }
+        if (Objects.nonNull(entry.error)) {
+            throw new UnknownHostException(entry.error);
+        }
+        return entry.addresses;
+    }
+
+    /**
+     * @param previous 已过期或需要刷新的旧结果，解析失败且旧结果仍未过期时保留旧结果
+     */
+    private Entry resolve(String hostname, Entry previous) {
+        long start = System.nanoTime();
+        Entry entry;
+        try {
+            List<InetAddress> addresses = Collections.unmodifiableList(delegate.lookup(hostname));
+            long end = System.nanoTime();
+            entry = new Entry(addresses, null, end - start, end + refreshNanos, end + ttlNanos);
+        } catch (UnknownHostException e) {
+            long end = System.nanoTime();
+            if (Objects.nonNull(previous) && Objects.isNull(previous.error) && end - previous.expiresAt < 0) {
+                logger.debug("刷新 {} 失败，继续使用缓存结果: {}", hostname, e.toString());
+                previous.refreshing.set(false);
+                return previous;
+            }
+            String message = Objects.isNull(e.getMessage()) ? hostname : e.getMessage();
+            entry = new Entry(Collections.emptyList(), message, end - start, end, end + negativeTtlNanos);
+        } catch (RuntimeException e) {
+            logger.warn("解析 {} 异常", hostname, e);
+            if (Objects.nonNull(previous)) {
+                previous.refreshing.set(false);
+            }
+            throw e;
+        }
+        put(hostname, entry);
+        return entry;
+    }
+
+    private void put(String hostname, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(hostname)) {
+            long now = System.nanoTime();
+            entries.values().removeIf(old -> now - old.expiresAt >= 0);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(hostname, entry);
+    }
+
+    private static final class Entry {
+        private final List<InetAddress> addresses;
+        /**
+         * 解析失败的原因，成功时为 null
+         */
+        private final String error;
+        private final long resolveNanos;
+        private final long refreshAt;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(List<InetAddress> addresses, String error, long resolveNanos, long refreshAt, long expiresAt) {
+            this.addresses = addresses;
+            this.error = error;
+            this.resolveNanos = resolveNanos;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class Builder {
+        private Dns delegate = Dns.SYSTEM;
+        private long ttlNanos = TimeUnit.SECONDS.toNanos(60);
+        private long negativeTtlNanos = TimeUnit.SECONDS.toNanos(5);
+        private double refreshAhead = 0.8;
+        private int maxEntries = 1024;
+        private final List<String> preResolve = new ArrayList<>();
+
+        Builder() {
+        }
+
+        /**
+         * @param delegate 实际解析使用的 Dns，默认 {@link Dns#SYSTEM}
+         * @return Builder
+         */
+        public Builder delegate(Dns delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "delegate");
+            return this;
+        }
+
+        /**
+         * @param ttl  解析结果的缓存时长
+         * @param unit 时间单位
+         * @return Builder
+         */
+        public Builder ttl(long ttl, TimeUnit unit) {
+            this.ttlNanos = Math.max(1, unit.toNanos(ttl));
+            return this;
+        }
+
+        /**
+         * @param negativeTtl 解析失败的缓存时长，0 表示不缓存失败
+         * @param unit        时间单位
+         * @return Builder
+         */
+        public Builder negativeTtl(long negativeTtl, TimeUnit unit) {
+            this.negativeTtlNanos = Math.max(0, unit.toNanos(negativeTtl));
+            return this;
+        }
+
+        /**
+         * @param refreshAhead 缓存时长超过该比例后在后台刷新，取值 (0, 1]，1 表示不提前刷新
+         * @return Builder
+         */
+        public Builder refreshAhead(double refreshAhead) {
+            this.refreshAhead = Math.max(0.01, Math.min(1, refreshAhead));
+            return this;
+        }
+
+        /**
+         * @param maxEntries 最多缓存的主机数，超过时先清理过期结果，仍然超过时不再缓存新主机
+         * @return Builder
+         */
+        public Builder maxEntries(int maxEntries) {
+            this.maxEntries = Math.max(1, maxEntries);
+            return this;
+        }
+
+        /**
+         * @param hosts 创建时在后台预先解析的主机
+         * @return Builder
+         */
+        public Builder preResolve(String... hosts) {
+            this.preResolve.addAll(Arrays.asList(hosts));
+            return this;
+        }
+
+        public CachingDns build() {
+            return new CachingDns(this);
+        }
+    }
+}
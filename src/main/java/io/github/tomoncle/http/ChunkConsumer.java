@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：响应体分块消费接口
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote chunk 在每次回调之间复用，回调返回后不要再持有它。
+ * @since JDK1.8
+ */
+public interface ChunkConsumer {
+    void accept(ByteBuffer chunk) throws IOException;
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.AggregateProgress;
+import io.github.tomoncle.http.domain.ChunkedUploadOptions;
+import io.github.tomoncle.http.domain.ChunkedUploadResult;
+import io.github.tomoncle.http.domain.FileRegionRequestBody;
+import io.github.tomoncle.http.domain.UploadChunk;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分片、并行、可续传的大文件上传
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 文件按固定大小切分，每个分片按偏移量直接从文件读取；多个分片并行上传，失败的分片单独重试。
+ * 已完成的分片记录在 {@code <文件名>.upload} 状态文件中，进程重启后只上传未完成的分片。
+ * @since JDK1.8
+ */
+final class ChunkedUpload {
+    static final String STATE_SUFFIX = ".upload";
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUpload.class);
+
+    private final Function<Request, Call> callFactory;
+
+    ChunkedUpload(Function<Request, Call> callFactory) {
+        this.callFactory = callFactory;
+    }
+
+    ChunkedUploadResult upload(String url, Path path, String filename, ChunkedUploadOptions options, Headers headers) throws IOException {
+        long fileSize = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String uploadId = Objects.nonNull(options.getUploadId()) ? options.getUploadId()
+                : UUID.nameUUIDFromBytes((path.toAbsolutePath() + ":" + fileSize + ":" + lastModified).getBytes()).toString();
+        int chunkCount = (int) Math.max(1, (fileSize + options.getChunkSize() - 1) / options.getChunkSize());
+        Path statePath = path.resolveSibling(path.getFileName() + STATE_SUFFIX);
+        State state = options.isResume() ? State.load(statePath, uploadId, fileSize, options.getChunkSize()) : null;
+        if (Objects.isNull(state)) {
+            state = new State(uploadId, fileSize, options.getChunkSize());
+        }
+        int resumed = state.completed.cardinality();
+        long uploaded = 0;
+        List<UploadChunk> pending = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            long offset = i * options.getChunkSize();
+            UploadChunk chunk = new UploadChunk(uploadId, filename, i, chunkCount, offset, Math.min(options.getChunkSize(), fileSize - offset), fileSize);
+            if (state.completed.get(i)) {
+                uploaded += chunk.getLength();
+            } else {
+                pending.add(chunk);
+            }
+        }
+        if (resumed > 0) {
+            logger.debug("{} 续传，已完成 {}/{} 个分片", filename, resumed, chunkCount);
+        }
+        AggregateProgress progress = new AggregateProgress(fileSize, uploaded, options.getListener(), String.format("文件 %s ", filename));
+        ExecutorService executor = RequestsExecutors.newExecutor("requests-upload", options.getParallelism());
+        // 虚拟线程执行器不限制并发，由许可保证同时上传的分片不超过 parallelism
+        Semaphore permits = new Semaphore(options.getParallelism());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UploadChunk chunk : pending) {
+                State current = state;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        uploadChunk(url, path, chunk, options, headers, progress);
+                    } finally {
+                        permits.release();
+                    }
+                    current.complete(chunk.getIndex(), statePath);
+                    return null;
+                }));
+            }
+            await(futures, state);
+        } finally {
+            executor.shutdown();
+        }
+        ChunkedUploadResult result = complete(url, uploadId, fileSize, chunkCount, resumed, options, headers);
+        Files.deleteIfExists(statePath);
+        return result;
+    }
+
+    private void uploadChunk(String url, Path path, UploadChunk chunk, ChunkedUploadOptions options, Headers headers, AggregateProgress progress) throws IOException, InterruptedException {
+        ChunkedUploadProtocol protocol = options.getProtocol();
+        for (int attempt = 0; ; attempt++) {
+            AggregateProgress.Part part = progress.wrap(new FileRegionRequestBody(path, chunk.getOffset(), chunk.getLength(), Requests.OCTET_STREAM));
+            IOException error;
+            try (Response response = callFactory.apply(protocol.chunkRequest(url, chunk, part.body(), headers)).execute()) {
+                if (protocol.isCompleted(chunk, response)) {
+                    return;
+                }
+                error = new IOException("分片上传失败: " + chunk + ", code=" + response.code());
+            } catch (IOException e) {
+                error = e;
+            }
+            part.rollback();
+            if (attempt >= options.getMaxRetries()) {
+                throw error;
+            }
+            logger.debug("{} 第 {} 次重试: {}", chunk, attempt + 1, error.toString());
+            Thread.sleep(options.getRetryBackoffMillis() << Math.min(attempt, 10));
+        }
+    }
+
+    private ChunkedUploadResult complete(String url, String uploadId, long fileSize, int chunkCount, int resumed, ChunkedUploadOptions options, Headers headers) throws IOException {
+        Request request = options.getProtocol().completeRequest(url, uploadId, fileSize, headers);
+        if (Objects.isNull(request)) {
+            return new ChunkedUploadResult(uploadId, fileSize, chunkCount, resumed, -1, null);
+        }
+        try (Response response = callFactory.apply(request).execute(); ResponseBody body = response.body()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("分片合并失败: " + uploadId + ", code=" + response.code());
+            }
+            return new ChunkedUploadResult(uploadId, fileSize, chunkCount, resumed, response.code(), null == body ? null : body.string());
+        }
+    }
+
+    private static void await(List<Future<?>> futures, State state) throws IOException {
+        IOException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                IOException error = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                if (Objects.isNull(failure)) {
+                    failure = error;
+                } else {
+                    failure.addSuppressed(error);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                failure = new InterruptedIOException("上传被中断: " + state.uploadId);
+                break;
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 状态文件，记录已完成的分片
+     */
+    private static final class State {
+        final String uploadId;
+        final long fileSize;
+        final long chunkSize;
+        final BitSet completed = new BitSet();
+
+        State(String uploadId, long fileSize, long chunkSize) {
+            this.uploadId = uploadId;
+            this.fileSize = fileSize;
+            this.chunkSize = chunkSize;
+        }
+
+        static State load(Path path, String uploadId, long fileSize, long chunkSize) {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+                if (!uploadId.equals(properties.getProperty("uploadId"))
+                        || fileSize != Long.parseLong(properties.getProperty("fileSize"))
+                        || chunkSize != Long.parseLong(properties.getProperty("chunkSize"))) {
+                    return null;
+                }
+                State state = new State(uploadId, fileSize, chunkSize);
+                String completed = properties.getProperty("completed", "");
+                for (String index : completed.split(",")) {
+                    if (!index.isEmpty()) {
+                        state.completed.set(Integer.parseInt(index));
+                    }
+                }
+                return state;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("读取上传状态文件失败，重新上传: {}", path, e);
+                return null;
+            }
+        }
+
+        synchronized void complete(int index, Path path) throws IOException {
+            completed.set(index);
+            Properties properties = new Properties();
+            properties.setProperty("uploadId", uploadId);
+            properties.setProperty("fileSize", String.valueOf(fileSize));
+            properties.setProperty("chunkSize", String.valueOf(chunkSize));
+            StringBuilder builder = new StringBuilder();
+            for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+                builder.append(builder.length() == 0 ? "" : ",").append(i);
+            }
+            properties.setProperty("completed", builder.toString());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, null);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
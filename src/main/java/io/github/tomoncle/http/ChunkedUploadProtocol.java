@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.UploadChunk;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import javax.annotation.Nullable;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分片上传的服务端协议
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 默认实现为 {@link OffsetHeaderUploadProtocol}，对接其它服务端时实现该接口即可。
+ * @since JDK1.8
+ */
+public interface ChunkedUploadProtocol {
+    /**
+     * 构建单个分片的请求
+     *
+     * @param url     上传地址
+     * @param chunk   分片信息
+     * @param body    分片内容
+     * @param headers 调用方指定的请求头，可能为空
+     * @return Request
+     */
+    Request chunkRequest(String url, UploadChunk chunk, RequestBody body, @Nullable Headers headers);
+
+    /**
+     * 判断分片是否上传成功，失败的分片会单独重试
+     *
+     * @param chunk    分片信息
+     * @param response 响应
+     * @return boolean
+     */
+    default boolean isCompleted(UploadChunk chunk, Response response) {
+        return response.isSuccessful();
+    }
+
+    /**
+     * 所有分片上传完成后发送的请求，例如合并分片
+     *
+     * @param url      上传地址
+     * @param uploadId 上传ID
+     * @param fileSize 文件大小
+     * @param headers  调用方指定的请求头，可能为空
+     * @return 不需要时返回 null
+     */
+    default @Nullable Request completeRequest(String url, String uploadId, long fileSize, @Nullable Headers headers) {
+        return null;
+    }
+}
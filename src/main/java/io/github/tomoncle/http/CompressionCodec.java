@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：请求体/响应体压缩编码
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 内置 gzip 与 deflate；zstd、brotli 等编码可基于对应的流式实现（例如 zstd-jni、brotli4j）实现本接口后
+ * 注册到 {@link CompressionInterceptor}。{@link #encode(OutputStream)} 返回的流关闭时必须结束压缩并关闭传入的流。
+ * @since JDK1.8
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return Content-Encoding 中的编码名称，例如 gzip
+     */
+    String encoding();
+
+    OutputStream encode(OutputStream out) throws IOException;
+
+    InputStream decode(InputStream in) throws IOException;
+
+    static CompressionCodec gzip() {
+        return gzip(-1);
+    }
+
+    /**
+     * @param level 压缩级别 1-9，-1 表示默认级别
+     * @return gzip 编码
+     */
+    static CompressionCodec gzip(int level) {
+        return new CompressionCodec() {
+            @Override
+            public String encoding() {
+                return "gzip";
+            }
+
+            @Override
+            public OutputStream encode(OutputStream out) throws IOException {
+                return new GZIPOutputStream(out, 8192) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            }
+
+            @Override
+            public InputStream decode(InputStream in) throws IOException {
+                return new GZIPInputStream(in, 8192);
+            }
+        };
+    }
+
+    /**
+     * HTTP 的 deflate 编码为 zlib 格式（RFC 1950）
+     *
+     * @return deflate 编码
+     */
+    static CompressionCodec deflate() {
+        return new CompressionCodec() {
+            @Override
+            public String encoding() {
+                return "deflate";
+            }
+
+            @Override
+            public OutputStream encode(OutputStream out) {
+                return new DeflaterOutputStream(out, new Deflater(), 8192) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            // 自行创建的 Deflater 不会被 DeflaterOutputStream 释放
+                            def.end();
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public InputStream decode(InputStream in) {
+                return new InflaterInputStream(in);
+            }
+        };
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.CompressionStats;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：请求体压缩与响应体解压
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#compression(CompressionInterceptor)} 按客户端开启，
+ * 单个请求可通过 {@link #ENCODING_HEADER} 请求头指定编码或传 {@code identity} 关闭，该请求头不会发送给服务端。
+ * 请求体在写出时边压缩边发送，长度未知或不小于 {@link Builder#minSize(long)} 时才压缩；
+ * 请求未指定 Accept-Encoding 时按已注册的编码协商，并透明解压响应体（包括 OkHttp 只支持的 gzip 之外的编码）。
+ * @since JDK1.8
+ */
+public class CompressionInterceptor implements Interceptor {
+    /**
+     * 单个请求的压缩编码，取值为已注册的编码名称或 identity
+     */
+    public static final String ENCODING_HEADER = "Requests-Content-Encoding";
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final Map<String, CompressionCodec> codecs;
+    private final Map<String, Counter> counters;
+    private final CompressionCodec requestCodec;
+    private final long minSize;
+    private final boolean decodeResponses;
+    private final String acceptEncoding;
+
+    private CompressionInterceptor(Builder builder) {
+        this.codecs = Collections.unmodifiableMap(new LinkedHashMap<>(builder.codecs));
+        Map<String, Counter> counters = new LinkedHashMap<>();
+        codecs.keySet().forEach(name -> counters.put(name, new Counter()));
+        this.counters = Collections.unmodifiableMap(counters);
+        this.requestCodec = Objects.isNull(builder.requestEncoding) ? null : codec(builder.requestEncoding);
+        this.minSize = builder.minSize;
+        this.decodeResponses = builder.decodeResponses;
+        this.acceptEncoding = String.join(", ", codecs.keySet());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 按编码名称统计的压缩/解压字节数与 CPU 时间
+     */
+    public Map<String, CompressionStats> stats() {
+        Map<String, CompressionStats> stats = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> stats.put(name, counter.snapshot(name)));
+        return stats;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Request.Builder builder = null;
+        CompressionCodec codec = requestCodec;
+        String override = request.header(ENCODING_HEADER);
+        if (Objects.nonNull(override)) {
+            builder = request.newBuilder().removeHeader(ENCODING_HEADER);
+            if ("identity".equalsIgnoreCase(override.trim())) {
+                codec = null;
+            } else {
+                codec = codecs.get(override.trim().toLowerCase(Locale.ROOT));
+                if (Objects.isNull(codec)) {
+                    throw new IOException("未注册的压缩编码: " + override);
+                }
+            }
+        }
+        RequestBody body = request.body();
+        if (Objects.nonNull(codec) && Objects.nonNull(body) && Objects.isNull(request.header("Content-Encoding"))) {
+            long contentLength = body.contentLength();
+            if (contentLength < 0 || contentLength >= minSize) {
+                builder = Objects.isNull(builder) ? request.newBuilder() : builder;
+                builder.header("Content-Encoding", codec.encoding())
+                        .method(request.method(), new CompressedRequestBody(body, codec, counters.get(codec.encoding())));
+            }
+        }
+        // 与 OkHttp 的 BridgeInterceptor 一致，Range 请求不协商压缩，避免拿到编码后表示的片段而无法单独解码
+        boolean negotiate = decodeResponses && !codecs.isEmpty() && Objects.isNull(request.header("Accept-Encoding"))
+                && Objects.isNull(request.header("Range"));
+        if (negotiate) {
+            builder = Objects.isNull(builder) ? request.newBuilder() : builder;
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        Response response = chain.proceed(Objects.isNull(builder) ? request : builder.build());
+        return negotiate ? decode(response) : response;
+    }
+
+    private Response decode(Response response) {
+        String encoding = response.header("Content-Encoding");
+        ResponseBody body = response.body();
+        if (Objects.isNull(encoding) || Objects.isNull(body) || "HEAD".equals(response.request().method())
+                || response.code() == 204 || response.code() == 304) {
+            return response;
+        }
+        String name = encoding.trim().toLowerCase(Locale.ROOT);
+        CompressionCodec codec = codecs.get(name);
+        if (Objects.isNull(codec)) {
+            return response;
+        }
+        InputStream decoded = new DecodingInputStream(body.byteStream(), codec, counters.get(name));
+        return response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .removeHeader("Content-Length")
+                .body(ResponseBody.create(Okio.buffer(Okio.source(decoded)), body.contentType(), -1))
+                .build();
+    }
+
+    private CompressionCodec codec(String encoding) {
+        CompressionCodec codec = codecs.get(encoding.toLowerCase(Locale.ROOT));
+        if (Objects.isNull(codec)) {
+            throw new IllegalArgumentException("未注册的压缩编码: " + encoding);
+        }
+        return codec;
+    }
+
+    private static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static final class Counter {
+        final LongAdder requests = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder requestCompressedBytes = new LongAdder();
+        final LongAdder compressNanos = new LongAdder();
+        final LongAdder responses = new LongAdder();
+        final LongAdder responseCompressedBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder decompressNanos = new LongAdder();
+
+        CompressionStats snapshot(String encoding) {
+            return new CompressionStats(encoding, requests.sum(), requestBytes.sum(), requestCompressedBytes.sum(), compressNanos.sum(),
+                    responses.sum(), responseCompressedBytes.sum(), responseBytes.sum(), decompressNanos.sum());
+        }
+    }
+
+    /**
+     * 长度未知，按 chunked 方式发送
+     */
+    private static final class CompressedRequestBody extends RequestBody {
+        private final RequestBody delegate;
+        private final CompressionCodec codec;
+        private final Counter counter;
+
+        CompressedRequestBody(RequestBody delegate, CompressionCodec codec, Counter counter) {
+            this.delegate = delegate;
+            this.codec = codec;
+            this.counter = counter;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return delegate.isOneShot();
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            Buffer compressed = new Buffer();
+            EncodingSink encoding = new EncodingSink(sink, compressed, codec.encode(compressed.outputStream()), counter);
+            BufferedSink buffered = Okio.buffer(encoding);
+            try {
+                delegate.writeTo(buffered);
+                // 结束压缩并写出剩余数据，不关闭下游的 sink
+                buffered.close();
+            } finally {
+                // 请求体或尾部写出失败时同样结束编码器，释放 Deflater 持有的本地内存
+                encoding.release();
+            }
+        }
+    }
+
+    /**
+     * 压缩输出先写入内存缓冲区再转交下游，CPU 时间只统计压缩本身
+     */
+    private static final class EncodingSink implements Sink {
+        private final BufferedSink sink;
+        private final Buffer compressed;
+        private final OutputStream encoder;
+        private final Counter counter;
+        private final byte[] chunk = new byte[8192];
+        private long bytesIn;
+        private long bytesOut;
+        private long nanos;
+        private boolean closed;
+
+        EncodingSink(BufferedSink sink, Buffer compressed, OutputStream encoder, Counter counter) {
+            this.sink = sink;
+            this.compressed = compressed;
+            this.encoder = encoder;
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(@NotNull Buffer source, long byteCount) throws IOException {
+            long start = cpuNanos();
+            long remaining = byteCount;
+            while (remaining > 0) {
+                int read = source.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+                encoder.write(chunk, 0, read);
+                remaining -= read;
+            }
+            nanos += cpuNanos() - start;
+            bytesIn += byteCount;
+            emit();
+        }
+
+        private void emit() throws IOException {
+            long size = compressed.size();
+            if (size > 0) {
+                bytesOut += size;
+                sink.write(compressed, size);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            sink.flush();
+        }
+
+        @NotNull
+        @Override
+        public Timeout timeout() {
+            return sink.timeout();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long start = cpuNanos();
+            encoder.close();
+            nanos += cpuNanos() - start;
+            emit();
+            counter.requests.increment();
+            counter.requestBytes.add(bytesIn);
+            counter.requestCompressedBytes.add(bytesOut);
+            counter.compressNanos.add(nanos);
+        }
+
+        /**
+         * 未正常关闭时结束编码器，不写出剩余数据也不计入统计
+         */
+        void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                encoder.close();
+            } catch (IOException ignored) {
+                // 请求已经失败，编码器的异常不再向上抛出
+            }
+        }
+    }
+
+    /**
+     * 首次读取时才创建解码流，gzip 等编码在创建时就会读取头部
+     */
+    private static final class DecodingInputStream extends InputStream {
+        private final CountingInputStream raw;
+        private final CompressionCodec codec;
+        private final Counter counter;
+        private InputStream decoder;
+        private long bytes;
+        private long nanos;
+        private boolean recorded;
+
+        DecodingInputStream(InputStream raw, CompressionCodec codec, Counter counter) {
+            this.raw = new CountingInputStream(raw);
+            this.codec = codec;
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            long start = cpuNanos();
+            if (Objects.isNull(decoder)) {
+                decoder = codec.decode(raw);
+            }
+            int read = decoder.read(b, off, len);
+            nanos += cpuNanos() - start;
+            if (read == -1) {
+                record();
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+
+        private void record() {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            counter.responses.increment();
+            counter.responseCompressedBytes.add(raw.count);
+            counter.responseBytes.add(bytes);
+            counter.decompressNanos.add(nanos);
+        }
+
+        @Override
+        public void close() throws IOException {
+            record();
+            if (Objects.isNull(decoder)) {
+                raw.close();
+            } else {
+                decoder.close();
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, CompressionCodec> codecs = new LinkedHashMap<>();
+        private String requestEncoding = "gzip";
+        private long minSize = 1024;
+        private boolean decodeResponses = true;
+
+        Builder() {
+            codec(CompressionCodec.gzip());
+            codec(CompressionCodec.deflate());
+        }
+
+        /**
+         * 注册或替换编码，注册顺序即 Accept-Encoding 中的顺序
+         *
+         * @param codec 编码
+         * @return Builder
+         */
+        public Builder codec(CompressionCodec codec) {
+            this.codecs.put(codec.encoding().toLowerCase(Locale.ROOT), codec);
+            return this;
+        }
+
+        /**
+         * @param requestEncoding 请求体默认使用的编码，为空时默认不压缩，只能通过 {@link #ENCODING_HEADER} 按请求开启
+         * @return Builder
+         */
+        public Builder requestEncoding(@Nullable String requestEncoding) {
+            this.requestEncoding = requestEncoding;
+            return this;
+        }
+
+        /**
+         * @param minSize 长度已知时小于该值的请求体不压缩
+         * @return Builder
+         */
+        public Builder minSize(long minSize) {
+            this.minSize = Math.max(0, minSize);
+            return this;
+        }
+
+        /**
+         * @param decodeResponses 是否协商 Accept-Encoding 并解压响应体
+         * @return Builder
+         */
+        public Builder decodeResponses(boolean decodeResponses) {
+            this.decodeResponses = decodeResponses;
+            return this;
+        }
+
+        public CompressionInterceptor build() {
+            return new CompressionInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：按主机自适应并发限制与熔断
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#limiter(ConcurrencyLimiter)} 注册，位于重试之后，每次重试单独占用并发。
+ * 并发上限按 AIMD 调整：响应正常时每个请求增加 1/limit，出现 IO 异常、429/503 或延迟超过基线的
+ * {@link Builder#tolerance(double)} 倍时乘以 {@link Builder#backoffRatio(double)}，基线为延迟的指数移动平均。
+ * 并发计数在收到响应头时释放。达到上限时默认立即拒绝，设置 {@link Builder#queueTimeout(long, TimeUnit)} 后排队等待。
+ * 连续 {@link Builder#failureThreshold(int)} 次失败（IO 异常或 5xx）后熔断打开，{@link Builder#openDuration(long, TimeUnit)}
+ * 之后半开放行一个探测请求，成功则关闭，失败则重新打开。每个主机的状态相互独立，放行路径只有 CAS，没有锁。
+ * @since JDK1.8
+ */
+public class ConcurrencyLimiter implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+    /**
+     * 并发上限以千分之一为单位存储
+     */
+    private static final long UNIT = 1000;
+
+    private final long initialLimit;
+    private final long minLimit;
+    private final long maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final long queueTimeoutNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit * UNIT;
+        this.maxLimit = builder.maxLimit * UNIT;
+        this.initialLimit = Math.max(minLimit, Math.min(maxLimit, builder.initialLimit * UNIT));
+        this.backoffRatio = builder.backoffRatio;
+        this.tolerance = builder.tolerance;
+        this.queueTimeoutNanos = builder.queueTimeoutNanos;
+        this.failureThreshold = builder.failureThreshold;
+        this.openNanos = builder.openNanos;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 因并发已满或熔断打开而拒绝的请求数
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return 熔断打开的次数
+     */
+    public long circuitOpened() {
+        return opened.sum();
+    }
+
+    /**
+     * @param host 主机名
+     * @return 该主机当前的并发上限，没有请求过时返回初始值
+     */
+    public int limit(String host) {
+        Host state = hosts.get(host);
+        return (int) ((Objects.isNull(state) ? initialLimit : state.limit.get()) / UNIT);
+    }
+
+    /**
+     * @param host 主机名
+     * @return 该主机正在等待响应的请求数
+     */
+    public int inFlight(String host) {
+        Host state = hosts.get(host);
+        return Objects.isNull(state) ? 0 : state.inFlight.get();
+    }
+
+    /**
+     * @param host 主机名
+     * @return 该主机的熔断状态
+     */
+    public CircuitState state(String host) {
+        Host state = hosts.get(host);
+        return Objects.isNull(state) ? CircuitState.CLOSED : CircuitState.values()[state.circuit.get()];
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String name = request.url().host();
+        Host host = hosts.computeIfAbsent(name, key -> new Host());
+        if (!host.allow()) {
+            rejected.increment();
+            throw new RejectedException(name, "熔断已打开");
+        }
+        host.acquire(name);
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            host.release();
+            if (!chain.call().isCanceled()) {
+                host.drop();
+                host.failure(name);
+            }
+            throw e;
+        }
+        host.release();
+        int code = response.code();
+        if (code >= 500) {
+            host.failure(name);
+        } else {
+            host.success();
+        }
+        if (code == 429 || code == 503) {
+            host.drop();
+        } else {
+            host.sample(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return response;
+    }
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 并发已满或熔断打开时抛出，重试拦截器不会重试该异常
+     */
+    public static final class RejectedException extends IOException {
+        private final String host;
+
+        RejectedException(String host, String reason) {
+            super(host + " " + reason);
+            this.host = host;
+        }
+
+        public String getHost() {
+            return host;
+        }
+    }
+
+    /**
+     * 单个主机的并发上限、延迟基线与熔断状态
+     */
+    private final class Host {
+        private final AtomicLong limit = new AtomicLong(initialLimit);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger waiters = new AtomicInteger();
+        /**
+         * 延迟基线（微秒），0 表示还没有样本
+         */
+        private final AtomicLong baseline = new AtomicLong();
+        private volatile long lastDrop;
+        private final AtomicInteger circuit = new AtomicInteger(CircuitState.CLOSED.ordinal());
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long openedAt;
+
+        boolean allow() {
+            int state = circuit.get();
+            if (state == CircuitState.CLOSED.ordinal()) {
+                return true;
+            }
+            long now = System.nanoTime();
+            long since = now - openedAt;
+            // 半开状态下探测请求超时未结束（被取消或被并发限制拒绝）时允许新的探测
+            if (since < openNanos || !circuit.compareAndSet(state, CircuitState.HALF_OPEN.ordinal())) {
+                return false;
+            }
+            openedAt = now;
+            return true;
+        }
+
+        void success() {
+            failures.set(0);
+            if (circuit.get() != CircuitState.CLOSED.ordinal()) {
+                circuit.set(CircuitState.CLOSED.ordinal());
+            }
+        }
+
+        void failure(String name) {
+            int state = circuit.get();
+            if (state == CircuitState.OPEN.ordinal()) {
+                return;
+            }
+            if (state == CircuitState.HALF_OPEN.ordinal() || failures.incrementAndGet() >= failureThreshold) {
+                long now = System.nanoTime();
+                if (circuit.compareAndSet(state, CircuitState.OPEN.ordinal())) {
+                    openedAt = now;
+                    opened.increment();
+                    logger.warn("{} 熔断打开", name);
+                }
+            }
+        }
+
+        private boolean tryAcquire() {
+            int max = (int) Math.max(1, limit.get() / UNIT);
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= max) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void acquire(String name) throws IOException {
+            if (tryAcquire()) {
+                return;
+            }
+            if (queueTimeoutNanos <= 0) {
+                rejected.increment();
+                throw new RejectedException(name, "并发已满");
+            }
+            long deadline = System.nanoTime() + queueTimeoutNanos;
+            // 只有排队时才加锁，先登记等待者再重试，保证 release 不会漏掉通知
+            waiters.incrementAndGet();
+            try {
+                synchronized (this) {
+                    while (!tryAcquire()) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            rejected.increment();
+                            throw new RejectedException(name, "排队超时");
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("并发排队被中断");
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+            if (waiters.get() > 0) {
+                synchronized (this) {
+                    notify();
+                }
+            }
+        }
+
+        /**
+         * 记录延迟样本：超过基线的 tolerance 倍视为拥塞，否则加性增加
+         */
+        void sample(long micros) {
+            long base = baseline.get();
+            long next = base == 0 ? micros : base + (micros - base) / 16;
+            baseline.compareAndSet(base, Math.max(1, next));
+            if (base > 0 && micros > base * tolerance) {
+                drop();
+                return;
+            }
+            // 空闲时不增加，避免上限在低负载下无限增长
+            long current = limit.get();
+            if (inFlight.get() * 2 * UNIT < current) {
+                return;
+            }
+            limit.compareAndSet(current, Math.min(maxLimit, current + UNIT * UNIT / Math.max(UNIT, current)));
+        }
+
+        /**
+         * 乘性减少，一个基线延迟内只减少一次，避免同一批失败把上限降到最低
+         */
+        void drop() {
+            long now = System.nanoTime();
+            if (now - lastDrop < TimeUnit.MICROSECONDS.toNanos(baseline.get())) {
+                return;
+            }
+            lastDrop = now;
+            long current;
+            do {
+                current = limit.get();
+            } while (!limit.compareAndSet(current, Math.max(minLimit, (long) (current * backoffRatio))));
+        }
+    }
+
+    public static class Builder {
+        private long initialLimit = 20;
+        private long minLimit = 1;
+        private long maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private double tolerance = 2.0;
+        private long queueTimeoutNanos;
+        private int failureThreshold = 5;
+        private long openNanos = TimeUnit.SECONDS.toNanos(30);
+
+        Builder() {
+        }
+
+        /**
+         * @param initial 每个主机的初始并发上限
+         * @param min     并发上限的最小值
+         * @param max     并发上限的最大值
+         * @return Builder
+         */
+        public Builder limit(int initial, int min, int max) {
+            this.minLimit = Math.max(1, min);
+            this.maxLimit = Math.max(minLimit, max);
+            this.initialLimit = initial;
+            return this;
+        }
+
+        /**
+         * @param backoffRatio 拥塞时并发上限乘以该比例，取值 (0, 1)
+         * @return Builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = Math.max(0.1, Math.min(0.99, backoffRatio));
+            return this;
+        }
+
+        /**
+         * @param tolerance 延迟超过基线的倍数时视为拥塞
+         * @return Builder
+         */
+        public Builder tolerance(double tolerance) {
+            this.tolerance = Math.max(1, tolerance);
+            return this;
+        }
+
+        /**
+         * @param timeout 并发已满时的排队时长，0 表示立即拒绝
+         * @param unit    时间单位
+         * @return Builder
+         */
+        public Builder queueTimeout(long timeout, TimeUnit unit) {
+            this.queueTimeoutNanos = Math.max(0, unit.toNanos(timeout));
+            return this;
+        }
+
+        /**
+         * @param failureThreshold 连续失败多少次后熔断打开
+         * @return Builder
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            return this;
+        }
+
+        /**
+         * @param duration 熔断打开后多久进入半开状态
+         * @param unit     时间单位
+         * @return Builder
+         */
+        public Builder openDuration(long duration, TimeUnit unit) {
+            this.openNanos = Math.max(1, unit.toNanos(duration));
+            return this;
+        }
+
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
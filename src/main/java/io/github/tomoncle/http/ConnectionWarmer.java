@@ -0,0 +1,296 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.WarmUpResult;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：连接预热，启动时为每个地址建立指定数量的空闲连接
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#warmer(ConnectionWarmer)} 注册，客户端创建后在后台预热，
+ * {@link #ready()} 在第一次预热完成时完成。每个地址同时发出 N 个请求（默认 HEAD），所有响应头都返回后才关闭，
+ * 保证 HTTP/1.1 下建立 N 个不同的连接；HTTP/2 只建立一个连接。预热请求不经过应用拦截器与事件监听，
+ * 不消耗限流令牌也不计入指标。设置 {@link Builder#keepWarm(long, TimeUnit)} 后按周期重复预热，
+ * 已有的空闲连接被复用并刷新空闲时间，只补足缺少的连接。连接池的 maxIdleConnections 需要不小于预热连接总数。
+ * 周期预热在 {@link RequestsClient#close()}（包括同名客户端被重新注册）或 {@link #close()} 时停止。
+ * @since JDK1.8
+ */
+public class ConnectionWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionWarmer.class);
+
+    private final Map<String, Integer> targets;
+    private final String method;
+    private final long timeoutMillis;
+    private final long keepWarmMillis;
+    private final ExecutorService executor = RequestsExecutors.newCachedExecutor("requests-warmup");
+    private final CompletableFuture<List<WarmUpResult>> ready = new CompletableFuture<>();
+    private final Map<OkHttpClient, Thread> loops = new ConcurrentHashMap<>();
+
+    private ConnectionWarmer(Builder builder) {
+        this.targets = new LinkedHashMap<>(builder.targets);
+        this.method = builder.method;
+        this.timeoutMillis = builder.timeoutMillis;
+        this.keepWarmMillis = builder.keepWarmMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 第一次预热的结果
+     */
+    public CompletableFuture<List<WarmUpResult>> ready() {
+        return ready;
+    }
+
+    /**
+     * 后台预热，由 {@link RequestsConfig} 在创建客户端后调用
+     */
+    void bind(OkHttpClient client) {
+        Thread thread = RequestsExecutors.daemon(() -> {
+            try {
+                List<WarmUpResult> results = warm(client);
+                results.forEach(result -> logger.info("连接预热 {}", result));
+                ready.complete(results);
+                while (keepWarmMillis > 0 && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        Thread.sleep(keepWarmMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    warm(client);
+                }
+            } finally {
+                loops.remove(client, Thread.currentThread());
+            }
+        }, "requests-warmup");
+        loops.put(client, thread);
+        thread.start();
+    }
+
+    /**
+     * 停止该客户端的后台预热，由 {@link RequestsClient#close()} 调用
+     *
+     * @param client 绑定时的客户端
+     */
+    void unbind(OkHttpClient client) {
+        Thread thread = loops.remove(client);
+        if (Objects.nonNull(thread)) {
+            // 正在进行的预热放弃等待并取消未完成的请求
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 停止所有客户端的后台预热，之后仍可以通过 {@link #warm(OkHttpClient)} 手动预热
+     */
+    public void close() {
+        loops.keySet().forEach(this::unbind);
+    }
+
+    /**
+     * 同步预热所有地址
+     *
+     * @param client 预热连接所在的客户端，预热后的连接留在该客户端的连接池中
+     * @return 每个地址的预热结果
+     */
+    public List<WarmUpResult> warm(OkHttpClient client) {
+        List<WarmUpResult> results = new ArrayList<>(targets.size());
+        for (Map.Entry<String, Integer> target : targets.entrySet()) {
+            results.add(warm(client, target.getKey(), target.getValue()));
+        }
+        return results;
+    }
+
+    private WarmUpResult warm(OkHttpClient client, String url, int connections) {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicLong setupNanos = new AtomicLong();
+        OkHttpClient.Builder builder = client.newBuilder()
+                .eventListenerFactory(call -> new SetupListener(opened, setupNanos));
+        builder.interceptors().clear();
+        OkHttpClient warmClient = builder.build();
+        Request request = new Request.Builder().url(url).method(method, null).build();
+        List<CompletableFuture<Response>> calls = new ArrayList<>(connections);
+        List<Call> started = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            Call call = warmClient.newCall(request);
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            started.add(call);
+            calls.add(future);
+            executor.execute(() -> {
+                try {
+                    future.complete(call.execute());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+        int failures = 0;
+        boolean interrupted = false;
+        List<Response> responses = new ArrayList<>(connections);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (CompletableFuture<Response> future : calls) {
+            Response response = null;
+            if (!interrupted) {
+                try {
+                    response = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.debug("预热 {} 失败: {}", url, e.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                }
+            }
+            if (Objects.isNull(response)) {
+                failures++;
+                // 放弃等待的请求在取消前可能已经拿到响应，响应到达时关闭，连接归还连接池
+                future.thenAccept(Response::close);
+            } else {
+                responses.add(response);
+            }
+        }
+        // 所有响应头返回后再关闭，连接才会同时处于占用状态，不会被其它预热请求复用
+        responses.forEach(Response::close);
+        if (failures > 0) {
+            started.forEach(Call::cancel);
+        }
+        return new WarmUpResult(url, connections, opened.get(), failures, setupNanos.get());
+    }
+
+    /**
+     * 统计新建连接数与建连耗时
+     */
+    private static final class SetupListener extends EventListener {
+        private final AtomicInteger opened;
+        private final AtomicLong setupNanos;
+        private long dnsStart;
+        private long connectStart;
+
+        SetupListener(AtomicInteger opened, AtomicLong setupNanos) {
+            this.opened = opened;
+            this.setupNanos = setupNanos;
+        }
+
+        @Override
+        public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+            setupNanos.addAndGet(System.nanoTime() - dnsStart);
+        }
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy,
+                               @Nullable Protocol protocol) {
+            opened.incrementAndGet();
+            setupNanos.addAndGet(System.nanoTime() - connectStart);
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Integer> targets = new LinkedHashMap<>();
+        private String method = "HEAD";
+        private long timeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private long keepWarmMillis;
+
+        Builder() {
+        }
+
+        /**
+         * @param url         预热地址，连接按协议、主机与端口复用，路径只影响预热请求本身
+         * @param connections 需要保持的空闲连接数
+         * @return Builder
+         */
+        public Builder target(String url, int connections) {
+            this.targets.put(url, Math.max(1, connections));
+            return this;
+        }
+
+        /**
+         * @param method 预热请求方法，默认 HEAD，服务端不支持时可以改为 GET 或 OPTIONS
+         * @return Builder
+         */
+        public Builder method(String method) {
+            this.method = Objects.requireNonNull(method, "method");
+            return this;
+        }
+
+        /**
+         * @param timeout 每个地址的预热超时
+         * @param unit    时间单位
+         * @return Builder
+         */
+        public Builder timeout(long timeout, TimeUnit unit) {
+            this.timeoutMillis = Math.max(1, unit.toMillis(timeout));
+            return this;
+        }
+
+        /**
+         * @param period 重复预热的周期，应小于连接池的 keepAlive，0 表示只预热一次
+         * @param unit   时间单位
+         * @return Builder
+         */
+        public Builder keepWarm(long period, TimeUnit unit) {
+            this.keepWarmMillis = Math.max(0, unit.toMillis(period));
+            return this;
+        }
+
+        public ConnectionWarmer build() {
+            return new ConnectionWarmer(this);
+        }
+    }
+}
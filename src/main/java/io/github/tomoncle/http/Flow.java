@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：响应式流接口，与 JDK9 的 java.util.concurrent.Flow 方法签名一致
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 项目以 JDK1.8 为目标，无法直接引用 java.util.concurrent.Flow；语义遵循 Reactive Streams 规范，
+ * 但两者是不同的类型，不能通过方法引用互相转换，也没有内置适配器。与 JDK9+ 的 Flow 或 Reactive Streams 库对接时，
+ * 需要调用方自行编写桥接类：包装对方的 Subscriber 实现本类的 {@link Subscriber} 四个方法，
+ * 在 onSubscribe 中再把本类的 {@link Subscription} 包装为对方的 Subscription（request/cancel 直接转发）。
+ * @since JDK1.8
+ */
+public final class Flow {
+    private Flow() {
+    }
+
+    @FunctionalInterface
+    public interface Publisher<T> {
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        /**
+         * 请求 n 个元素，n 必须大于 0
+         *
+         * @param n n
+         */
+        void request(long n);
+
+        void cancel();
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.metrics.LatencyHistogram;
+import io.github.tomoncle.http.metrics.RequestsMetrics;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：对冲请求，第一次请求超过等待时长仍未返回时再发一次，取先返回的响应
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#hedging(HedgingInterceptor)} 注册，默认只对冲 GET/HEAD，
+ * 其它方法需要通过 {@link Builder#methods(String...)} 显式开启，一次性请求体从不对冲。
+ * 等待时长默认取该主机最近一个统计窗口的 p95 延迟，样本不足时使用 {@link Builder#delay(long, TimeUnit)}。
+ * 对冲数量由令牌桶限制：每个请求存入 {@link Builder#maxHedgeRatio(double)} 个令牌，每次对冲取出一个，
+ * 上游整体变慢时对冲不会把负载翻倍。先返回的响应获胜，另一个请求通过 {@link Call#cancel()} 取消。
+ * @since JDK1.8
+ */
+public class HedgingInterceptor implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(HedgingInterceptor.class);
+    /**
+     * 等待结果时检查原始请求是否取消的间隔
+     */
+    private static final long POLL_MILLIS = 50;
+
+    private final long delayMicros;
+    private final double quantile;
+    private final long windowNanos;
+    private final long minSamples;
+    private final Set<String> methods;
+    private final TokenBudget budget;
+    private final Map<String, HostLatency> hosts = new ConcurrentHashMap<>();
+    private final ExecutorService executor = RequestsExecutors.newCachedExecutor("requests-hedging");
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private volatile OkHttpClient client;
+
+    private HedgingInterceptor(Builder builder) {
+        this.delayMicros = builder.delayMicros;
+        this.quantile = builder.quantile;
+        this.windowNanos = builder.windowNanos;
+        this.minSamples = builder.minSamples;
+        this.methods = new HashSet<>(builder.methods);
+        this.budget = new TokenBudget(builder.budgetCapacity, builder.maxHedgeRatio);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 对冲产生的请求带有该标记，缓存与请求合并直接放行，避免子请求等待自己的父请求
+     */
+    static boolean isAttempt(Request request) {
+        return Objects.nonNull(request.tag(Attempt.class));
+    }
+
+    /**
+     * 绑定发起对冲请求的客户端，由 {@link RequestsConfig} 在创建客户端后调用
+     */
+    void bind(OkHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @return 经过对冲判断的请求数
+     */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return 已发出的对冲请求数
+     */
+    public long hedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    /**
+     * @return 对冲请求先于第一次请求返回的次数
+     */
+    public long hedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * @param host 主机名
+     * @return 该主机当前使用的等待时长（毫秒）
+     */
+    public long delayMillis(String host) {
+        HostLatency latency = hosts.get(host);
+        return TimeUnit.MICROSECONDS.toMillis(Objects.isNull(latency) ? delayMicros : delayMicros(latency));
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        OkHttpClient current = client;
+        RequestBody body = request.body();
+        if (Objects.isNull(current) || isAttempt(request) || !methods.contains(request.method())
+                || (Objects.nonNull(body) && (body.isOneShot() || body.isDuplex()))) {
+            return chain.proceed(request);
+        }
+        requests.increment();
+        budget.deposit();
+        EventListener.Factory listener = current.eventListenerFactory();
+        if (listener instanceof RequestsMetrics) {
+            // 父请求只等待子请求的结果，网络请求由子请求统计
+            ((RequestsMetrics) listener).ignore(chain.call());
+        }
+        HostLatency latency = hosts.computeIfAbsent(request.url().host(), host -> new HostLatency());
+        Race race = new Race(attemptClient(current, chain), request.newBuilder().tag(Attempt.class, Attempt.INSTANCE).build(), latency);
+        race.start(false);
+        try {
+            Response response = race.await(chain.call(), TimeUnit.MICROSECONDS.toNanos(delayMicros(latency)));
+            if (Objects.nonNull(response)) {
+                return response;
+            }
+            if (budget.withdraw()) {
+                hedgesSent.increment();
+                logger.debug("对冲 {} {}", request.method(), request.url());
+                race.start(true);
+            }
+            return race.await(chain.call(), Long.MAX_VALUE);
+        } catch (IOException | RuntimeException | Error e) {
+            race.cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * 子请求沿用父请求的超时设置，前面的拦截器或调用方单独调整过超时时派生一个共享连接池的客户端
+     */
+    private static OkHttpClient attemptClient(OkHttpClient current, Chain chain) {
+        long callTimeoutMillis = TimeUnit.NANOSECONDS.toMillis(chain.call().timeout().timeoutNanos());
+        if (chain.connectTimeoutMillis() == current.connectTimeoutMillis() && chain.readTimeoutMillis() == current.readTimeoutMillis()
+                && chain.writeTimeoutMillis() == current.writeTimeoutMillis() && callTimeoutMillis == current.callTimeoutMillis()) {
+            return current;
+        }
+        return current.newBuilder()
+                .connectTimeout(chain.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(chain.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(chain.writeTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private long delayMicros(HostLatency latency) {
+        long adaptive = latency.delayMicros;
+        return adaptive > 0 ? adaptive : delayMicros;
+    }
+
+    private enum Attempt {
+        INSTANCE
+    }
+
+    /**
+     * 单个主机的延迟统计，每个窗口结束时计算一次分位值，之后清空重新统计
+     */
+    private final class HostLatency {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private volatile long delayMicros;
+
+        void record(long micros) {
+            histogram.record(micros);
+            long start = windowStart.get();
+            long now = System.nanoTime();
+            if (now - start < windowNanos || histogram.getCount() < minSamples || !windowStart.compareAndSet(start, now)) {
+                return;
+            }
+            if (quantile > 0) {
+                delayMicros = Math.max(1, histogram.percentile(quantile));
+            }
+            histogram.reset();
+        }
+    }
+
+    /**
+     * 一次对冲：最多两个请求，第一个返回的响应获胜，失败只有在所有请求都失败后才抛出
+     */
+    private final class Race {
+        private final OkHttpClient client;
+        private final Request request;
+        private final HostLatency latency;
+        private final CompletableFuture<Response> winner = new CompletableFuture<>();
+        private final List<Call> calls = new ArrayList<>(2);
+        private int failed;
+
+        Race(OkHttpClient client, Request request, HostLatency latency) {
+            this.client = client;
+            this.request = request;
+            this.latency = latency;
+        }
+
+        void start(boolean hedge) {
+            Call call = client.newCall(request);
+            synchronized (this) {
+                calls.add(call);
+            }
+            executor.execute(() -> run(call, hedge));
+        }
+
+        private void run(Call call, boolean hedge) {
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = call.execute();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    if (++failed < calls.size()) {
+                        return;
+                    }
+                }
+                winner.completeExceptionally(e);
+                return;
+            }
+            latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            // 先计数再发布结果，调用方拿到响应时统计已经可见
+            if (hedge) {
+                hedgesWon.increment();
+            }
+            if (!winner.complete(response)) {
+                if (hedge) {
+                    hedgesWon.decrement();
+                }
+                response.close();
+                return;
+            }
+            synchronized (this) {
+                calls.stream().filter(other -> other != call).forEach(Call::cancel);
+            }
+        }
+
+        /**
+         * @return 在等待时长内获得的响应，超时返回 null
+         */
+        Response await(Call origin, long timeoutNanos) throws IOException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                if (origin.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long remaining = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                try {
+                    return winner.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // 继续等待
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("对冲等待被中断");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+            }
+        }
+
+        void cancel() {
+            synchronized (this) {
+                calls.forEach(Call::cancel);
+            }
+            // 取消前已经返回的响应需要关闭
+            winner.thenAccept(Response::close);
+        }
+    }
+
+    public static class Builder {
+        private long delayMicros = TimeUnit.MILLISECONDS.toMicros(100);
+        private double quantile = 0.95;
+        private long windowNanos = TimeUnit.SECONDS.toNanos(10);
+        private long minSamples = 20;
+        private final Set<String> methods = new HashSet<>(Arrays.asList("GET", "HEAD"));
+        private long budgetCapacity = 10;
+        private double maxHedgeRatio = 0.1;
+
+        Builder() {
+        }
+
+        /**
+         * @param delay 固定等待时长，开启分位统计时作为样本不足时的默认值
+         * @param unit  时间单位
+         * @return Builder
+         */
+        public Builder delay(long delay, TimeUnit unit) {
+            this.delayMicros = Math.max(1, unit.toMicros(delay));
+            return this;
+        }
+
+        /**
+         * @param quantile 按主机统计延迟分位作为等待时长，例如 0.95；0 表示始终使用固定等待时长
+         * @return Builder
+         */
+        public Builder quantile(double quantile) {
+            this.quantile = Math.max(0, Math.min(1, quantile));
+            return this;
+        }
+
+        /**
+         * @param window     分位统计窗口
+         * @param unit       时间单位
+         * @param minSamples 窗口内至少需要的样本数，不足时继续累积
+         * @return Builder
+         */
+        public Builder window(long window, TimeUnit unit, long minSamples) {
+            this.windowNanos = Math.max(1, unit.toNanos(window));
+            this.minSamples = Math.max(1, minSamples);
+            return this;
+        }
+
+        /**
+         * @param methods 允许对冲的请求方法，替换默认的 GET/HEAD；非幂等方法需确认服务端可以承受重复请求
+         * @return Builder
+         */
+        public Builder methods(String... methods) {
+            this.methods.clear();
+            for (String method : methods) {
+                this.methods.add(method.toUpperCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        /**
+         * @param maxHedgeRatio 对冲请求最多占请求总数的比例，0.1 表示 10%
+         * @return Builder
+         */
+        public Builder maxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = Math.max(0, Math.min(1, maxHedgeRatio));
+            return this;
+        }
+
+        /**
+         * @param capacity 令牌桶容量，即请求较少时允许连续对冲的次数
+         * @return Builder
+         */
+        public Builder burst(long capacity) {
+            this.budgetCapacity = Math.max(0, capacity);
+            return this;
+        }
+
+        public HedgingInterceptor build() {
+            return new HedgingInterceptor(this);
+        }
+    }
+}
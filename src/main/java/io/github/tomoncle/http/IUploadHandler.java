@@ -16,10 +16,17 @@
 
 package io.github.tomoncle.http;
 
+import io.github.tomoncle.http.domain.ChunkedUploadOptions;
+import io.github.tomoncle.http.domain.ChunkedUploadResult;
+import io.github.tomoncle.http.domain.UploadPart;
+import okhttp3.Headers;
 import okhttp3.Response;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
@@ -35,4 +42,35 @@ interface IUploadHandler {
     Response upload(String url, String filePath, Map<String, String> data, Map<String, String> header) throws IOException;
 
     Response upload(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header) throws IOException;
+
+    CompletableFuture<Response> uploadAsync(String url, String filePath, Map<String, String> data, Map<String, String> header);
+
+    CompletableFuture<Response> uploadAsync(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header);
+
+    CompletableFuture<Response> uploadAsync(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header, Executor executor);
+
+    /**
+     * 在一个 multipart/form-data 请求中上传多个文件与字段，内容从各自的来源直接写到 socket
+     *
+     * @param url     上传地址
+     * @param parts   文件、输入流、ByteBuffer、文件区间与普通字段，按顺序发送
+     * @param headers 请求头
+     * @return Response
+     * @throws IOException e
+     */
+    Response upload(String url, List<UploadPart> parts, Headers headers) throws IOException;
+
+    CompletableFuture<Response> uploadAsync(String url, List<UploadPart> parts, Headers headers, Executor executor);
+
+    /**
+     * 分片上传，适用于大文件
+     *
+     * @param url      上传地址
+     * @param filePath 文件路径
+     * @param options  分片参数，包括分片大小、并发数、重试次数和服务端协议
+     * @param headers  请求头
+     * @return ChunkedUploadResult
+     * @throws IOException 任一分片重试后仍失败
+     */
+    ChunkedUploadResult uploadChunked(String url, String filePath, ChunkedUploadOptions options, Headers headers) throws IOException;
 }
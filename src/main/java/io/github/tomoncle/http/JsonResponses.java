@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：直接从响应体字节流反序列化 JSON
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 相比 {@code JSON.parseObject(response.body().string())}，省去完整响应体的字节数组与 String 副本；
+ * 字符集取自 Content-Type，未声明时使用 UTF-8；不超过 {@link #STREAM_THRESHOLD} 字节的响应体仍按 String 解析。
+ * 非 2xx 响应抛出携带状态码的 {@link IOException}，不解析响应体。方法返回时响应已关闭。
+ * @since JDK1.8
+ */
+final class JsonResponses {
+    /**
+     * 不超过该长度的响应体直接按 String 解析，流式解析的固定开销（解码缓冲区）在小响应体上反而更大
+     */
+    static final long STREAM_THRESHOLD = ResponseStreams.CHUNK_SIZE;
+
+    private JsonResponses() {
+    }
+
+    static <T> T decode(Response response, Type type) throws IOException {
+        try (Response r = response; ResponseBody body = r.body()) {
+            if (!r.isSuccessful()) {
+                // 错误响应体通常是服务端的错误描述，不按目标类型解析
+                throw new IOException("JSON 请求失败: " + r.code() + " " + r.request().url());
+            }
+            long contentLength = Objects.isNull(body) ? 0 : body.contentLength();
+            if (contentLength == 0) {
+                return null;
+            }
+            if (contentLength > 0 && contentLength <= STREAM_THRESHOLD) {
+                return JSON.parseObject(body.string(), type);
+            }
+            MediaType contentType = body.contentType();
+            Charset charset = Objects.isNull(contentType) ? StandardCharsets.UTF_8 : contentType.charset(StandardCharsets.UTF_8);
+            // JSONReader 以固定大小的字符缓冲区边读边解析，内存占用与响应体大小无关
+            try (JSONReader reader = new JSONReader(new InputStreamReader(body.byteStream(),
+                    Objects.isNull(charset) ? StandardCharsets.UTF_8 : charset))) {
+                return reader.readObject(type);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Connection;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：HTTP/2 首个连接建立前的并发闸门
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote OkHttp 在连接池中没有可用连接时，并发请求会各自建立连接，HTTP/2 下一次突发就会留下几十个连接。
+ * 开启 {@link io.github.tomoncle.http.domain.HttpVersion#HTTP_2} 或 H2C 时，每个地址的第一个请求先建立连接，
+ * 同时到达的请求等待连接建立（网络拦截器被调用）后再继续，从而复用同一个连接上的多个流。
+ * 第一个请求建连失败时放开闸门，下一个请求重新建立；闸门记录建立的连接，连接被连接池回收或因 GOAWAY 关闭后重新关闭闸门，
+ * 下一次突发同样只建立一个连接。
+ * @since JDK1.8
+ */
+final class MultiplexGate {
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private final long waitMillis;
+    private final Interceptor application = this::application;
+    private final Interceptor network = this::network;
+
+    /**
+     * @param waitMillis 等待第一个连接建立的最长时间，通常为连接超时
+     */
+    MultiplexGate(long waitMillis) {
+        this.waitMillis = waitMillis;
+    }
+
+    Interceptor application() {
+        return application;
+    }
+
+    Interceptor network() {
+        return network;
+    }
+
+    private static String key(HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+
+    @NotNull
+    private Response application(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = key(request.url());
+        Gate gate = gates.get(key);
+        if (Objects.nonNull(gate) && gate.isClosed()) {
+            // 闸门对应的连接已经关闭，由下一个请求重新建立
+            gates.remove(key, gate);
+            gate = null;
+        }
+        if (Objects.isNull(gate)) {
+            Gate mine = new Gate();
+            gate = gates.putIfAbsent(key, mine);
+            if (Objects.isNull(gate)) {
+                try {
+                    return chain.proceed(request);
+                } finally {
+                    if (!mine.ready.isDone()) {
+                        // 没有到达网络层，说明建连失败，交给下一个请求重新建立
+                        gates.remove(key, mine);
+                        mine.ready.complete(null);
+                    }
+                }
+            }
+        }
+        if (!gate.ready.isDone()) {
+            await(gate.ready);
+        }
+        return chain.proceed(request);
+    }
+
+    @NotNull
+    private Response network(Interceptor.Chain chain) throws IOException {
+        Gate gate = gates.get(key(chain.request().url()));
+        if (Objects.nonNull(gate) && !gate.ready.isDone()) {
+            Connection connection = chain.connection();
+            gate.socket = Objects.isNull(connection) ? null : connection.socket();
+            gate.ready.complete(null);
+        }
+        return chain.proceed(chain.request());
+    }
+
+    private void await(CompletableFuture<Void> gate) throws InterruptedIOException {
+        try {
+            gate.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待 HTTP/2 连接被中断");
+        } catch (ExecutionException | TimeoutException e) {
+            // 超时后各自建立连接
+        }
+    }
+
+    private static final class Gate {
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+        /**
+         * 第一个请求使用的连接，连接池回收或 GOAWAY 后该 socket 被关闭
+         */
+        volatile Socket socket;
+
+        boolean isClosed() {
+            Socket current = socket;
+            return ready.isDone() && Objects.nonNull(current) && current.isClosed();
+        }
+    }
+}
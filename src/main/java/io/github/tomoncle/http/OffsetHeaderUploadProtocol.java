@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.UploadChunk;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：默认的分片上传协议，每个分片 POST 到同一地址，通过请求头描述分片位置
+ *
+ * <pre>
+ * Upload-Id: 上传ID
+ * Upload-Filename: 文件名，含非 ASCII 字符时按 RFC 8187 编码为 UTF-8''%E6%96%87...
+ * Upload-Offset: 分片在文件中的偏移量
+ * Upload-Part-Number: 分片序号，从 1 开始
+ * Upload-Part-Count: 分片总数
+ * Upload-Length: 文件总大小
+ * </pre>
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class OffsetHeaderUploadProtocol implements ChunkedUploadProtocol {
+    public static final OffsetHeaderUploadProtocol INSTANCE = new OffsetHeaderUploadProtocol();
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    @Override
+    public Request chunkRequest(String url, UploadChunk chunk, RequestBody body, @Nullable Headers headers) {
+        Request.Builder builder = new Request.Builder().url(url);
+        if (Objects.nonNull(headers)) {
+            builder.headers(headers);
+        }
+        return builder
+                .header("Upload-Id", chunk.getUploadId())
+                .header("Upload-Filename", encodeFilename(chunk.getFilename()))
+                .header("Upload-Offset", String.valueOf(chunk.getOffset()))
+                .header("Upload-Part-Number", String.valueOf(chunk.getIndex() + 1))
+                .header("Upload-Part-Count", String.valueOf(chunk.getChunkCount()))
+                .header("Upload-Length", String.valueOf(chunk.getFileSize()))
+                .post(body)
+                .build();
+    }
+
+    /**
+     * 请求头只允许可见 ASCII 字符，其它文件名按 RFC 8187 的 ext-value 格式百分号编码
+     *
+     * @param filename 文件名
+     * @return 请求头的值
+     */
+    static String encodeFilename(String filename) {
+        boolean plain = true;
+        for (int i = 0; i < filename.length() && plain; i++) {
+            char c = filename.charAt(i);
+            plain = c >= 0x20 && c <= 0x7E;
+        }
+        if (plain && !filename.startsWith("UTF-8''")) {
+            return filename;
+        }
+        StringBuilder builder = new StringBuilder("UTF-8''");
+        for (byte b : filename.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if (isAttrChar(c)) {
+                builder.append((char) c);
+            } else {
+                builder.append('%').append(HEX[c >> 4]).append(HEX[c & 0x0F]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isAttrChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "!#$&+-.^_`|~".indexOf(c) >= 0;
+    }
+}
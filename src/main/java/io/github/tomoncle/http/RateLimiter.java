@@ -0,0 +1,482 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：按主机或 URL 前缀的令牌桶限流
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#rateLimiter(RateLimiter)} 注册，位于重试之后，每次重试都消耗令牌。
+ * 规则按最长 URL 前缀、主机、{@link Builder#perHost(double, int)} 的顺序匹配，没有匹配的请求不限速，只在服务端明确要求时暂停。
+ * 令牌桶以 GCRA 实现，每个桶只有一个 {@link AtomicLong}，取令牌是一次 CAS。
+ * 令牌不足时，同步请求在 {@link Builder#maxWait(long, TimeUnit)} 内等待，超过则抛出 {@link RateLimitedException}；
+ * 异步请求（*Async）在入队前预留令牌，由定时线程延迟入队，不占用 Dispatcher 线程。
+ * 响应带 Retry-After（429/503）或 X-RateLimit-Remaining 为 0 时暂停到指定时间；
+ * 设置 {@link Builder#spreadBelow(long)} 后，配置了规则的主机剩余额度低于阈值时按剩余额度在重置前均匀发送。
+ * @since JDK1.8
+ */
+public class RateLimiter implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+    /**
+     * 大于该值的 X-RateLimit-Reset 视为 Unix 时间戳（秒），否则视为剩余秒数
+     */
+    private static final long EPOCH_SECONDS = 1_000_000_000L;
+
+    private final List<Map.Entry<String, Bucket>> prefixes;
+    private final Map<String, Bucket> hosts;
+    private final double perHostRate;
+    private final int perHostBurst;
+    private final Map<String, Bucket> dynamic = new ConcurrentHashMap<>();
+    private final boolean adaptive;
+    private final long spreadBelow;
+    private final long maxWaitNanos;
+    /**
+     * 异步请求入队前已经取得令牌的 Call
+     */
+    private final Set<Call> permitted = ConcurrentHashMap.newKeySet();
+    private final LongAdder permits = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private RateLimiter(Builder builder) {
+        List<Map.Entry<String, Bucket>> prefixes = new ArrayList<>();
+        builder.prefixes.forEach((prefix, rule) -> prefixes.add(new AbstractMap.SimpleImmutableEntry<>(prefix, rule.bucket())));
+        prefixes.sort(Comparator.comparingInt((Map.Entry<String, Bucket> entry) -> entry.getKey().length()).reversed());
+        this.prefixes = prefixes;
+        this.hosts = new HashMap<>();
+        builder.hosts.forEach((host, rule) -> hosts.put(host, rule.bucket()));
+        this.perHostRate = builder.perHostRate;
+        this.perHostBurst = builder.perHostBurst;
+        this.adaptive = builder.adaptive;
+        this.spreadBelow = builder.spreadBelow;
+        this.maxWaitNanos = builder.maxWaitNanos;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 已发放的令牌数
+     */
+    public long permits() {
+        return permits.sum();
+    }
+
+    /**
+     * @return 需要等待才取得令牌的请求数
+     */
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return 等待时长超过 maxWait 而被拒绝的请求数
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return 客户端注册的限流拦截器，没有时返回 null
+     */
+    static @Nullable RateLimiter of(OkHttpClient client) {
+        for (Interceptor interceptor : client.interceptors()) {
+            if (interceptor instanceof RateLimiter) {
+                return (RateLimiter) interceptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 异步入队：令牌充足时立即入队，否则预留令牌并延迟入队，等待超过 maxWait 时直接回调失败
+     */
+    void enqueue(Call call, Callback callback) {
+        Request request = call.request();
+        Bucket bucket = bucket(request.url());
+        if (Objects.isNull(bucket)) {
+            call.enqueue(callback);
+            return;
+        }
+        long wait = bucket.reserve(System.nanoTime(), maxWaitNanos);
+        if (wait < 0) {
+            rejected.increment();
+            callback.onFailure(call, new RateLimitedException(request.url().host(), TimeUnit.NANOSECONDS.toMillis(-wait)));
+            return;
+        }
+        permits.increment();
+        permitted.add(call);
+        Callback release = new Callback() {
+            @Override
+            public void onFailure(@NotNull Call c, @NotNull IOException e) {
+                permitted.remove(c);
+                callback.onFailure(c, e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call c, @NotNull Response response) throws IOException {
+                permitted.remove(c);
+                callback.onResponse(c, response);
+            }
+        };
+        if (wait == 0) {
+            call.enqueue(release);
+            return;
+        }
+        throttled.increment();
+        Scheduler.INSTANCE.schedule(() -> call.enqueue(release), wait, TimeUnit.NANOSECONDS);
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpUrl url = request.url();
+        if (permitted.isEmpty() || !permitted.remove(chain.call())) {
+            acquire(chain, url);
+        }
+        Response response = chain.proceed(request);
+        if (adaptive) {
+            adapt(url, response);
+        }
+        return response;
+    }
+
+    private void acquire(Chain chain, HttpUrl url) throws IOException {
+        Bucket bucket = bucket(url);
+        if (Objects.isNull(bucket)) {
+            return;
+        }
+        long wait = bucket.reserve(System.nanoTime(), maxWaitNanos);
+        if (wait < 0) {
+            rejected.increment();
+            throw new RateLimitedException(url.host(), TimeUnit.NANOSECONDS.toMillis(-wait));
+        }
+        permits.increment();
+        if (wait == 0) {
+            return;
+        }
+        throttled.increment();
+        RetryInterceptor.sleep(chain, wait, TimeUnit.NANOSECONDS);
+    }
+
+    private @Nullable Bucket bucket(HttpUrl url) {
+        if (!prefixes.isEmpty()) {
+            // HttpUrl#toString 返回缓存的字符串，不会重新拼接
+            String value = url.toString();
+            for (Map.Entry<String, Bucket> entry : prefixes) {
+                if (value.startsWith(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        Bucket bucket = hosts.get(url.host());
+        if (Objects.nonNull(bucket)) {
+            return bucket;
+        }
+        if (perHostRate > 0) {
+            return dynamic.computeIfAbsent(url.host(), host -> new Bucket(perHostRate, perHostBurst));
+        }
+        return dynamic.get(url.host());
+    }
+
+    /**
+     * 根据响应头调整令牌桶，没有匹配规则的主机按需创建不限速的桶，只用于暂停，从不均匀发送
+     */
+    private void adapt(HttpUrl url, Response response) {
+        long now = System.nanoTime();
+        int code = response.code();
+        long retryAfter = code == 429 || code == 503 ? RetryInterceptor.retryAfterMillis(response) : -1;
+        long remaining = parseLong(response.header("X-RateLimit-Remaining"), response.header("RateLimit-Remaining"));
+        long reset = resetMillis(parseLong(response.header("X-RateLimit-Reset"), response.header("RateLimit-Reset")));
+        if (retryAfter < 0 && remaining < 0) {
+            return;
+        }
+        Bucket bucket = bucket(url);
+        if (Objects.isNull(bucket)) {
+            if (retryAfter < 0 && (remaining != 0 || reset < 0)) {
+                return;
+            }
+            bucket = dynamic.computeIfAbsent(url.host(), host -> new Bucket(0, 1));
+        }
+        if (retryAfter >= 0) {
+            logger.debug("{} 限流 {}ms (HTTP {})", url.host(), retryAfter, code);
+            bucket.pauseUntil(now + TimeUnit.MILLISECONDS.toNanos(retryAfter));
+        } else if (remaining == 0 && reset >= 0) {
+            logger.debug("{} 额度用尽，{}ms 后重置", url.host(), reset);
+            bucket.pauseUntil(now + TimeUnit.MILLISECONDS.toNanos(reset));
+        } else if (remaining > 0 && remaining < spreadBelow && reset > 0 && !bucket.pauseOnly()) {
+            bucket.spread(now, TimeUnit.MILLISECONDS.toNanos(reset), remaining);
+        }
+    }
+
+    private static long parseLong(@Nullable String value, @Nullable String fallback) {
+        String text = Objects.nonNull(value) ? value : fallback;
+        if (Objects.isNull(text)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long resetMillis(long reset) {
+        if (reset < 0) {
+            return -1;
+        }
+        if (reset > EPOCH_SECONDS) {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis());
+        }
+        return TimeUnit.SECONDS.toMillis(reset);
+    }
+
+    /**
+     * 令牌不足且等待时长超过 maxWait 时抛出，重试拦截器不会重试该异常
+     */
+    public static final class RateLimitedException extends IOException {
+        private final String host;
+        private final long retryAfterMillis;
+
+        RateLimitedException(String host, long retryAfterMillis) {
+            super(host + " 限流，" + retryAfterMillis + "ms 后可用");
+            this.host = host;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * @return 下一个令牌可用前的等待时长
+         */
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    /**
+     * GCRA 令牌桶：只记录下一个令牌的理论到达时间（TAT），桶满等价于 TAT 不超过当前时间
+     */
+    static final class Bucket {
+        private final long baseInterval;
+        private final int burst;
+        private final AtomicLong tat;
+        /**
+         * 根据响应头调整后的发送间隔，在 adaptedUntil 之前生效
+         */
+        private volatile long adaptedInterval;
+        private volatile long adaptedUntil;
+
+        Bucket(double permitsPerSecond, int burst) {
+            this.baseInterval = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+            this.burst = Math.max(1, burst);
+            long now = System.nanoTime();
+            this.tat = new AtomicLong(now);
+            this.adaptedUntil = now;
+        }
+
+        /**
+         * @return 是否为没有速率规则、只用于暂停的桶
+         */
+        boolean pauseOnly() {
+            return baseInterval == 0;
+        }
+
+        private long interval(long now) {
+            return now - adaptedUntil < 0 ? Math.max(baseInterval, adaptedInterval) : baseInterval;
+        }
+
+        /**
+         * @return 需要等待的纳秒数；超过 maxWait 时不预留，返回等待时长的相反数
+         */
+        long reserve(long now, long maxWait) {
+            while (true) {
+                long interval = interval(now);
+                long current = tat.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - burst * interval - now;
+                if (wait > maxWait) {
+                    return -wait;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+
+        /**
+         * 在 until 之前不再发放令牌，之后从一个令牌开始恢复
+         */
+        void pauseUntil(long until) {
+            long target = until + (burst - 1) * interval(until);
+            long current;
+            do {
+                current = tat.get();
+                if (current - target >= 0) {
+                    return;
+                }
+            } while (!tat.compareAndSet(current, target));
+        }
+
+        /**
+         * 在 window 内均匀发送剩余的 remaining 个请求，只会降低速率
+         */
+        void spread(long now, long window, long remaining) {
+            long interval = window / remaining;
+            if (interval <= baseInterval) {
+                return;
+            }
+            adaptedInterval = interval;
+            adaptedUntil = now + window;
+        }
+    }
+
+    /**
+     * 延迟入队的定时线程，首次使用时创建
+     */
+    private static final class Scheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                runnable -> RequestsExecutors.daemon(runnable, "requests-rate-limiter"));
+    }
+
+    private static final class Rule {
+        private final double permitsPerSecond;
+        private final int burst;
+
+        Rule(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+
+        Bucket bucket() {
+            return new Bucket(permitsPerSecond, burst);
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Rule> prefixes = new HashMap<>();
+        private final Map<String, Rule> hosts = new HashMap<>();
+        private double perHostRate;
+        private int perHostBurst = 1;
+        private boolean adaptive = true;
+        private long spreadBelow;
+        private long maxWaitNanos;
+
+        Builder() {
+        }
+
+        /**
+         * @param host             主机名
+         * @param permitsPerSecond 每秒令牌数
+         * @param burst            桶容量，即空闲后允许的突发请求数
+         * @return Builder
+         */
+        public Builder host(String host, double permitsPerSecond, int burst) {
+            this.hosts.put(host, new Rule(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * @param urlPrefix        URL 前缀，例如 https://api.example.com/v1/orders，优先于主机规则
+         * @param permitsPerSecond 每秒令牌数
+         * @param burst            桶容量
+         * @return Builder
+         */
+        public Builder prefix(String urlPrefix, double permitsPerSecond, int burst) {
+            this.prefixes.put(urlPrefix, new Rule(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * @param permitsPerSecond 没有匹配规则的主机各自使用的每秒令牌数，0 表示不限流
+         * @param burst            桶容量
+         * @return Builder
+         */
+        public Builder perHost(double permitsPerSecond, int burst) {
+            this.perHostRate = Math.max(0, permitsPerSecond);
+            this.perHostBurst = burst;
+            return this;
+        }
+
+        /**
+         * @param maxWait 令牌不足时最多等待的时长，0 表示立即失败
+         * @param unit    时间单位
+         * @return Builder
+         */
+        public Builder maxWait(long maxWait, TimeUnit unit) {
+            this.maxWaitNanos = Math.max(0, unit.toNanos(maxWait));
+            return this;
+        }
+
+        /**
+         * @param adaptive 是否根据 Retry-After 与 X-RateLimit-* 响应头调整速率，默认开启
+         * @return Builder
+         */
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * @param remaining X-RateLimit-Remaining 低于该值时，在重置前按剩余额度均匀发送，只对配置了速率的规则生效；默认 0 表示不均匀发送
+         * @return Builder
+         */
+        public Builder spreadBelow(long remaining) {
+            this.spreadBelow = Math.max(0, remaining);
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
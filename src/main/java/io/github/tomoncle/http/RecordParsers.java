@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.ServerSentEvent;
+import io.github.tomoncle.http.domain.StreamLine;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：事件流与按行分隔流的解析器
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 用 indexOfElement/indexOf 在 Okio 缓冲区中定位行结束符，字段名直接与缓冲区字节比较，
+ * 每行只为字段值创建一次 String 或 byte[]，不逐字节读取。
+ * @since JDK1.8
+ */
+final class RecordParsers {
+    private RecordParsers() {
+    }
+
+    /**
+     * 解析 text/event-stream，规则见 WHATWG HTML 标准的 Server-sent events 一节
+     */
+    static final class EventStream implements RecordStream.Parser<ServerSentEvent> {
+        static final long DEFAULT_RETRY_MILLIS = 3000;
+        private static final ByteString LINE_END = ByteString.encodeUtf8("\r\n");
+        private static final ByteString DATA = ByteString.encodeUtf8("data");
+        private static final ByteString EVENT = ByteString.encodeUtf8("event");
+        private static final ByteString ID = ByteString.encodeUtf8("id");
+        private static final ByteString RETRY = ByteString.encodeUtf8("retry");
+
+        private volatile String lastEventId;
+        private volatile long retryMillis = DEFAULT_RETRY_MILLIS;
+        // 上一行以 \r 结束，下一行开头的 \n 属于同一个行结束符
+        private boolean skipLf;
+
+        @Nullable
+        String lastEventId() {
+            return lastEventId;
+        }
+
+        @Override
+        public long retryMillis() {
+            return retryMillis;
+        }
+
+        @Override
+        public void reset() {
+            skipLf = false;
+        }
+
+        @Override
+        public @Nullable ServerSentEvent read(BufferedSource source) throws IOException {
+            String event = null;
+            String data = null;
+            StringBuilder lines = null;
+            Buffer buffer = source.getBuffer();
+            while (true) {
+                if (skipLf) {
+                    if (!source.request(1)) {
+                        return null;
+                    }
+                    if (buffer.getByte(0) == '\n') {
+                        buffer.skip(1);
+                    }
+                    skipLf = false;
+                }
+                long end = source.indexOfElement(LINE_END);
+                if (end == -1) {
+                    // 连接结束，未完成的事件按规范丢弃
+                    return null;
+                }
+                if (end == 0) {
+                    lineEnd(buffer);
+                    if (null != data) {
+                        return new ServerSentEvent(lastEventId, event, null == lines ? data : lines.toString());
+                    }
+                    event = null;
+                    continue;
+                }
+                if (buffer.getByte(0) == ':') {
+                    // 注释行，通常是服务端的心跳
+                    buffer.skip(end);
+                    lineEnd(buffer);
+                    continue;
+                }
+                long colon = buffer.indexOf((byte) ':', 0, end);
+                long nameLength = colon == -1 ? end : colon;
+                long valueStart = colon == -1 ? end : colon + 1;
+                if (valueStart < end && buffer.getByte(valueStart) == ' ') {
+                    valueStart++;
+                }
+                if (field(buffer, nameLength, DATA)) {
+                    String value = value(buffer, valueStart, end);
+                    if (null == data) {
+                        data = value;
+                    } else {
+                        if (null == lines) {
+                            lines = new StringBuilder(data);
+                        }
+                        lines.append('\n').append(value);
+                    }
+                } else if (field(buffer, nameLength, EVENT)) {
+                    event = value(buffer, valueStart, end);
+                } else if (field(buffer, nameLength, ID)) {
+                    String value = value(buffer, valueStart, end);
+                    if (value.indexOf('\0') < 0) {
+                        lastEventId = value;
+                    }
+                } else if (field(buffer, nameLength, RETRY)) {
+                    retry(value(buffer, valueStart, end));
+                } else {
+                    buffer.skip(end);
+                }
+                lineEnd(buffer);
+            }
+        }
+
+        private void lineEnd(Buffer buffer) throws IOException {
+            if (buffer.readByte() == '\r') {
+                skipLf = true;
+            }
+        }
+
+        private void retry(String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                    return;
+                }
+            }
+            try {
+                retryMillis = Long.parseLong(value);
+            } catch (NumberFormatException ignored) {
+                // 超出 long 范围，按规范忽略
+            }
+        }
+
+        private static boolean field(Buffer buffer, long nameLength, ByteString name) {
+            return nameLength == name.size() && buffer.rangeEquals(0, name);
+        }
+
+        private static String value(Buffer buffer, long valueStart, long end) throws IOException {
+            buffer.skip(valueStart);
+            return buffer.readUtf8(end - valueStart);
+        }
+    }
+
+    /**
+     * 以 \n 或 \r\n 分隔的行，跳过空行，不重连
+     */
+    static final class Lines implements RecordStream.Parser<StreamLine> {
+        @Override
+        public long retryMillis() {
+            return -1;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public @Nullable StreamLine read(BufferedSource source) throws IOException {
+            Buffer buffer = source.getBuffer();
+            while (true) {
+                long end = source.indexOf((byte) '\n');
+                long length;
+                if (end == -1) {
+                    // 最后一行可以没有结束符
+                    if (buffer.size() == 0) {
+                        return null;
+                    }
+                    end = buffer.size();
+                    length = end;
+                } else {
+                    length = end > 0 && buffer.getByte(end - 1) == '\r' ? end - 1 : end;
+                }
+                if (length == 0) {
+                    buffer.skip(Math.min(end + 1, buffer.size()));
+                    continue;
+                }
+                byte[] bytes = buffer.readByteArray(length);
+                buffer.skip(Math.min(end + 1 - length, buffer.size()));
+                return new StreamLine(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：逐条读取长连接响应（text/event-stream、NDJSON）
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 记录在到达时即返回，不等待响应结束。事件流在连接断开后按服务端下发的 retry（默认 3 秒）携带 Last-Event-ID 重连，
+ * 连续 {@link #MAX_RECONNECTS} 次连接失败后抛出异常；服务端返回 204 时正常结束，其它非 2xx 状态码直接抛出异常。
+ * 按行分隔的流不重连。{@link #close()} 可以在其它线程调用，用于中断阻塞中的读取。
+ * @since JDK1.8
+ */
+public final class RecordStream<T> implements Iterator<T>, Closeable {
+    static final int MAX_RECONNECTS = 5;
+
+    /**
+     * 从响应体解析一条记录，连接结束时返回 null
+     */
+    interface Parser<T> {
+        @Nullable T read(BufferedSource source) throws IOException;
+
+        /**
+         * @return 重连前等待的毫秒数，小于 0 表示不重连
+         */
+        long retryMillis();
+
+        /**
+         * 建立新连接时调用
+         */
+        void reset();
+    }
+
+    private final Supplier<Call> connector;
+    private final Parser<T> parser;
+    private volatile boolean closed;
+    private volatile Call call;
+    private final AtomicReference<Response> response = new AtomicReference<>();
+    private BufferedSource source;
+    private int failures;
+    private T next;
+
+    RecordStream(Supplier<Call> connector, Parser<T> parser) {
+        this.connector = connector;
+        this.parser = parser;
+    }
+
+    /**
+     * 阻塞读取下一条记录
+     *
+     * @return 流结束或已关闭时返回 null
+     * @throws IOException 连接失败且不再重连
+     */
+    public @Nullable T read() throws IOException {
+        if (null != next) {
+            T record = next;
+            next = null;
+            return record;
+        }
+        while (!closed) {
+            try {
+                if (null == source && !connect()) {
+                    close();
+                    return null;
+                }
+                T record = parser.read(source);
+                if (null != record) {
+                    failures = 0;
+                    return record;
+                }
+                if (parser.retryMillis() < 0) {
+                    close();
+                    return null;
+                }
+            } catch (IOException e) {
+                if (closed) {
+                    disconnect();
+                    return null;
+                }
+                if (e instanceof StatusException || parser.retryMillis() < 0 || ++failures > MAX_RECONNECTS) {
+                    close();
+                    throw e;
+                }
+            }
+            disconnect();
+            pause(parser.retryMillis());
+        }
+        return null;
+    }
+
+    /**
+     * 逐条回调直到流结束，不关闭流
+     *
+     * @param consumer 回调
+     * @return 回调的记录数
+     * @throws IOException e
+     */
+    public long consume(RecordConsumer<? super T> consumer) throws IOException {
+        long count = 0;
+        T record;
+        while (null != (record = read())) {
+            consumer.accept(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @throws UncheckedIOException 读取失败
+     */
+    @Override
+    public boolean hasNext() {
+        if (null == next) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return null != next;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Call c = call;
+        if (null != c) {
+            // 让阻塞中的读取立即返回
+            c.cancel();
+        }
+        Response r = response.getAndSet(null);
+        if (null != r) {
+            r.close();
+        }
+    }
+
+    private boolean connect() throws IOException {
+        Call c = connector.get();
+        call = c;
+        if (closed) {
+            c.cancel();
+        }
+        Response r = c.execute();
+        if (r.code() == 204) {
+            r.close();
+            return false;
+        }
+        if (!r.isSuccessful()) {
+            r.close();
+            throw new StatusException("流式请求失败: " + r.code() + " " + r.request().url());
+        }
+        ResponseBody body = r.body();
+        response.set(r);
+        source = null == body ? new Buffer() : body.source();
+        parser.reset();
+        if (closed) {
+            disconnect();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 只在读取线程中调用
+     */
+    private void disconnect() {
+        source = null;
+        Response r = response.getAndSet(null);
+        if (null != r) {
+            r.close();
+        }
+    }
+
+    private void pause(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("等待重连时被中断");
+        }
+    }
+
+    /**
+     * 服务端拒绝了流式请求，重连也不会成功
+     */
+    private static final class StatusException extends IOException {
+        StatusException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：合并相同的进行中 GET/HEAD 请求（single-flight）
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#coalescing(RequestCoalescer)} 开启。方法、URL、Authorization、Cookie 与
+ * {@link Builder#keyHeader(String)} 指定的请求头都相同的并发请求只发起一次网络请求，响应体缓冲一次后分发给每个等待者；
+ * 等待者被取消或超过调用超时时立即放弃等待，不影响发起请求的一方；发起请求的一方被取消时，等待者各自重新发起请求；
+ * 响应体超过 {@link Builder#maxBodyBytes(long)} 时不共享，等待者各自发起请求。
+ * @since JDK1.8
+ */
+public class RequestCoalescer implements Interceptor {
+    /**
+     * 携带凭证的请求头始终参与合并判断，不同用户的请求不会拿到彼此的响应
+     */
+    private static final List<String> CREDENTIAL_HEADERS = Collections.unmodifiableList(Arrays.asList("Authorization", "Cookie"));
+    private static final long WAIT_SLICE_MILLIS = 50;
+    private final List<String> keyHeaders;
+    private final long maxBodyBytes;
+    private final ConcurrentHashMap<String, CompletableFuture<Shared>> flights = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private RequestCoalescer(Builder builder) {
+        List<String> names = new ArrayList<>(CREDENTIAL_HEADERS);
+        for (String name : builder.keyHeaders) {
+            if (names.stream().noneMatch(name::equalsIgnoreCase)) {
+                names.add(name);
+            }
+        }
+        this.keyHeaders = Collections.unmodifiableList(names);
+        this.maxBodyBytes = builder.maxBodyBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 实际发起网络请求的次数
+     */
+    public long leaders() {
+        return leaders.sum();
+    }
+
+    /**
+     * @return 复用其它请求结果、未发起网络请求的次数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if ((!"GET".equals(request.method()) && !"HEAD".equals(request.method())) || HedgingInterceptor.isAttempt(request)
+                || request.cacheControl().noStore()) {
+            // no-store 的响应不应被缓冲共享，事件流也以此绕过合并
+            return chain.proceed(request);
+        }
+        String key = key(request);
+        CompletableFuture<Shared> flight = new CompletableFuture<>();
+        CompletableFuture<Shared> existing = flights.putIfAbsent(key, flight);
+        if (Objects.nonNull(existing)) {
+            Shared shared = await(chain, existing);
+            if (Objects.isNull(shared)) {
+                // 结果无法共享（响应体过大或 leader 被取消），单独发起请求
+                return chain.proceed(request);
+            }
+            coalesced.increment();
+            return shared.toResponse(request);
+        }
+        leaders.increment();
+        try {
+            Response response = chain.proceed(request);
+            Shared shared = share(response);
+            flight.complete(shared);
+            return Objects.isNull(shared) ? response : shared.toResponse(request);
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                // leader 自身被取消或超过调用超时（OkHttp 超时时同样取消调用），等待者各自发起请求
+                flight.complete(null);
+            } else {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private String key(Request request) {
+        StringBuilder builder = new StringBuilder(request.method()).append(' ').append(request.url());
+        for (String name : keyHeaders) {
+            builder.append('\n').append(name).append(':').append(request.headers(name));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 分片等待 leader 的结果，每片之间检查当前调用是否已取消；调用超时到期时 OkHttp 会取消调用，等待随之结束
+     */
+    private static Shared await(Chain chain, CompletableFuture<Shared> flight) throws IOException {
+        try {
+            while (true) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                try {
+                    return flight.get(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ignored) {
+                    // 继续下一片
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待合并请求被中断");
+        } catch (ExecutionException e) {
+            // 每个等待者拿到自己的异常实例，原始异常作为 cause
+            throw new IOException("合并请求失败: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * 缓冲响应体，超过上限时返回 null，leader 继续使用原始响应
+     */
+    private Shared share(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (Objects.isNull(body)) {
+            return null;
+        }
+        long contentLength = body.contentLength();
+        if (contentLength > maxBodyBytes) {
+            return null;
+        }
+        if (contentLength < 0) {
+            ResponseBody peek = response.peekBody(maxBodyBytes + 1);
+            if (peek.contentLength() > maxBodyBytes) {
+                return null;
+            }
+        }
+        return new Shared(response.protocol(), response.code(), response.message(), response.headers(),
+                body.contentType(), body.bytes());
+    }
+
+    private static final class Shared {
+        private final Protocol protocol;
+        private final int code;
+        private final String message;
+        private final Headers headers;
+        private final MediaType contentType;
+        private final byte[] body;
+
+        Shared(Protocol protocol, int code, String message, Headers headers, MediaType contentType, byte[] body) {
+            this.protocol = protocol;
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        Response toResponse(Request request) {
+            long now = System.currentTimeMillis();
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, contentType))
+                    .sentRequestAtMillis(now)
+                    .receivedResponseAtMillis(now)
+                    .build();
+        }
+    }
+
+    public static class Builder {
+        private final List<String> keyHeaders = new ArrayList<>();
+        private long maxBodyBytes = 1024 * 1024L;
+
+        Builder() {
+        }
+
+        /**
+         * @param name 参与合并判断的请求头，例如 Accept；Authorization 与 Cookie 始终参与
+         * @return Builder
+         */
+        public Builder keyHeader(String name) {
+            this.keyHeaders.add(Objects.requireNonNull(name, "name"));
+            return this;
+        }
+
+        /**
+         * @param maxBodyBytes 可共享的响应体字节数上限
+         * @return Builder
+         */
+        public Builder maxBodyBytes(long maxBodyBytes) {
+            this.maxBodyBytes = Math.max(0, maxBodyBytes);
+            return this;
+        }
+
+        public RequestCoalescer build() {
+            return new RequestCoalescer(this);
+        }
+    }
+}
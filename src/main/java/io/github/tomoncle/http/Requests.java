@@ -16,23 +16,31 @@
 
 package io.github.tomoncle.http;
 
+import io.github.tomoncle.http.domain.ChunkedUploadOptions;
+import io.github.tomoncle.http.domain.ChunkedUploadResult;
+import io.github.tomoncle.http.domain.DownloadOptions;
 import io.github.tomoncle.http.domain.ProgressRequestBody;
+import io.github.tomoncle.http.domain.RequestSpec;
+import io.github.tomoncle.http.domain.UploadPart;
+import io.github.tomoncle.http.metrics.RequestsMetrics;
 import okhttp3.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
 
-import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.io.File;
 import java.io.IOException;
-import java.security.GeneralSecurityException;
-import java.security.SecureRandom;
-import java.security.cert.X509Certificate;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static okhttp3.MediaType.parse;
 
@@ -58,62 +66,101 @@ public final class Requests {
     public static final MediaType DIGEST = MediaType.parse("multipart/digest");
     public static final MediaType PARALLEL = MediaType.parse("multipart/parallel");
     public static final MediaType FORM = parse("application/x-www-form-urlencoded");
-    public static final Get GET = new Get();
-    public static final Post POST = new Post();
-    public static final Put PUT = new Put();
-    public static final Patch PATCH = new Patch();
-    public static final Delete DELETE = new Delete();
-    public static final Head HEAD = new Head();
-    private static final Logger logger = LoggerFactory.getLogger(Requests.class);
-    private static OkHttpClient client = initClient();
+    private static final RequestsClient DEFAULT = new RequestsClient("default", RequestsConfig.defaults(), null);
+    private static final Map<String, RequestsClient> CLIENTS = new ConcurrentHashMap<>();
+    public static final Get GET = DEFAULT.GET;
+    public static final Post POST = DEFAULT.POST;
+    public static final Put PUT = DEFAULT.PUT;
+    public static final Patch PATCH = DEFAULT.PATCH;
+    public static final Delete DELETE = DEFAULT.DELETE;
+    public static final Head HEAD = DEFAULT.HEAD;
 
     private Requests() {
     }
 
     public static void initClient(OkHttpClient okHttpClient) {
         assert Objects.nonNull(okHttpClient);
-        client = okHttpClient;
+        DEFAULT.initClient(okHttpClient);
     }
 
-    private static X509TrustManager x509TrustManager() {
-        return new X509TrustManager() {
-            @Override
-            public void checkClientTrusted(X509Certificate[] chain, String authType) {
-            }
+    /**
+     * 注册命名客户端，未显式配置连接池或 Dispatcher 时与默认客户端共享；替换同名客户端时关闭旧客户端
+     *
+     * @param name   客户端名称
+     * @param config 客户端配置
+     * @return RequestsClient
+     */
+    public static RequestsClient register(String name, RequestsConfig config) {
+        RequestsClient requestsClient = new RequestsClient(name, config, DEFAULT.okHttpClient());
+        RequestsClient previous = CLIENTS.put(name, requestsClient);
+        if (Objects.nonNull(previous)) {
+            previous.close();
+        }
+        return requestsClient;
+    }
 
-            @Override
-            public void checkServerTrusted(X509Certificate[] chain, String authType) {
-            }
+    /**
+     * 获取命名客户端
+     *
+     * @param name 客户端名称
+     * @return RequestsClient
+     * @throws IllegalArgumentException 客户端未注册
+     */
+    public static RequestsClient client(String name) {
+        RequestsClient requestsClient = CLIENTS.get(name);
+        if (Objects.isNull(requestsClient)) {
+            throw new IllegalArgumentException("未注册的客户端: " + name);
+        }
+        return requestsClient;
+    }
 
-            @Override
-            public X509Certificate[] getAcceptedIssuers() {
-                return new X509Certificate[]{};
-            }
-        };
-    }
-
-    private static OkHttpClient initClient() {
-        HostnameVerifier hostnameVerifier = (s, sslSession) -> true;
-        TrustManager[] trustManagers = new TrustManager[]{x509TrustManager()};
-        OkHttpClient.Builder builder = new OkHttpClient().newBuilder()
-                // 配置连接池
-                .connectionPool(new ConnectionPool(10, 60L, TimeUnit.MINUTES))
-                // .callTimeout(0, TimeUnit.SECONDS)         //完整请求超时时长，从发起到接收返回数据，默认值0，不限定
-                .connectTimeout(60, TimeUnit.SECONDS)//与服务器建立连接的时长，默认10s
-                .readTimeout(3600, TimeUnit.SECONDS) //读取服务器返回数据的时长
-                .writeTimeout(3600, TimeUnit.SECONDS)//向服务器写入数据的时长，默认10s
-                .retryOnConnectionFailure(true)  //失败重连
-                .followRedirects(false)          //重定向
-                .addInterceptor(new RequestsInterceptor());
-        try {
-            // 配置SSL证书
-            SSLContext sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, trustManagers, new SecureRandom());
-            builder.sslSocketFactory(sslContext.getSocketFactory(), x509TrustManager()).hostnameVerifier(hostnameVerifier);
-        } catch (GeneralSecurityException e) {
-            logger.error("配置SSL证书失败!", e);
-        }
-        return builder.build();
+    public static RequestsClient client() {
+        return DEFAULT;
+    }
+
+    /**
+     * 默认客户端的请求指标，自定义客户端需要通过 eventListenerFactory 注册后才会统计
+     *
+     * @return RequestsMetrics
+     */
+    public static RequestsMetrics metrics() {
+        return DEFAULT.metrics();
+    }
+
+    /**
+     * 有界并发地执行一批请求，按完成顺序返回结果
+     *
+     * @param specs       请求列表
+     * @param concurrency 最大并发数
+     * @return BatchRequests
+     */
+    public static BatchRequests batch(Iterable<RequestSpec> specs, int concurrency) {
+        return DEFAULT.batch(specs, concurrency);
+    }
+
+    public static BatchRequests batch(Stream<RequestSpec> specs, int concurrency) {
+        return DEFAULT.batch(specs, concurrency);
+    }
+
+    public static BatchRequests batch(Iterator<RequestSpec> specs, int concurrency, ExecutorService executor) {
+        return DEFAULT.batch(specs, concurrency, executor);
+    }
+
+    /**
+     * 基于 HTTP Range 并行分段下载文件，支持断点续传
+     *
+     * @param url     url
+     * @param path    保存路径
+     * @param options 下载参数
+     * @return 文件大小
+     * @throws IOException e
+     */
+    public static long download(String url, Path path, DownloadOptions options) throws IOException {
+        return DEFAULT.download(url, path, options);
+    }
+
+    public static long download(String url, Path path) throws IOException {
+        return DEFAULT.download(url, path);
     }
 
     /**
@@ -138,23 +185,47 @@ public final class Requests {
     }
 
     public static class Head extends AbstractBasic {
+        public Head() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Head(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).head().build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return client().newCall(requestBuilder(url, headers).head().build());
         }
     }
 
     public static class Get extends AbstractBasic {
+        public Get() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Get(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return client().newCall(requestBuilder(url, headers).build());
         }
     }
 
     public static class Post extends AbstractTransfer implements IUploadHandler {
+        public Post() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Post(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).post(super.getDefaultRequestBody(requestBody)).build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return newCall(requestBuilder(url, headers).post(super.getDefaultRequestBody(requestBody)).build());
         }
 
         @Override
@@ -164,6 +235,41 @@ public final class Requests {
 
         @Override
         public Response upload(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header) throws IOException {
+            return uploadCall(url, filePath, filename, data, header).execute();
+        }
+
+        @Override
+        public CompletableFuture<Response> uploadAsync(String url, String filePath, Map<String, String> data, Map<String, String> header) {
+            return uploadAsync(url, filePath, null, data, header);
+        }
+
+        @Override
+        public CompletableFuture<Response> uploadAsync(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header) {
+            return uploadAsync(url, filePath, filename, data, header, null);
+        }
+
+        @Override
+        public CompletableFuture<Response> uploadAsync(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header, Executor executor) {
+            return AsyncCalls.response(client(), uploadCall(url, filePath, filename, data, header), executor);
+        }
+
+        @Override
+        public Response upload(String url, List<UploadPart> parts, Headers headers) throws IOException {
+            return uploadCall(url, parts, headers).execute();
+        }
+
+        @Override
+        public CompletableFuture<Response> uploadAsync(String url, List<UploadPart> parts, Headers headers, Executor executor) {
+            return AsyncCalls.response(client(), uploadCall(url, parts, headers), executor);
+        }
+
+        @Override
+        public ChunkedUploadResult uploadChunked(String url, String filePath, ChunkedUploadOptions options, Headers headers) throws IOException {
+            Path path = Paths.get(filePath);
+            return new ChunkedUpload(request -> client().newCall(request)).upload(url, path, path.getFileName().toString(), options, headers);
+        }
+
+        private Call uploadCall(String url, String filePath, String filename, Map<String, String> data, Map<String, String> header) {
             File file = new File(filePath);
             if (Objects.isNull(filename)) {
                 filename = file.getName();
@@ -180,28 +286,98 @@ public final class Requests {
                     builder.addHeader(entry.getKey(), entry.getValue());
                 }
             }
-            return client.newCall(builder.build()).execute();
+            return client().newCall(builder.build());
+        }
+
+        private Call uploadCall(String url, List<UploadPart> parts, Headers headers) {
+            MultipartBody.Builder multipart = new MultipartBody.Builder().setType(MultipartBody.FORM);
+            boolean oneShot = false;
+            for (UploadPart part : parts) {
+                RequestBody body = part.getBody();
+                if (Objects.nonNull(part.getFilename())) {
+                    body = new ProgressRequestBody(body, String.format("文件 %s ", part.getFilename()));
+                }
+                multipart.addFormDataPart(part.getName(), part.getFilename(), body);
+                oneShot |= body.isOneShot();
+            }
+            MultipartBody body = multipart.build();
+            return newCall(url, oneShot ? new OneShotRequestBody(body) : body, headers);
+        }
+    }
+
+    /**
+     * MultipartBody 不会把部分的 isOneShot 传递出来，包含输入流时需要标记，避免重试时重放已读完的内容
+     */
+    private static final class OneShotRequestBody extends RequestBody {
+        private final RequestBody delegate;
+
+        OneShotRequestBody(RequestBody delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            delegate.writeTo(sink);
         }
     }
 
     public static class Put extends AbstractTransfer {
+        public Put() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Put(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).put(super.getDefaultRequestBody(requestBody)).build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return newCall(requestBuilder(url, headers).put(super.getDefaultRequestBody(requestBody)).build());
         }
     }
 
     public static class Patch extends AbstractTransfer {
+        public Patch() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Patch(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).patch(super.getDefaultRequestBody(requestBody)).build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return newCall(requestBuilder(url, headers).patch(super.getDefaultRequestBody(requestBody)).build());
         }
     }
 
     public static class Delete extends AbstractTransfer {
+        public Delete() {
+            this(DEFAULT::okHttpClient);
+        }
+
+        Delete(Supplier<OkHttpClient> client) {
+            super(client);
+        }
+
         @Override
-        Response method(String url, RequestBody requestBody, Headers headers) throws IOException {
-            return client.newCall(requestBuilder(url, headers).delete(super.getDefaultRequestBody(requestBody)).build()).execute();
+        Call newCall(String url, RequestBody requestBody, Headers headers) {
+            return newCall(requestBuilder(url, headers).delete(super.getDefaultRequestBody(requestBody)).build());
         }
     }
 }
\ No newline at end of file
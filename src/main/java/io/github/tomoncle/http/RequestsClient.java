@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.DownloadOptions;
+import io.github.tomoncle.http.domain.RequestSpec;
+import io.github.tomoncle.http.metrics.RequestsMetrics;
+import okhttp3.OkHttpClient;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：命名客户端，每个客户端拥有独立的配置、拦截器与指标
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link Requests#register(String, RequestsConfig)} 注册，{@link Requests#client(String)} 获取，
+ * 例如 {@code Requests.client("billing").GET.request(url)}。同名客户端重新注册时，旧客户端被 {@link #close()}。
+ * @since JDK1.8
+ */
+public final class RequestsClient implements Closeable {
+    public final Requests.Get GET = new Requests.Get(this::okHttpClient);
+    public final Requests.Post POST = new Requests.Post(this::okHttpClient);
+    public final Requests.Put PUT = new Requests.Put(this::okHttpClient);
+    public final Requests.Patch PATCH = new Requests.Patch(this::okHttpClient);
+    public final Requests.Delete DELETE = new Requests.Delete(this::okHttpClient);
+    public final Requests.Head HEAD = new Requests.Head(this::okHttpClient);
+
+    private final String name;
+    private final RequestsConfig config;
+    private final RequestsMetrics metrics;
+    /**
+     * 按配置创建的客户端，后台任务绑定在该客户端上
+     */
+    private final OkHttpClient configured;
+    private volatile OkHttpClient client;
+
+    RequestsClient(String name, RequestsConfig config, @Nullable OkHttpClient base) {
+        this.name = name;
+        this.config = config;
+        this.metrics = new RequestsMetrics();
+        this.configured = config.newClient(base, config.isMetrics() ? metrics : null);
+        this.client = configured;
+        this.metrics.bind(client);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public RequestsConfig config() {
+        return config;
+    }
+
+    public OkHttpClient okHttpClient() {
+        return client;
+    }
+
+    /**
+     * 替换底层客户端，自定义客户端需要通过 eventListenerFactory 注册 {@link #metrics()} 后才会统计
+     *
+     * @param okHttpClient 客户端
+     */
+    public void initClient(OkHttpClient okHttpClient) {
+        this.client = Objects.requireNonNull(okHttpClient, "okHttpClient");
+        this.metrics.bind(okHttpClient);
+    }
+
+    public RequestsMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return 响应缓存，配置中未启用时为空
+     */
+    public @Nullable ResponseCache cache() {
+        return config.getCache();
+    }
+
+    public BatchRequests batch(Iterable<RequestSpec> specs, int concurrency) {
+        return batch(specs.iterator(), concurrency, null);
+    }
+
+    public BatchRequests batch(Stream<RequestSpec> specs, int concurrency) {
+        return batch(specs.iterator(), concurrency, null);
+    }
+
+    public BatchRequests batch(Iterator<RequestSpec> specs, int concurrency, @Nullable ExecutorService executor) {
+        return new BatchRequests(this::verb, concurrency, executor).start(specs);
+    }
+
+    public long download(String url, Path path, DownloadOptions options) throws IOException {
+        return new SegmentedDownload(HEAD, GET).download(url, path, options);
+    }
+
+    public long download(String url, Path path) throws IOException {
+        return download(url, path, DownloadOptions.defaults());
+    }
+
+    AbstractBasic verb(String method) {
+        switch (method) {
+            case "GET":
+                return GET;
+            case "POST":
+                return POST;
+            case "PUT":
+                return PUT;
+            case "PATCH":
+                return PATCH;
+            case "DELETE":
+                return DELETE;
+            case "HEAD":
+                return HEAD;
+            default:
+                throw new IllegalArgumentException("Unsupported method: " + method);
+        }
+    }
+
+    /**
+     * 停止客户端的后台任务（周期性连接预热）。连接池与 Dispatcher 可能与其它客户端共享，不在这里关闭
+     */
+    @Override
+    public void close() {
+        ConnectionWarmer warmer = config.getWarmer();
+        if (Objects.nonNull(warmer)) {
+            warmer.unbind(configured);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RequestsClient{" + name + "}";
+    }
+}
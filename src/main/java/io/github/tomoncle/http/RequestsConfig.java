@@ -0,0 +1,572 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.HttpVersion;
+import io.github.tomoncle.http.metrics.RequestsMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：客户端配置，替代硬编码的 {@link OkHttpClient}
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link Requests#register(String, RequestsConfig)} 注册命名客户端时，
+ * 未显式配置连接池或 Dispatcher 的客户端与默认客户端共享连接池或 Dispatcher。
+ * @since JDK1.8
+ */
+public class RequestsConfig {
+    private static final Logger logger = LoggerFactory.getLogger(RequestsConfig.class);
+
+    private final int maxIdleConnections;
+    private final long keepAliveMillis;
+    private final boolean poolConfigured;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final boolean dispatcherConfigured;
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long writeTimeoutMillis;
+    private final long callTimeoutMillis;
+    private final List<Protocol> protocols;
+    private final List<Interceptor> interceptors;
+    private final List<Interceptor> networkInterceptors;
+    private final RequestsInterceptor logging;
+    private final boolean followRedirects;
+    private final boolean retryOnConnectionFailure;
+    private final boolean trustAllCertificates;
+    private final boolean metrics;
+    private final ResponseCache cache;
+    private final RequestCoalescer coalescing;
+    private final HedgingInterceptor hedging;
+    private final CompressionInterceptor compression;
+    private final RetryInterceptor retry;
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter limiter;
+    private final Dns dns;
+    private final ConnectionWarmer warmer;
+
+    private RequestsConfig(Builder builder) {
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAliveMillis = builder.keepAliveMillis;
+        this.poolConfigured = builder.poolConfigured;
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.dispatcherConfigured = builder.dispatcherConfigured;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.writeTimeoutMillis = builder.writeTimeoutMillis;
+        this.callTimeoutMillis = builder.callTimeoutMillis;
+        this.protocols = builder.protocols;
+        this.interceptors = Collections.unmodifiableList(new ArrayList<>(builder.interceptors));
+        this.networkInterceptors = Collections.unmodifiableList(new ArrayList<>(builder.networkInterceptors));
+        this.logging = builder.logging;
+        this.followRedirects = builder.followRedirects;
+        this.retryOnConnectionFailure = builder.retryOnConnectionFailure;
+        this.trustAllCertificates = builder.trustAllCertificates;
+        this.metrics = builder.metrics;
+        this.cache = builder.cache;
+        this.coalescing = builder.coalescing;
+        this.hedging = builder.hedging;
+        this.compression = builder.compression;
+        this.retry = builder.retry;
+        this.rateLimiter = builder.rateLimiter;
+        this.limiter = builder.limiter;
+        this.dns = builder.dns;
+        this.warmer = builder.warmer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static RequestsConfig defaults() {
+        return builder().build();
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long getWriteTimeoutMillis() {
+        return writeTimeoutMillis;
+    }
+
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    public @Nullable List<Protocol> getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * @return 是否显式开启了 HTTP/2（ALPN 或 h2c）
+     */
+    public boolean isMultiplexed() {
+        return Objects.nonNull(protocols)
+                && (protocols.contains(Protocol.HTTP_2) || protocols.contains(Protocol.H2_PRIOR_KNOWLEDGE));
+    }
+
+    public List<Interceptor> getInterceptors() {
+        return interceptors;
+    }
+
+    public List<Interceptor> getNetworkInterceptors() {
+        return networkInterceptors;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public @Nullable ResponseCache getCache() {
+        return cache;
+    }
+
+    public @Nullable RequestCoalescer getCoalescing() {
+        return coalescing;
+    }
+
+    public @Nullable HedgingInterceptor getHedging() {
+        return hedging;
+    }
+
+    public @Nullable CompressionInterceptor getCompression() {
+        return compression;
+    }
+
+    public @Nullable RetryInterceptor getRetry() {
+        return retry;
+    }
+
+    public @Nullable RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public @Nullable ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public @Nullable Dns getDns() {
+        return dns;
+    }
+
+    public @Nullable ConnectionWarmer getWarmer() {
+        return warmer;
+    }
+
+    /**
+     * 根据配置创建客户端
+     *
+     * @param base     共享连接池与 Dispatcher 的客户端，为空时全部新建
+     * @param listener 事件监听，为空时不注册
+     * @return OkHttpClient
+     */
+    OkHttpClient newClient(@Nullable OkHttpClient base, @Nullable EventListener.Factory listener) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        if (Objects.nonNull(base) && !poolConfigured) {
+            builder.connectionPool(base.connectionPool());
+        } else {
+            builder.connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS));
+        }
+        boolean multiplexed = isMultiplexed();
+        // 只有不能回退到 HTTP/1.1 时（h2c）同一主机的请求才一定是一个连接上的多个流；
+        // HTTP_2 在 http:// 地址或 ALPN 选择 1.1 时每个请求占用一个连接，保留单主机并发上限
+        boolean multiplexedOnly = multiplexed && !protocols.contains(Protocol.HTTP_1_1);
+        if (Objects.nonNull(base) && !dispatcherConfigured && !multiplexedOnly) {
+            builder.dispatcher(base.dispatcher());
+        } else {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxRequests);
+            dispatcher.setMaxRequestsPerHost(multiplexedOnly && !dispatcherConfigured ? maxRequests : maxRequestsPerHost);
+            builder.dispatcher(dispatcher);
+        }
+        builder.connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(retryOnConnectionFailure)
+                .followRedirects(followRedirects);
+        if (Objects.nonNull(protocols)) {
+            builder.protocols(protocols);
+        }
+        if (Objects.nonNull(listener)) {
+            builder.eventListenerFactory(listener);
+        }
+        if (Objects.nonNull(dns)) {
+            builder.dns(dns);
+        }
+        if (listener instanceof RequestsMetrics) {
+            // 最外层，缓存命中等未发起网络请求的调用按最终状态码统计
+            builder.addInterceptor(((RequestsMetrics) listener).interceptor());
+        }
+        if (Objects.nonNull(cache)) {
+            // 内存层在最外层，命中时不经过其它拦截器
+            builder.addInterceptor(cache).cache(cache.disk());
+        }
+        if (Objects.nonNull(coalescing)) {
+            // 位于缓存之后，缓存过期时的并发请求合并为一次
+            builder.addInterceptor(coalescing);
+        }
+        if (Objects.nonNull(hedging)) {
+            // 位于重试之前，每个对冲请求各自重试
+            builder.addInterceptor(hedging);
+        }
+        if (Objects.nonNull(retry)) {
+            // 位于日志与压缩之前，每次重试都单独记录并重新压缩
+            builder.addInterceptor(retry);
+        }
+        if (Objects.nonNull(rateLimiter)) {
+            // 位于重试之后、并发限制之前，等待令牌时不占用并发
+            builder.addInterceptor(rateLimiter);
+        }
+        if (Objects.nonNull(limiter)) {
+            // 位于重试之后，每次重试单独占用并发并计入熔断
+            builder.addInterceptor(limiter);
+        }
+        MultiplexGate gate = multiplexed ? new MultiplexGate(connectTimeoutMillis) : null;
+        if (Objects.nonNull(gate)) {
+            // 位于用户拦截器之前，首个 HTTP/2 连接建立前同时到达的请求在此等待
+            builder.addInterceptor(gate.application());
+        }
+        interceptors.forEach(builder::addInterceptor);
+        if (Objects.nonNull(logging)) {
+            builder.addInterceptor(logging);
+        }
+        if (Objects.nonNull(compression)) {
+            // 位于日志之后，日志记录的是压缩前的请求体与解压后的响应体
+            builder.addInterceptor(compression);
+        }
+        if (Objects.nonNull(gate)) {
+            builder.addNetworkInterceptor(gate.network());
+        }
+        networkInterceptors.forEach(builder::addNetworkInterceptor);
+        if (trustAllCertificates) {
+            trustAll(builder);
+        }
+        OkHttpClient client = builder.build();
+        if (Objects.nonNull(cache)) {
+            cache.bind(client);
+        }
+        if (Objects.nonNull(hedging)) {
+            hedging.bind(client);
+        }
+        if (Objects.nonNull(warmer)) {
+            warmer.bind(client);
+        }
+        return client;
+    }
+
+    private static void trustAll(OkHttpClient.Builder builder) {
+        X509TrustManager trustManager = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[]{};
+            }
+        };
+        try {
+            // 配置SSL证书
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustManager}, new SecureRandom());
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager).hostnameVerifier((s, sslSession) -> true);
+        } catch (GeneralSecurityException e) {
+            logger.error("配置SSL证书失败!", e);
+        }
+    }
+
+    public static class Builder {
+        private int maxIdleConnections = 10;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(60);
+        private boolean poolConfigured;
+        private int maxRequests = 256;
+        private int maxRequestsPerHost = 64;
+        private boolean dispatcherConfigured;
+        private long connectTimeoutMillis = TimeUnit.SECONDS.toMillis(60);
+        private long readTimeoutMillis = TimeUnit.SECONDS.toMillis(3600);
+        private long writeTimeoutMillis = TimeUnit.SECONDS.toMillis(3600);
+        private long callTimeoutMillis;
+        private List<Protocol> protocols;
+        private final List<Interceptor> interceptors = new ArrayList<>();
+        private final List<Interceptor> networkInterceptors = new ArrayList<>();
+        private RequestsInterceptor logging = new RequestsInterceptor();
+        private boolean followRedirects;
+        private boolean retryOnConnectionFailure = true;
+        private boolean trustAllCertificates = true;
+        private boolean metrics = true;
+        private ResponseCache cache;
+        private RequestCoalescer coalescing;
+        private HedgingInterceptor hedging;
+        private CompressionInterceptor compression;
+        private RetryInterceptor retry;
+        private RateLimiter rateLimiter;
+        private ConcurrencyLimiter limiter;
+        private Dns dns;
+        private ConnectionWarmer warmer;
+
+        Builder() {
+        }
+
+        /**
+         * 连接池配置
+         *
+         * @param maxIdleConnections 最大空闲连接数
+         * @param keepAlive          空闲连接保持时长
+         * @param unit               时间单位
+         * @return Builder
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAlive, TimeUnit unit) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            this.poolConfigured = true;
+            return this;
+        }
+
+        /**
+         * Dispatcher 配置，只限制异步请求（enqueue）的并发数
+         *
+         * @param maxRequests        最大并发请求数
+         * @param maxRequestsPerHost 单个主机的最大并发请求数
+         * @return Builder
+         */
+        public Builder dispatcher(int maxRequests, int maxRequestsPerHost) {
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            this.dispatcherConfigured = true;
+            return this;
+        }
+
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder readTimeout(long timeout, TimeUnit unit) {
+            this.readTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder writeTimeout(long timeout, TimeUnit unit) {
+            this.writeTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * @param timeout 完整请求超时时长，从发起到接收返回数据，0 表示不限定
+         * @param unit    时间单位
+         * @return Builder
+         */
+        public Builder callTimeout(long timeout, TimeUnit unit) {
+            this.callTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder protocols(List<Protocol> protocols) {
+            this.protocols = Collections.unmodifiableList(new ArrayList<>(protocols));
+            return this;
+        }
+
+        /**
+         * 协议模式，HTTP_2 与 H2C 在一个连接上多路复用，未显式配置 Dispatcher 时单主机并发上限提高到 maxRequests
+         *
+         * @param version 协议模式
+         * @return Builder
+         */
+        public Builder httpVersion(HttpVersion version) {
+            return protocols(version.protocols());
+        }
+
+        public Builder addInterceptor(Interceptor interceptor) {
+            this.interceptors.add(Objects.requireNonNull(interceptor, "interceptor"));
+            return this;
+        }
+
+        public Builder addNetworkInterceptor(Interceptor interceptor) {
+            this.networkInterceptors.add(Objects.requireNonNull(interceptor, "interceptor"));
+            return this;
+        }
+
+        /**
+         * @param logging 日志拦截器，为空时不记录日志
+         * @return Builder
+         */
+        public Builder logging(@Nullable RequestsInterceptor logging) {
+            this.logging = logging;
+            return this;
+        }
+
+        public Builder followRedirects(boolean followRedirects) {
+            this.followRedirects = followRedirects;
+            return this;
+        }
+
+        public Builder retryOnConnectionFailure(boolean retryOnConnectionFailure) {
+            this.retryOnConnectionFailure = retryOnConnectionFailure;
+            return this;
+        }
+
+        /**
+         * @param trustAllCertificates 是否信任所有证书并跳过主机名校验，默认 true
+         * @return Builder
+         */
+        public Builder trustAllCertificates(boolean trustAllCertificates) {
+            this.trustAllCertificates = trustAllCertificates;
+            return this;
+        }
+
+        public Builder metrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param cache GET/HEAD 响应缓存，为空时不缓存
+         * @return Builder
+         */
+        public Builder cache(@Nullable ResponseCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * @param coalescing 相同 GET/HEAD 请求合并，为空时不合并
+         * @return Builder
+         */
+        public Builder coalescing(@Nullable RequestCoalescer coalescing) {
+            this.coalescing = coalescing;
+            return this;
+        }
+
+        /**
+         * @param hedging 慢请求对冲，为空时不对冲
+         * @return Builder
+         */
+        public Builder hedging(@Nullable HedgingInterceptor hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * @param compression 请求体压缩与响应体解压，为空时不处理
+         * @return Builder
+         */
+        public Builder compression(@Nullable CompressionInterceptor compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * @param retry 失败重试，为空时只保留 OkHttp 的连接失败重试
+         * @return Builder
+         */
+        public Builder retry(@Nullable RetryInterceptor retry) {
+            this.retry = retry;
+            return this;
+        }
+
+        /**
+         * @param rateLimiter 按主机或 URL 前缀的令牌桶限流，为空时不限流
+         * @return Builder
+         */
+        public Builder rateLimiter(@Nullable RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * @param limiter 按主机自适应并发限制与熔断，为空时只受 Dispatcher 限制
+         * @return Builder
+         */
+        public Builder limiter(@Nullable ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+            return this;
+        }
+
+        /**
+         * @param dns 域名解析，例如 {@link CachingDns}，为空时使用系统解析
+         * @return Builder
+         */
+        public Builder dns(@Nullable Dns dns) {
+            this.dns = dns;
+            return this;
+        }
+
+        /**
+         * @param warmer 连接预热，客户端创建后在后台执行，为空时不预热
+         * @return Builder
+         */
+        public Builder warmer(@Nullable ConnectionWarmer warmer) {
+            this.warmer = warmer;
+            return this;
+        }
+
+        public RequestsConfig build() {
+            return new RequestsConfig(this);
+        }
+    }
+}
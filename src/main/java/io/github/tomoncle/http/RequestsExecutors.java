@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：内部使用的线程池
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote JDK21+ 使用虚拟线程，否则使用守护线程池。
+ * @since JDK1.8
+ */
+final class RequestsExecutors {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private RequestsExecutors() {
+    }
+
+    /**
+     * @param concurrency 守护线程池的大小；虚拟线程执行器不限制并发，调用方需要自行用许可约束同时执行的任务数
+     */
+    static ExecutorService newExecutor(String name, int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            String prefix = name + "-" + SEQUENCE.incrementAndGet() + "-";
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(concurrency, r -> daemon(r, prefix + counter.incrementAndGet()));
+        }
+    }
+
+    /**
+     * 线程数不设上限，用于任务数由调用方控制的场景
+     */
+    static ExecutorService newCachedExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            String prefix = name + "-" + SEQUENCE.incrementAndGet() + "-";
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> daemon(r, prefix + counter.incrementAndGet()));
+        }
+    }
+
+    static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -18,6 +18,10 @@ package io.github.tomoncle.http;
 
 import okhttp3.*;
 import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,7 +29,13 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
@@ -34,99 +44,326 @@ import java.util.Objects;
  *
  * @author tomoncle
  * @version 1.0.0
- * @apiNote 使用说明。
+ * @apiNote DEBUG 关闭时不复制任何请求体和响应体；开启时按采样率记录，慢请求与失败请求始终记录，
+ * 请求体与响应体最多记录 {@link Builder#maxBodyBytes(long)} 字节，敏感请求头脱敏输出。
+ * 开启 {@link Builder#propagateRequestId(boolean)} 后无论日志级别与采样结果，请求都携带请求ID。
  * @since JDK1.8
  */
-class RequestsInterceptor implements Interceptor {
+public class RequestsInterceptor implements Interceptor {
     private static final Logger logger = LoggerFactory.getLogger(RequestsInterceptor.class);
     private static final Charset UTF8 = StandardCharsets.UTF_8;
+    private static final String REDACTED = "██";
+    private static final String ID_PREFIX = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xffffffL) + "-";
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final long maxBodyBytes;
+    private final int sampleRate;
+    private final long slowThresholdMillis;
+    private final boolean logFailures;
+    private final String requestIdHeader;
+    private final boolean propagateRequestId;
+    private final Set<String> redactHeaders;
+
+    public RequestsInterceptor() {
+        this(builder());
+    }
+
+    private RequestsInterceptor(Builder builder) {
+        this.maxBodyBytes = builder.maxBodyBytes;
+        this.sampleRate = builder.sampleRate;
+        this.slowThresholdMillis = builder.slowThresholdMillis;
+        this.logFailures = builder.logFailures;
+        this.requestIdHeader = builder.requestIdHeader;
+        this.propagateRequestId = builder.propagateRequestId;
+        this.redactHeaders = builder.redactHeaders;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
 
     @NotNull
     @Override
     public Response intercept(Chain chain) throws IOException {
-        String requestId = Thread.currentThread().getName();
         Request request = chain.request();
-        long startTime = System.currentTimeMillis();
-        this.logRequest(requestId, request);
-
+        long seq = sequence.incrementAndGet();
+        String requestId = request.header(requestIdHeader);
+        if (Objects.isNull(requestId) && propagateRequestId) {
+            // 与日志级别和采样无关，开启传递后每个请求都携带请求ID
+            requestId = ID_PREFIX + Long.toHexString(seq);
+            request = request.newBuilder().header(requestIdHeader, requestId).build();
+        }
+        if (!logger.isDebugEnabled()) {
+            try {
+                return chain.proceed(request);
+            } catch (Exception e) {
+                logger.error("HTTP request failed: {} {} {}", request.method(), request.url(), e.toString());
+                throw e;
+            }
+        }
+        boolean sampled = sampleRate <= 1 || seq % sampleRate == 0;
+        if (!sampled && slowThresholdMillis < 0 && !logFailures) {
+            return chain.proceed(request);
+        }
+        if (Objects.isNull(requestId)) {
+            requestId = ID_PREFIX + Long.toHexString(seq);
+        }
+        // 请求体只有在被采样时才复制，未采样的慢请求/失败请求只记录请求行与请求头
+        String requestBody = sampled ? this.requestBodyToString(request) : null;
+        long startTime = System.nanoTime();
         Response response;
         try {
             response = chain.proceed(request);
         } catch (Exception e) {
-            logger.error("HTTP request failed: " + e);
+            this.logRequest(requestId, request, requestBody);
+            logger.error("HTTP request failed: {} {}", requestId, e.toString());
             throw e;
         }
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-        this.logResponse(requestId, response, duration);
+        long duration = (System.nanoTime() - startTime) / 1_000_000L;
+        boolean slow = slowThresholdMillis >= 0 && duration >= slowThresholdMillis;
+        boolean failed = logFailures && response.code() >= 400;
+        if (sampled || slow || failed) {
+            this.logRequest(requestId, request, requestBody);
+            this.logResponse(requestId, response, duration, sampled);
+        }
         return response;
     }
 
-    private String format_value(Object obj) {
-        if (Objects.isNull(obj)) {
+    private String formatValue(String value) {
+        if (Objects.isNull(value) || value.isEmpty()) {
             return "";
         }
-        if (obj.toString().indexOf('\n') == -1) {
-            return obj.toString();
+        if (value.indexOf('\n') == -1) {
+            return value;
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return "\n" + value.substring(0, end);
+    }
+
+    private String formatHeaders(Headers headers) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            builder.append(name).append(": ")
+                    .append(redactHeaders.contains(name.toLowerCase(Locale.ROOT)) ? REDACTED : headers.value(i))
+                    .append('\n');
         }
-        return ("\n" + obj).replaceAll("\n+$", "");
+        return formatValue(builder.toString());
     }
 
-    private void logRequest(String requestId, Request request) {
+    private void logRequest(String requestId, Request request, String requestBody) {
         logger.debug("---> {} : Request  Method : {} {}", requestId, request.method(), request.url());
-        logger.debug("---> {} : Request  Header : {}", requestId, this.format_value(request.headers()));
-        logger.debug("---> {} : Request  Body   : {}", requestId, this.format_value(requestBodyToString(request)));
+        logger.debug("---> {} : Request  Header : {}", requestId, this.formatHeaders(request.headers()));
+        if (Objects.nonNull(requestBody)) {
+            logger.debug("---> {} : Request  Body   : {}", requestId, this.formatValue(requestBody));
+        }
     }
 
-    private void logResponse(String requestId, Response response, long duration) throws IOException {
-        long contentLength = 0;
-        if (Objects.nonNull(response.body()) && response.body().contentLength() > 0) {
-            contentLength = response.body().contentLength();
+    private void logResponse(String requestId, Response response, long duration, boolean logBody) {
+        ResponseBody body = response.body();
+        long contentLength = Objects.nonNull(body) ? body.contentLength() : 0;
+        logger.debug("<--- {} : Response Code   : {} {} ({} ms, {} bytes)", requestId, response.code(), response.message(), duration, contentLength);
+        logger.debug("<--- {} : Response Header : {}", requestId, this.formatHeaders(response.headers()));
+        if (!logBody || Objects.isNull(body) || maxBodyBytes <= 0) {
+            return;
+        }
+        if (!isText(body.contentType()) || isStream(body.contentType())) {
+            logger.debug("<--- {} : Response Body   : Ignore Content-Type: {}", requestId, body.contentType());
+            return;
         }
-        try (ResponseBody responseBody = response.peekBody(contentLength)) {
-            logger.debug("<--- {} : Response Code   : {} {} ({} ms, {} bytes)", requestId, response.code(), response.message(), duration, contentLength);
-            logger.debug("<--- {} : Response Header : {}", requestId, this.format_value(response.headers()));
-            logger.debug("<--- {} : Response Body   : {}", requestId, this.format_value(responseBodyToString(responseBody)));
+        try (ResponseBody peek = response.peekBody(maxBodyBytes)) {
+            String text = peek.string();
+            boolean truncated = contentLength > maxBodyBytes || (contentLength < 0 && peek.contentLength() >= maxBodyBytes);
+            logger.debug("<--- {} : Response Body   : {}", requestId, this.formatValue(truncated ? text + "...(truncated)" : text));
         } catch (IOException e) {
-            logger.error("解析响应值失败!" + e);
+            logger.error("解析响应值失败! {}", e.toString());
+        }
+    }
+
+    private static boolean isText(MediaType mediaType) {
+        if (Objects.isNull(mediaType)) {
+            return false;
         }
+        String subtype = mediaType.subtype().toLowerCase(Locale.ROOT);
+        return "text".equals(mediaType.type()) || subtype.contains("json") || subtype.contains("xml")
+                || subtype.equals("x-www-form-urlencoded");
+    }
+
+    /**
+     * 事件流与按行分隔的 JSON 流可能永不结束，预读会阻塞到读满 maxBodyBytes
+     */
+    private static boolean isStream(MediaType mediaType) {
+        String subtype = mediaType.subtype().toLowerCase(Locale.ROOT);
+        return "event-stream".equals(subtype) || subtype.contains("ndjson") || subtype.contains("json-seq")
+                || subtype.equals("jsonl");
     }
 
     private String requestBodyToString(Request request) {
+        RequestBody body = request.body();
+        if (Objects.isNull(body) || maxBodyBytes <= 0) {
+            return null;
+        }
+        if (body.isOneShot() || body.isDuplex() || !isText(body.contentType())) {
+            return "Ignore Content-Type: " + body.contentType();
+        }
+        Buffer buffer = new Buffer();
+        LimitedSink limited = new LimitedSink(buffer, maxBodyBytes);
         try {
-            RequestBody body = request.body();
-            if (Objects.isNull(body)) {
-                return "";
-            }
-            MediaType mediaType = body.contentType();
-            if (Objects.nonNull(mediaType) && (
-                    mediaType.toString().startsWith("multipart/form-data; boundary=")
-                            || mediaType.toString().startsWith("application/octet-stream")
-            )) {
-                return "Ignore Content-Type: " + body.contentType();
+            BufferedSink sink = Okio.buffer(limited);
+            body.writeTo(sink);
+            sink.flush();
+        } catch (IOException e) {
+            // 达到上限时 LimitedSink 中止写入，请求体实现可能把中止异常包装后抛出，以标记为准
+            if (!limited.reached) {
+                return "Failed to read request body";
             }
-            Buffer buffer = new Buffer();
-            body.writeTo(buffer);
-            return buffer.readString(UTF8);
+        }
+        Charset charset = body.contentType().charset(UTF8);
+        String text = buffer.readString(Objects.isNull(charset) ? UTF8 : charset);
+        if (!limited.reached) {
+            return text;
+        }
+        long contentLength;
+        try {
+            contentLength = body.contentLength();
         } catch (IOException e) {
-            return "Failed to read request body";
+            contentLength = -1;
         }
+        return contentLength >= 0 ? text + "...(truncated, " + contentLength + " bytes)" : text + "...(truncated)";
     }
 
-    private String responseBodyToString(ResponseBody responseBody) {
-        try {
-            MediaType mediaType = responseBody.contentType();
-            if (Objects.nonNull(mediaType) && (
-                    mediaType.toString().startsWith("application/json")
-                            || mediaType.toString().startsWith("application/xml")
-                            || mediaType.toString().startsWith("text/")
-            )) {
-                return responseBody.string();
+    /**
+     * 只保留前 limit 个字节，达到上限后抛出 {@link LimitReachedException} 中止请求体的写入，不再序列化剩余部分
+     */
+    private static final class LimitedSink implements Sink {
+        private final Buffer buffer;
+        private final long limit;
+        private boolean reached;
+
+        LimitedSink(Buffer buffer, long limit) {
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(@NotNull Buffer source, long byteCount) throws IOException {
+            long keep = Math.max(0, Math.min(byteCount, limit - buffer.size()));
+            if (keep > 0) {
+                buffer.write(source, keep);
             }
-            return "Ignore Content-Type: " + responseBody.contentType();
-        } catch (IOException e) {
-            e.printStackTrace();
-            return "Failed to read response body";
+            if (byteCount > keep) {
+                source.skip(byteCount - keep);
+                reached = true;
+                throw new LimitReachedException();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @NotNull
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 只用于中止写入的哨兵异常，不记录堆栈
+     */
+    private static final class LimitReachedException extends IOException {
+        LimitReachedException() {
+            super("request body limit reached");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    public static class Builder {
+        private long maxBodyBytes = 64 * 1024L;
+        private int sampleRate = 1;
+        private long slowThresholdMillis = -1;
+        private boolean logFailures = true;
+        private String requestIdHeader = "X-Request-Id";
+        private boolean propagateRequestId;
+        private final Set<String> redactHeaders = new TreeSet<>(Arrays.asList(
+                "authorization", "proxy-authorization", "cookie", "set-cookie"));
+
+        Builder() {
+        }
+
+        /**
+         * @param maxBodyBytes 请求体/响应体最多记录的字节数，0 表示不记录
+         * @return Builder
+         */
+        public Builder maxBodyBytes(long maxBodyBytes) {
+            this.maxBodyBytes = Math.max(0, maxBodyBytes);
+            return this;
+        }
+
+        /**
+         * @param sampleRate 每 N 个请求记录 1 个
+         * @return Builder
+         */
+        public Builder sampleRate(int sampleRate) {
+            this.sampleRate = Math.max(1, sampleRate);
+            return this;
+        }
+
+        /**
+         * @param slowThresholdMillis 耗时超过该值的请求始终记录，负数表示关闭
+         * @return Builder
+         */
+        public Builder slowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+            return this;
+        }
+
+        /**
+         * @param logFailures 状态码 >= 400 的请求是否始终记录
+         * @return Builder
+         */
+        public Builder logFailures(boolean logFailures) {
+            this.logFailures = logFailures;
+            return this;
+        }
+
+        /**
+         * @param requestIdHeader 请求ID所在的请求头，请求中已有该请求头时直接使用
+         * @return Builder
+         */
+        public Builder requestIdHeader(String requestIdHeader) {
+            this.requestIdHeader = Objects.requireNonNull(requestIdHeader, "requestIdHeader");
+            return this;
+        }
+
+        /**
+         * @param propagateRequestId 是否把生成的请求ID写入请求头发送给服务端，与日志级别和采样无关
+         * @return Builder
+         */
+        public Builder propagateRequestId(boolean propagateRequestId) {
+            this.propagateRequestId = propagateRequestId;
+            return this;
+        }
+
+        public Builder redactHeader(String name) {
+            this.redactHeaders.add(name.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        public RequestsInterceptor build() {
+            return new RequestsInterceptor(this);
         }
     }
-}
\ No newline at end of file
+}
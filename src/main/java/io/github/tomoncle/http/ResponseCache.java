@@ -0,0 +1,485 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.CacheStats;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：GET/HEAD 响应缓存，内存 LRU 层 + {@link Cache} 磁盘层
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#cache(ResponseCache)} 注册。内存层按 Cache-Control/Expires 判断新鲜度，
+ * 响应的年龄计入 Age 头，请求的 max-age/min-fresh/max-stale 同样生效；
+ * 过期后携带 If-None-Match/If-Modified-Since 重新验证，304 时直接复用缓存的响应体；
+ * 内存层由使用同一客户端的所有调用方共享，不缓存 private 响应，携带 Authorization 的请求只缓存 public 或带 s-maxage 的响应；
+ * 开启 stale-while-revalidate 时在窗口内先返回过期响应，再在后台重新验证。
+ * 磁盘层由 OkHttp 自身的缓存实现，只有配置了目录时才启用。一个实例只能注册到一个客户端。
+ * @since JDK1.8
+ */
+public class ResponseCache implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final long maxMemoryBytes;
+    private final long maxEntryBytes;
+    private final long staleWhileRevalidateMillis;
+    private final Cache disk;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private long memoryBytes;
+    private volatile OkHttpClient client;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private ResponseCache(Builder builder) {
+        this.maxMemoryBytes = builder.maxMemoryBytes;
+        this.maxEntryBytes = Math.min(builder.maxEntryBytes, builder.maxMemoryBytes);
+        this.staleWhileRevalidateMillis = builder.staleWhileRevalidateMillis;
+        this.disk = Objects.isNull(builder.directory) ? null : new Cache(builder.directory, builder.maxDiskBytes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 磁盘缓存，未配置目录时为空
+     */
+    public @Nullable Cache disk() {
+        return disk;
+    }
+
+    /**
+     * 绑定发起后台重新验证的客户端，由 {@link RequestsConfig} 创建客户端时调用
+     *
+     * @param client 客户端
+     */
+    void bind(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = request.method();
+        if ((!"GET".equals(method) && !"HEAD".equals(method)) || HedgingInterceptor.isAttempt(request)) {
+            return chain.proceed(request);
+        }
+        CacheControl requestControl = request.cacheControl();
+        if (requestControl.noStore()) {
+            return chain.proceed(request);
+        }
+        String key = method + ' ' + request.url();
+        boolean background = Objects.nonNull(request.tag(Revalidation.class));
+        Entry entry = get(key);
+        if (Objects.nonNull(entry) && !background) {
+            long now = System.currentTimeMillis();
+            if (!requestControl.noCache() && entry.isFresh(requestControl, now)) {
+                hits.increment();
+                bytesSaved.add(entry.body.length);
+                return entry.toResponse(request);
+            }
+            // 请求声明了 max-age/min-fresh 时需要足够新的响应，不返回过期响应
+            boolean acceptsStale = requestControl.maxAgeSeconds() < 0 && requestControl.minFreshSeconds() < 0;
+            if (!requestControl.noCache() && acceptsStale && entry.ageMillis(now) < entry.lifetimeMillis + entry.staleWindowMillis
+                    && revalidateInBackground(key, request)) {
+                hits.increment();
+                staleHits.increment();
+                bytesSaved.add(entry.body.length);
+                return entry.toResponse(request);
+            }
+        }
+        if (Objects.isNull(entry) || !entry.hasValidators()) {
+            misses.increment();
+            return store(key, request, chain.proceed(request));
+        }
+        revalidations.increment();
+        Request.Builder conditional = request.newBuilder();
+        if (Objects.nonNull(entry.etag)) {
+            conditional.header("If-None-Match", entry.etag);
+        }
+        if (Objects.nonNull(entry.lastModified)) {
+            conditional.header("If-Modified-Since", entry.lastModified);
+        }
+        Response response = chain.proceed(conditional.build());
+        if (response.code() != 304) {
+            return store(key, request, response);
+        }
+        response.close();
+        notModified.increment();
+        bytesSaved.add(entry.body.length);
+        Entry refreshed = entry.refresh(response.headers(), staleWhileRevalidateMillis);
+        put(key, refreshed);
+        return refreshed.toResponse(request);
+    }
+
+    /**
+     * 同一个 key 同时只发起一次后台验证，未绑定客户端时返回 false，由调用方同步验证
+     */
+    private boolean revalidateInBackground(String key, Request request) {
+        OkHttpClient current = client;
+        if (Objects.isNull(current) || !revalidating.add(key)) {
+            return Objects.nonNull(current);
+        }
+        Request tagged = request.newBuilder().tag(Revalidation.class, Revalidation.INSTANCE).build();
+        current.newCall(tagged).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                revalidating.remove(key);
+                logger.warn("后台重新验证失败: {} {}", key, e.toString());
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                revalidating.remove(key);
+                response.close();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 可缓存时读取完整响应体并放入内存层，响应体超过单条上限或长度未知且超过上限时原样返回
+     */
+    private Response store(String key, Request request, Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (Objects.isNull(body) || !cacheable(request, response)) {
+            return response;
+        }
+        long contentLength = body.contentLength();
+        if (contentLength > maxEntryBytes) {
+            return response;
+        }
+        byte[] bytes;
+        if (contentLength >= 0) {
+            bytes = body.bytes();
+        } else {
+            // 长度未知时先预读，超过上限的响应不缓存，也不影响调用方读取
+            ResponseBody peek = response.peekBody(maxEntryBytes + 1);
+            if (peek.contentLength() > maxEntryBytes) {
+                return response;
+            }
+            bytes = body.bytes();
+        }
+        Entry entry = Entry.of(response, bytes, staleWhileRevalidateMillis);
+        put(key, entry);
+        return entry.toResponse(response.request());
+    }
+
+    private static boolean cacheable(Request request, Response response) {
+        if (response.code() != 200) {
+            return false;
+        }
+        CacheControl control = response.cacheControl();
+        if (control.noStore() || control.isPrivate() || Objects.nonNull(response.header("Content-Range"))) {
+            return false;
+        }
+        // 内存层按 URL 共享，携带凭证的请求只有响应明确允许共享时才缓存（RFC 9111 3.5）
+        boolean authorized = Objects.nonNull(request.header("Authorization")) || Objects.nonNull(response.request().header("Authorization"));
+        if (authorized && !control.isPublic() && control.sMaxAgeSeconds() < 0) {
+            return false;
+        }
+        String vary = response.header("Vary");
+        if (Objects.nonNull(vary) && !"accept-encoding".equalsIgnoreCase(vary.trim())) {
+            return false;
+        }
+        return control.maxAgeSeconds() >= 0 || Objects.nonNull(response.header("Expires"))
+                || Objects.nonNull(response.header("ETag")) || Objects.nonNull(response.header("Last-Modified"));
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (Objects.nonNull(previous)) {
+            memoryBytes -= previous.body.length;
+        }
+        memoryBytes += entry.body.length;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            memoryBytes -= iterator.next().body.length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 清空内存层，磁盘层通过 {@link #disk()} 单独管理
+     */
+    public synchronized void evictAll() {
+        entries.clear();
+        memoryBytes = 0;
+    }
+
+    public CacheStats stats() {
+        long size;
+        long bytes;
+        synchronized (this) {
+            size = entries.size();
+            bytes = memoryBytes;
+        }
+        return new CacheStats(hits.sum(), staleHits.sum(), misses.sum(), revalidations.sum(), notModified.sum(), bytesSaved.sum(),
+                size, bytes, Objects.isNull(disk) ? 0 : disk.hitCount(), Objects.isNull(disk) ? 0 : disk.networkCount(),
+                Objects.isNull(disk) ? 0 : disk.requestCount());
+    }
+
+    /**
+     * 后台重新验证请求的标记
+     */
+    private enum Revalidation {
+        INSTANCE
+    }
+
+    private static final class Entry {
+        private final Protocol protocol;
+        private final int code;
+        private final String message;
+        private final Headers headers;
+        private final MediaType contentType;
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+        private final boolean mustRevalidate;
+        /**
+         * 响应在源站生成的时刻，为收到响应的时刻减去 Age 头
+         */
+        private final long generatedAt;
+        private final long lifetimeMillis;
+        private final long staleWindowMillis;
+
+        private Entry(Protocol protocol, int code, String message, Headers headers, MediaType contentType, byte[] body,
+                      long staleWhileRevalidateMillis) {
+            this.protocol = protocol;
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.body = body;
+            this.etag = headers.get("ETag");
+            this.lastModified = headers.get("Last-Modified");
+            CacheControl control = CacheControl.parse(headers);
+            this.mustRevalidate = control.noCache() || control.mustRevalidate();
+            this.generatedAt = System.currentTimeMillis() - ageMillis(headers);
+            this.lifetimeMillis = freshnessMillis(control, headers);
+            long window = staleWhileRevalidateSeconds(headers);
+            this.staleWindowMillis = window >= 0 ? TimeUnit.SECONDS.toMillis(window) : staleWhileRevalidateMillis;
+        }
+
+        static Entry of(Response response, byte[] body, long staleWhileRevalidateMillis) {
+            ResponseBody responseBody = response.body();
+            MediaType contentType = Objects.isNull(responseBody) ? null : responseBody.contentType();
+            return new Entry(response.protocol(), response.code(), response.message(), response.headers(), contentType, body,
+                    staleWhileRevalidateMillis);
+        }
+
+        /**
+         * 304 响应只更新响应头中携带的字段，响应体沿用缓存
+         */
+        Entry refresh(Headers update, long staleWhileRevalidateMillis) {
+            // Age 只取 304 响应携带的值，旧值已不代表当前的年龄
+            Headers.Builder merged = headers.newBuilder().removeAll("Age");
+            for (String name : update.names()) {
+                if (!"content-length".equalsIgnoreCase(name) && !"content-encoding".equalsIgnoreCase(name)) {
+                    merged.removeAll(name);
+                    update.values(name).forEach(value -> merged.add(name, value));
+                }
+            }
+            return new Entry(protocol, code, message, merged.build(), contentType, body, staleWhileRevalidateMillis);
+        }
+
+        long ageMillis(long now) {
+            return now - generatedAt;
+        }
+
+        /**
+         * 按请求的 max-age/min-fresh/max-stale 判断能否直接返回（RFC 9111 5.2.1），
+         * 响应声明了 must-revalidate 或 no-cache 时忽略 max-stale
+         */
+        boolean isFresh(CacheControl request, long now) {
+            long freshness = lifetimeMillis;
+            if (request.maxAgeSeconds() >= 0) {
+                freshness = Math.min(freshness, TimeUnit.SECONDS.toMillis(request.maxAgeSeconds()));
+            }
+            long minFresh = request.minFreshSeconds() >= 0 ? TimeUnit.SECONDS.toMillis(request.minFreshSeconds()) : 0;
+            long maxStale = !mustRevalidate && request.maxStaleSeconds() >= 0 ? TimeUnit.SECONDS.toMillis(request.maxStaleSeconds()) : 0;
+            return ageMillis(now) + minFresh < freshness + maxStale;
+        }
+
+        boolean hasValidators() {
+            return Objects.nonNull(etag) || Objects.nonNull(lastModified);
+        }
+
+        Response toResponse(Request request) {
+            long now = System.currentTimeMillis();
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body("HEAD".equals(request.method()) ? ResponseBody.create(new byte[0], contentType)
+                            : ResponseBody.create(body, contentType))
+                    .sentRequestAtMillis(now)
+                    .receivedResponseAtMillis(now)
+                    .build();
+        }
+
+        private static long freshnessMillis(CacheControl control, Headers headers) {
+            if (control.noCache()) {
+                return 0;
+            }
+            if (control.maxAgeSeconds() >= 0) {
+                return TimeUnit.SECONDS.toMillis(control.maxAgeSeconds());
+            }
+            Date expires = headers.getDate("Expires");
+            if (Objects.isNull(expires)) {
+                return 0;
+            }
+            Date date = headers.getDate("Date");
+            long base = Objects.isNull(date) ? System.currentTimeMillis() : date.getTime();
+            return Math.max(0, expires.getTime() - base);
+        }
+
+        /**
+         * 响应在上游缓存中已经存放的时长（RFC 9111 4.2.3），缺失或无法解析时为 0
+         */
+        private static long ageMillis(Headers headers) {
+            String age = headers.get("Age");
+            if (Objects.isNull(age)) {
+                return 0;
+            }
+            try {
+                return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(age.trim())));
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+
+        /**
+         * OkHttp 不解析 stale-while-revalidate，这里单独读取，未声明时返回 -1
+         */
+        private static long staleWhileRevalidateSeconds(Headers headers) {
+            for (String value : headers.values("Cache-Control")) {
+                for (String directive : value.split(",")) {
+                    String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+                    if (trimmed.startsWith("stale-while-revalidate=")) {
+                        try {
+                            return Long.parseLong(trimmed.substring("stale-while-revalidate=".length()).replace("\"", ""));
+                        } catch (NumberFormatException ignored) {
+                            return -1;
+                        }
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    public static class Builder {
+        private long maxMemoryBytes = 8 * 1024 * 1024L;
+        private long maxEntryBytes = 256 * 1024L;
+        private long staleWhileRevalidateMillis;
+        private File directory;
+        private long maxDiskBytes = 64 * 1024 * 1024L;
+
+        Builder() {
+        }
+
+        /**
+         * @param maxMemoryBytes 内存层的总字节数上限，按 LRU 淘汰
+         * @return Builder
+         */
+        public Builder maxMemoryBytes(long maxMemoryBytes) {
+            this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+            return this;
+        }
+
+        /**
+         * @param maxEntryBytes 单个响应体进入内存层的字节数上限
+         * @return Builder
+         */
+        public Builder maxEntryBytes(long maxEntryBytes) {
+            this.maxEntryBytes = Math.max(0, maxEntryBytes);
+            return this;
+        }
+
+        /**
+         * 响应未声明 stale-while-revalidate 时使用的默认窗口，0 表示关闭
+         *
+         * @param window 过期后仍可直接返回的时长
+         * @param unit   时间单位
+         * @return Builder
+         */
+        public Builder staleWhileRevalidate(long window, TimeUnit unit) {
+            this.staleWhileRevalidateMillis = unit.toMillis(Math.max(0, window));
+            return this;
+        }
+
+        /**
+         * @param directory    磁盘缓存目录
+         * @param maxDiskBytes 磁盘缓存的字节数上限
+         * @return Builder
+         */
+        public Builder disk(File directory, long maxDiskBytes) {
+            this.directory = Objects.requireNonNull(directory, "directory");
+            this.maxDiskBytes = maxDiskBytes;
+            return this;
+        }
+
+        public ResponseCache build() {
+            return new ResponseCache(this);
+        }
+    }
+}
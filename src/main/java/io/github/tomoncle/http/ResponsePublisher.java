@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：把响应体发布为 {@link Flow.Publisher}，按订阅者的需求从 Okio source 读取
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 只允许一个订阅者；每个 onNext 是一个新的 ByteBuffer，订阅者可以持有它。
+ * 需求为 0 时停止读取，未读取的数据留在 socket 缓冲区，由 TCP 流量控制让服务端放慢发送。
+ * 由 Call 创建的发布者在第一次 request 时才执行请求；与 {@code stream(...)} 一致，不检查响应状态码。
+ * @since JDK1.8
+ */
+public final class ResponsePublisher implements Flow.Publisher<ByteBuffer> {
+    private static final Executor EXECUTOR = RequestsExecutors.newCachedExecutor("requests-publisher");
+
+    private final Call call;
+    private final Response response;
+    private final int chunkSize;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private ResponsePublisher(@Nullable Call call, @Nullable Response response, int chunkSize, @Nullable Executor executor) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be > 0");
+        }
+        this.call = call;
+        this.response = response;
+        this.chunkSize = chunkSize;
+        this.executor = null == executor ? EXECUTOR : executor;
+    }
+
+    /**
+     * 发布已经拿到的响应，调用方可以先检查状态码
+     *
+     * @param response r
+     * @return ResponsePublisher
+     */
+    public static ResponsePublisher of(Response response) {
+        return of(response, ResponseStreams.CHUNK_SIZE, null);
+    }
+
+    /**
+     * @param response  r
+     * @param chunkSize 每个 onNext 的最大字节数
+     * @param executor  执行阻塞读取与回调的线程池，为空时使用内部的守护线程池
+     * @return ResponsePublisher
+     */
+    public static ResponsePublisher of(Response response, int chunkSize, @Nullable Executor executor) {
+        return new ResponsePublisher(null, Objects.requireNonNull(response, "response"), chunkSize, executor);
+    }
+
+    static ResponsePublisher of(Call call) {
+        return new ResponsePublisher(Objects.requireNonNull(call, "call"), null, ResponseStreams.CHUNK_SIZE, null);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("ResponsePublisher 只允许一个订阅者"));
+            return;
+        }
+        BodySubscription subscription = new BodySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class BodySubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalid;
+        // 以下字段只在 drain 中访问，wip 保证同一时刻只有一个线程进入
+        private Response current;
+        private BufferedSource source;
+        private boolean done;
+
+        BodySubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalid = new IllegalArgumentException("request(n) 的 n 必须大于 0，实际为 " + n);
+            } else {
+                long r;
+                do {
+                    r = demand.get();
+                } while (r != Long.MAX_VALUE && !demand.compareAndSet(r, r + n < 0 ? Long.MAX_VALUE : r + n));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (null != call) {
+                // 让阻塞中的读取尽快返回
+                call.cancel();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    try {
+                        emit();
+                    } catch (IOException | RuntimeException e) {
+                        finish();
+                        if (!cancelled) {
+                            subscriber.onError(e);
+                        }
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() throws IOException {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (null != invalid) {
+                finish();
+                subscriber.onError(invalid);
+                return;
+            }
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted != requested && !cancelled && null == invalid) {
+                ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+                if (source().read(chunk) == -1) {
+                    finish();
+                    subscriber.onComplete();
+                    return;
+                }
+                chunk.flip();
+                subscriber.onNext(chunk);
+                emitted++;
+            }
+            // 回调中发生的 request/cancel 已经增加了 wip，由 drain 的下一轮处理
+            if (requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+        }
+
+        private BufferedSource source() throws IOException {
+            if (null == source) {
+                current = null == response ? call.execute() : response;
+                ResponseBody body = current.body();
+                source = null == body ? new Buffer() : body.source();
+            }
+            return source;
+        }
+
+        private void finish() {
+            done = true;
+            if (null != current) {
+                current.close();
+            } else if (null != response) {
+                response.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：以流的方式消费响应体，不把完整响应体读入内存
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 数据以 Okio Segment 为单位搬运，内存占用与响应体大小无关；除 {@link #inputStream(Response)} 外，方法返回时响应已关闭，
+ * 非 2xx 响应抛出携带状态码的 {@link IOException}，不写出响应体。
+ * @since JDK1.8
+ */
+final class ResponseStreams {
+    static final int CHUNK_SIZE = 8192;
+
+    private ResponseStreams() {
+    }
+
+    static long copy(Response response, Path path) throws IOException {
+        // 先检查状态码再打开文件，错误响应不会截断已有文件
+        try (Response r = successful(response); BufferedSource source = source(r);
+             Sink sink = Okio.sink(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return source.readAll(sink);
+        }
+    }
+
+    static long copy(Response response, OutputStream outputStream) throws IOException {
+        try (Response r = successful(response); BufferedSource source = source(r)) {
+            // 不关闭调用方的 OutputStream
+            Sink sink = Okio.sink(outputStream);
+            long count = source.readAll(sink);
+            sink.flush();
+            return count;
+        }
+    }
+
+    static long copy(Response response, WritableByteChannel channel) throws IOException {
+        return consume(response, chunk -> {
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        });
+    }
+
+    static long consume(Response response, ChunkConsumer consumer) throws IOException {
+        try (Response r = successful(response); BufferedSource source = source(r)) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            long count = 0;
+            int read;
+            while ((read = source.read(chunk)) != -1) {
+                chunk.flip();
+                count += read;
+                consumer.accept(chunk);
+                chunk.clear();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 返回响应体的输入流，关闭输入流时释放连接
+     *
+     * @param response r
+     * @return InputStream
+     */
+    static InputStream inputStream(Response response) {
+        ResponseBody body = response.body();
+        if (null == body) {
+            response.close();
+            return new Buffer().inputStream();
+        }
+        return new FilterInputStream(body.byteStream()) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+    }
+
+    /**
+     * 非 2xx 响应体是服务端的错误描述，写出后返回的字节数会被当作下载成功，直接关闭响应并抛出
+     */
+    private static Response successful(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException("下载失败: " + response.code() + " " + response.request().url());
+        }
+        return response;
+    }
+
+    private static BufferedSource source(Response response) {
+        ResponseBody body = response.body();
+        return null == body ? new Buffer() : body.source();
+    }
+}
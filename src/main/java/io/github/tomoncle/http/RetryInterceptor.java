@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：失败重试，指数退避 + 抖动 + 重试预算
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link RequestsConfig.Builder#retry(RetryInterceptor)} 注册。默认只重试幂等方法（GET/HEAD/PUT/DELETE/OPTIONS/TRACE），
+ * POST/PATCH 只有携带 {@link Builder#idempotencyKeyHeader(String)} 请求头时才重试。
+ * 等待时长为 {@code min(maxDelay, baseDelay * 2^n)} 的一半加上随机的另一半；响应带 Retry-After 时以其为准，超过 maxRetryAfter 时不重试。
+ * 重试预算是整个客户端共享的令牌桶：每个成功响应存入 {@link Builder#budgetRatio(double)} 个令牌，每次重试取出一个，
+ * 上游大面积失败时成功响应减少，预算随之耗尽，重试不会放大负载。
+ * @since JDK1.8
+ */
+public class RetryInterceptor implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RetryInterceptor.class);
+    private static final Set<String> IDEMPOTENT = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS", "TRACE")));
+    private static final long SLEEP_SLICE_MILLIS = 50;
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+    private final Set<Integer> retryStatus;
+    private final String idempotencyKeyHeader;
+    private final boolean generateIdempotencyKey;
+    private final TokenBudget budget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    private RetryInterceptor(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.maxRetryAfterMillis = builder.maxRetryAfterMillis;
+        this.retryStatus = Collections.unmodifiableSet(new HashSet<>(builder.retryStatus));
+        this.idempotencyKeyHeader = builder.idempotencyKeyHeader;
+        this.generateIdempotencyKey = builder.generateIdempotencyKey;
+        this.budget = new TokenBudget(builder.budgetCapacity, builder.budgetRatio);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 已发起的重试次数
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return 因预算耗尽而放弃重试的次数
+     */
+    public long budgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * @return 当前剩余的重试预算
+     */
+    public double budget() {
+        return budget.tokens();
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean idempotent = IDEMPOTENT.contains(request.method());
+        if (!idempotent && Objects.nonNull(idempotencyKeyHeader) && Objects.isNull(request.header(idempotencyKeyHeader))
+                && generateIdempotencyKey) {
+            request = request.newBuilder().header(idempotencyKeyHeader, UUID.randomUUID().toString()).build();
+        }
+        RequestBody body = request.body();
+        boolean retryable = (idempotent || (Objects.nonNull(idempotencyKeyHeader) && Objects.nonNull(request.header(idempotencyKeyHeader))))
+                && (Objects.isNull(body) || !body.isOneShot());
+        for (int attempt = 1; ; attempt++) {
+            boolean last = !retryable || attempt >= maxAttempts;
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (last || e instanceof ConcurrencyLimiter.RejectedException || e instanceof RateLimiter.RateLimitedException
+                        || chain.call().isCanceled() || !withdraw()) {
+                    throw e;
+                }
+                logger.debug("重试 {} {} ({}/{}): {}", request.method(), request.url(), attempt, maxAttempts, e.toString());
+                sleep(chain, backoff(attempt), TimeUnit.MILLISECONDS);
+                continue;
+            }
+            if (!retryStatus.contains(response.code())) {
+                if (response.code() < 500) {
+                    budget.deposit();
+                }
+                return response;
+            }
+            long delay = retryAfter(response, attempt);
+            if (last || delay < 0 || chain.call().isCanceled() || !withdraw()) {
+                return response;
+            }
+            logger.debug("重试 {} {} ({}/{}): HTTP {}", request.method(), request.url(), attempt, maxAttempts, response.code());
+            response.close();
+            sleep(chain, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean withdraw() {
+        if (!budget.withdraw()) {
+            budgetExhausted.increment();
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    private long backoff(int attempt) {
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * @return 等待时长，Retry-After 超过上限时返回 -1
+     */
+    private long retryAfter(Response response, int attempt) {
+        long delay = retryAfterMillis(response);
+        if (delay < 0) {
+            return backoff(attempt);
+        }
+        return delay > maxRetryAfterMillis ? -1 : delay;
+    }
+
+    /**
+     * 解析 Retry-After，支持秒数与 HTTP 日期两种格式
+     *
+     * @return 等待毫秒数，没有或无法解析时返回 -1
+     */
+    static long retryAfterMillis(Response response) {
+        String value = response.header("Retry-After");
+        if (Objects.isNull(value)) {
+            return -1;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return Objects.isNull(date) ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 分片等待，每片之间检查调用是否已取消。调用超时到期时 OkHttp 会取消调用，等待随之结束；限流等待同样使用该方法
+     */
+    static void sleep(Chain chain, long duration, TimeUnit unit) throws IOException {
+        long deadline = System.nanoTime() + unit.toNanos(duration);
+        try {
+            while (true) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(SLEEP_SLICE_MILLIS)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待被中断");
+        }
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private long baseDelayMillis = 100;
+        private long maxDelayMillis = TimeUnit.SECONDS.toMillis(10);
+        private long maxRetryAfterMillis = TimeUnit.SECONDS.toMillis(30);
+        private final Set<Integer> retryStatus = new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504));
+        private String idempotencyKeyHeader = "Idempotency-Key";
+        private boolean generateIdempotencyKey;
+        private long budgetCapacity = 10;
+        private double budgetRatio = 0.1;
+
+        Builder() {
+        }
+
+        /**
+         * @param maxAttempts 最多请求次数，包括第一次
+         * @return Builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = Math.max(1, maxAttempts);
+            return this;
+        }
+
+        public Builder backoff(long baseDelay, long maxDelay, TimeUnit unit) {
+            this.baseDelayMillis = Math.max(1, unit.toMillis(baseDelay));
+            this.maxDelayMillis = Math.max(baseDelayMillis, unit.toMillis(maxDelay));
+            return this;
+        }
+
+        /**
+         * @param maxRetryAfter Retry-After 超过该时长时直接返回响应，不再重试
+         * @param unit          时间单位
+         * @return Builder
+         */
+        public Builder maxRetryAfter(long maxRetryAfter, TimeUnit unit) {
+            this.maxRetryAfterMillis = unit.toMillis(maxRetryAfter);
+            return this;
+        }
+
+        /**
+         * @param codes 需要重试的状态码，替换默认的 408/429/500/502/503/504
+         * @return Builder
+         */
+        public Builder retryOn(int... codes) {
+            this.retryStatus.clear();
+            for (int code : codes) {
+                this.retryStatus.add(code);
+            }
+            return this;
+        }
+
+        /**
+         * @param idempotencyKeyHeader 幂等键请求头，非幂等方法携带该请求头时才重试，为空时从不重试非幂等方法
+         * @return Builder
+         */
+        public Builder idempotencyKeyHeader(String idempotencyKeyHeader) {
+            this.idempotencyKeyHeader = idempotencyKeyHeader;
+            return this;
+        }
+
+        /**
+         * @param generateIdempotencyKey 非幂等方法未携带幂等键时是否自动生成（UUID），服务端需要按该键去重
+         * @return Builder
+         */
+        public Builder generateIdempotencyKey(boolean generateIdempotencyKey) {
+            this.generateIdempotencyKey = generateIdempotencyKey;
+            return this;
+        }
+
+        /**
+         * @param capacity 令牌桶容量，即连续失败时最多的重试次数
+         * @param ratio    每个成功响应存入的令牌数，0.1 表示重试量最多为成功请求量的 10%
+         * @return Builder
+         */
+        public Builder budget(long capacity, double ratio) {
+            this.budgetCapacity = Math.max(0, capacity);
+            this.budgetRatio = Math.max(0, ratio);
+            return this;
+        }
+
+        public RetryInterceptor build() {
+            return new RetryInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import io.github.tomoncle.http.domain.AggregateProgress;
+import io.github.tomoncle.http.domain.DownloadOptions;
+import io.github.tomoncle.http.domain.ProgressResponseBody;
+import io.github.tomoncle.http.domain.TransferRate;
+import okhttp3.Headers;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：基于 HTTP Range 的并行分段下载，支持断点续传
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 先通过 HEAD 获取 Content-Length/Accept-Ranges，再并行请求各分段并按偏移量写入预分配的文件；
+ * 下载进度保存在同目录的 {@code <文件名>.download} 状态文件中，中断后只下载缺失的部分。
+ * 服务端不支持 Range 时退化为单连接下载。
+ * @since JDK1.8
+ */
+final class SegmentedDownload {
+    static final String STATE_SUFFIX = ".download";
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedDownload.class);
+
+    private final AbstractBasic head;
+    private final AbstractBasic get;
+
+    SegmentedDownload(AbstractBasic head, AbstractBasic get) {
+        this.head = head;
+        this.get = get;
+    }
+
+    long download(String url, Path path, DownloadOptions options) throws IOException {
+        Path statePath = path.resolveSibling(path.getFileName() + STATE_SUFFIX);
+        Probe probe = probe(url, options.getHeaders());
+        if (probe.length <= 0 || !probe.acceptRanges) {
+            logger.debug("{} 不支持分段下载，使用单连接下载", url);
+            Files.deleteIfExists(statePath);
+            if (Objects.isNull(options.getListener())) {
+                return get.writeTo(url, options.getHeaders(), path);
+            }
+            Response response = get.response(url, options.getHeaders());
+            return ResponseStreams.copy(ProgressResponseBody.wrap(response, options.getListener(), url + " ", options.getThrottle()), path);
+        }
+        State state = options.isResume() && Files.exists(path) ? State.load(statePath, probe) : null;
+        if (Objects.isNull(state)) {
+            state = State.create(probe, segmentCount(probe.length, options));
+        } else {
+            logger.debug("{} 续传，剩余 {} bytes", url, state.remaining());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() > probe.length) {
+                channel.truncate(probe.length);
+            } else if (channel.size() < probe.length) {
+                // 写入最后一个字节以预分配文件
+                channel.write(ByteBuffer.wrap(new byte[1]), probe.length - 1);
+            }
+            state.save(statePath);
+            AggregateProgress progress = Objects.isNull(options.getListener()) ? null : new AggregateProgress(probe.length,
+                    probe.length - state.remaining(), options.getListener(), url + " ", options.getThrottle());
+            fetch(url, options, probe, state, statePath, channel, progress);
+            channel.force(false);
+        }
+        Files.deleteIfExists(statePath);
+        return probe.length;
+    }
+
+    private void fetch(String url, DownloadOptions options, Probe probe, State state, Path statePath, FileChannel channel,
+                       AggregateProgress progress) throws IOException {
+        ExecutorService executor = RequestsExecutors.newExecutor("requests-download", state.segments.size());
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Segment segment : state.segments) {
+                if (segment.remaining() > 0) {
+                    futures.add(executor.submit(() -> {
+                        fetchSegment(url, options, probe, segment, state, statePath, channel, progress);
+                        return null;
+                    }));
+                }
+            }
+            IOException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    state.failed = true;
+                    Throwable cause = e.getCause();
+                    IOException error = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    if (Objects.isNull(failure)) {
+                        failure = error;
+                    } else {
+                        failure.addSuppressed(error);
+                    }
+                } catch (InterruptedException e) {
+                    state.failed = true;
+                    Thread.currentThread().interrupt();
+                    failure = new InterruptedIOException("下载被中断: " + url);
+                }
+            }
+            if (Objects.nonNull(failure)) {
+                state.save(statePath);
+                throw failure;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void fetchSegment(String url, DownloadOptions options, Probe probe, Segment segment, State state, Path statePath,
+                              FileChannel channel, AggregateProgress progress) throws IOException {
+        Headers.Builder builder = null == options.getHeaders() ? new Headers.Builder() : options.getHeaders().newBuilder();
+        builder.set("Range", "bytes=" + (segment.start + segment.written) + "-" + segment.end);
+        if (Objects.nonNull(probe.validator)) {
+            builder.set("If-Range", probe.validator);
+        }
+        try (Response response = get.response(url, builder.build()); ResponseBody body = response.body()) {
+            if (response.code() != 206 || null == body) {
+                throw new IOException("服务端未返回分段内容: " + response.code() + " " + url);
+            }
+            BufferedSource source = body.source();
+            ByteBuffer buffer = ByteBuffer.allocate(ResponseStreams.CHUNK_SIZE);
+            TransferRate rate = TransferRate.download();
+            long unsaved = 0;
+            while (!state.failed && segment.remaining() > 0) {
+                buffer.limit((int) Math.min(buffer.capacity(), segment.remaining()));
+                int read = source.read(buffer);
+                if (read == -1) {
+                    break;
+                }
+                buffer.flip();
+                long position = segment.start + segment.written;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                buffer.clear();
+                segment.written += read;
+                unsaved += read;
+                rate.record(read);
+                if (Objects.nonNull(progress)) {
+                    progress.add(read);
+                }
+                if (unsaved >= options.getCheckpointBytes()) {
+                    state.save(statePath);
+                    unsaved = 0;
+                }
+            }
+            if (!state.failed && segment.remaining() > 0) {
+                throw new IOException("分段下载提前结束: bytes=" + segment.start + "-" + segment.end + " " + url);
+            }
+        }
+    }
+
+    private Probe probe(String url, Headers headers) throws IOException {
+        try (Response response = head.response(url, headers)) {
+            if (!response.isSuccessful()) {
+                throw new IOException("HEAD 请求失败: " + response.code() + " " + url);
+            }
+            String length = response.header("Content-Length");
+            String etag = response.header("ETag");
+            Probe probe = new Probe();
+            probe.length = null == length ? -1 : Long.parseLong(length.trim());
+            probe.acceptRanges = "bytes".equalsIgnoreCase(response.header("Accept-Ranges"));
+            // 弱 ETag 不能用于 If-Range
+            probe.validator = Objects.nonNull(etag) && !etag.startsWith("W/") ? etag : response.header("Last-Modified");
+            return probe;
+        }
+    }
+
+    private static int segmentCount(long length, DownloadOptions options) {
+        long bySize = Math.max(1, length / options.getMinSegmentSize());
+        return (int) Math.min(options.getSegments(), bySize);
+    }
+
+    private static final class Probe {
+        long length;
+        boolean acceptRanges;
+        String validator;
+    }
+
+    private static final class Segment {
+        final long start;
+        final long end;
+        volatile long written;
+
+        Segment(long start, long end, long written) {
+            this.start = start;
+            this.end = end;
+            this.written = written;
+        }
+
+        long remaining() {
+            return end - start + 1 - written;
+        }
+    }
+
+    /**
+     * 状态文件，记录文件长度、校验值与各分段已写入的字节数
+     */
+    private static final class State {
+        final long length;
+        final String validator;
+        final List<Segment> segments = new ArrayList<>();
+        volatile boolean failed;
+
+        State(long length, String validator) {
+            this.length = length;
+            this.validator = validator;
+        }
+
+        static State create(Probe probe, int count) {
+            State state = new State(probe.length, probe.validator);
+            long size = probe.length / count;
+            for (int i = 0; i < count; i++) {
+                long start = i * size;
+                long end = i == count - 1 ? probe.length - 1 : start + size - 1;
+                state.segments.add(new Segment(start, end, 0));
+            }
+            return state;
+        }
+
+        static State load(Path path, Probe probe) {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+                long length = Long.parseLong(properties.getProperty("length"));
+                String validator = properties.getProperty("validator");
+                if (length != probe.length || !Objects.equals(validator, probe.validator)) {
+                    logger.debug("{} 对应的远程文件已变化，重新下载", path);
+                    return null;
+                }
+                State state = new State(length, validator);
+                int count = Integer.parseInt(properties.getProperty("segments"));
+                for (int i = 0; i < count; i++) {
+                    String[] values = properties.getProperty("segment." + i).split(",");
+                    state.segments.add(new Segment(Long.parseLong(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2])));
+                }
+                return state;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("读取下载状态文件失败，重新下载: {}", path, e);
+                return null;
+            }
+        }
+
+        long remaining() {
+            return segments.stream().mapToLong(Segment::remaining).sum();
+        }
+
+        synchronized void save(Path path) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("length", String.valueOf(length));
+            if (Objects.nonNull(validator)) {
+                properties.setProperty("validator", validator);
+            }
+            properties.setProperty("segments", String.valueOf(segments.size()));
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                properties.setProperty("segment." + i, segment.start + "," + segment.end + "," + segment.written);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, null);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
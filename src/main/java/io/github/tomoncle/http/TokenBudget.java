@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：重试与对冲共用的令牌桶预算
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 令牌以千分之一为单位存储，每次存入的令牌数可以是小数；初始为满桶，取出时每次一个。
+ * @since JDK1.8
+ */
+final class TokenBudget {
+    private static final long UNIT = 1000;
+
+    private final long capacity;
+    private final long deposit;
+    private final AtomicLong tokens;
+
+    /**
+     * @param capacity 桶容量
+     * @param deposit  每次存入的令牌数
+     */
+    TokenBudget(long capacity, double deposit) {
+        this.capacity = capacity * UNIT;
+        this.deposit = (long) (deposit * UNIT);
+        this.tokens = new AtomicLong(this.capacity);
+    }
+
+    void deposit() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * @return 是否取出了一个令牌，不足一个时返回 false
+     */
+    boolean withdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    double tokens() {
+        return (double) tokens.get() / UNIT;
+    }
+}
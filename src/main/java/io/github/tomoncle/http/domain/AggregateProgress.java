@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.ProgressListener;
+import okhttp3.RequestBody;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：多个请求体共同组成一次传输时的合并进度，例如分片上传
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 每个分片通过 {@link #wrap(RequestBody)} 包装，分片失败重试前调用 {@link Part#rollback()} 扣除已统计的字节数；
+ * 不经过请求体的传输（例如分段下载）通过 {@link #add(long)} 累加。合并后的进度按 {@link ProgressThrottle} 节流后交给监听。
+ * @since JDK1.8
+ */
+public class AggregateProgress {
+    private final String logPrompt;
+    private final AtomicLong transferred;
+    private final ProgressGate gate;
+
+    public AggregateProgress(long contentLength, long transferred, @Nullable ProgressListener listener, String logPrompt) {
+        this(contentLength, transferred, listener, logPrompt, ProgressThrottle.DEFAULT);
+    }
+
+    public AggregateProgress(long contentLength, long transferred, @Nullable ProgressListener listener, String logPrompt,
+                             ProgressThrottle throttle) {
+        this.transferred = new AtomicLong(transferred);
+        this.logPrompt = logPrompt;
+        this.gate = new ProgressGate(Objects.isNull(listener)
+                ? new ProgressRequestBody.LoggingProgressListener("上传", TransferRate.upload()) : listener,
+                throttle, contentLength, logPrompt);
+    }
+
+    public Part wrap(RequestBody requestBody) {
+        return new Part(requestBody);
+    }
+
+    public long getTransferred() {
+        return transferred.get();
+    }
+
+    /**
+     * @param delta 新传输的字节数
+     */
+    public void add(long delta) {
+        report(transferred.addAndGet(delta));
+    }
+
+    private void report(long total) {
+        synchronized (gate) {
+            gate.update(total);
+        }
+    }
+
+    public class Part implements ProgressListener {
+        private final ProgressRequestBody body;
+        private long reported;
+
+        Part(RequestBody requestBody) {
+            // 分片自身不节流，合并后的进度统一节流
+            this.body = new ProgressRequestBody(requestBody, this, logPrompt, ProgressThrottle.NONE);
+        }
+
+        public ProgressRequestBody body() {
+            return body;
+        }
+
+        @Override
+        public void onProgressUpdate(long bytesWritten, long contentLength, boolean done, String logPrompt) {
+            long delta = bytesWritten - reported;
+            reported = bytesWritten;
+            report(transferred.addAndGet(delta));
+        }
+
+        /**
+         * 撤销该分片已统计的进度
+         */
+        public void rollback() {
+            if (reported != 0) {
+                transferred.addAndGet(-reported);
+                reported = 0;
+            }
+        }
+    }
+}
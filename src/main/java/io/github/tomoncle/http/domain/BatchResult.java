@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.Headers;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：批量请求中单个请求的结果，请求失败时 {@link #getError()} 不为空
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class BatchResult {
+    private final long index;
+    private final RequestSpec spec;
+    private final int code;
+    private final Headers headers;
+    private final String body;
+    private final Throwable error;
+    private final long durationMillis;
+
+    private BatchResult(long index, RequestSpec spec, int code, Headers headers, String body, Throwable error, long durationMillis) {
+        this.index = index;
+        this.spec = spec;
+        this.code = code;
+        this.headers = headers;
+        this.body = body;
+        this.error = error;
+        this.durationMillis = durationMillis;
+    }
+
+    public static BatchResult success(long index, RequestSpec spec, int code, Headers headers, String body, long durationMillis) {
+        return new BatchResult(index, spec, code, headers, body, null, durationMillis);
+    }
+
+    public static BatchResult failure(long index, RequestSpec spec, Throwable error, long durationMillis) {
+        return new BatchResult(index, spec, -1, null, null, error, durationMillis);
+    }
+
+    /**
+     * @return 请求在输入序列中的位置，从 0 开始
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public RequestSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @return HTTP 状态码，请求失败时为 -1
+     */
+    public int getCode() {
+        return code;
+    }
+
+    public @Nullable Headers getHeaders() {
+        return headers;
+    }
+
+    public @Nullable String getBody() {
+        return body;
+    }
+
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isSuccess() {
+        return Objects.isNull(error) && code >= 200 && code < 300;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" + index + ", " + spec + ", " + (Objects.isNull(error) ? code : error) + ", " + durationMillis + " ms}";
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：ByteBuffer 中剩余内容的请求体
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 创建时截取 position 到 limit 之间的视图，不复制内容，也不修改原 ByteBuffer 的 position，可以重复发送。
+ * {@link #map(Path, long, long, MediaType)} 以只读方式映射文件区间，内容由操作系统按页读入，不占用堆内存。
+ * @since JDK1.8
+ */
+public class ByteBufferRequestBody extends RequestBody {
+    private static final int WINDOW = 8192;
+    private final ByteBuffer buffer;
+    private final MediaType contentType;
+
+    public ByteBufferRequestBody(ByteBuffer buffer, @Nullable MediaType contentType) {
+        this.buffer = buffer.slice();
+        this.contentType = contentType;
+    }
+
+    /**
+     * 映射文件中的区间，区间不能超过 2GB
+     *
+     * @param path        文件
+     * @param position    起始偏移量
+     * @param count       字节数
+     * @param contentType 类型
+     * @return ByteBufferRequestBody
+     * @throws IOException e
+     */
+    public static ByteBufferRequestBody map(Path path, long position, long count, @Nullable MediaType contentType) throws IOException {
+        if (position < 0 || count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("position must be >= 0 and count must be in [0, 2GB)");
+        }
+        // 映射在通道关闭后仍然有效
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (position + count > channel.size()) {
+                throw new IOException("文件长度不足: " + path + " position=" + position + " count=" + count);
+            }
+            return new ByteBufferRequestBody(channel.map(FileChannel.MapMode.READ_ONLY, position, count), contentType);
+        }
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        // 一次写入整个 ByteBuffer 会先把全部内容复制进新的 Segment，按 Segment 大小分段写出，写满即发送
+        ByteBuffer view = buffer.duplicate();
+        int end = view.limit();
+        while (view.position() < end) {
+            ((Buffer) view).limit(Math.min(end, view.position() + WINDOW));
+            while (view.hasRemaining()) {
+                sink.write(view);
+            }
+            ((Buffer) view).limit(end);
+        }
+    }
+}
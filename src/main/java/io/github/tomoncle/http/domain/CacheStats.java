@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：响应缓存统计
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 内存缓存与磁盘缓存分别统计，磁盘缓存的数据来自 {@link okhttp3.Cache}。
+ * @since JDK1.8
+ */
+public class CacheStats {
+    private final long hits;
+    private final long staleHits;
+    private final long misses;
+    private final long revalidations;
+    private final long notModified;
+    private final long bytesSaved;
+    private final long entries;
+    private final long memoryBytes;
+    private final long diskHits;
+    private final long diskNetworkCount;
+    private final long diskRequestCount;
+
+    public CacheStats(long hits, long staleHits, long misses, long revalidations, long notModified, long bytesSaved,
+                      long entries, long memoryBytes, long diskHits, long diskNetworkCount, long diskRequestCount) {
+        this.hits = hits;
+        this.staleHits = staleHits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.notModified = notModified;
+        this.bytesSaved = bytesSaved;
+        this.entries = entries;
+        this.memoryBytes = memoryBytes;
+        this.diskHits = diskHits;
+        this.diskNetworkCount = diskNetworkCount;
+        this.diskRequestCount = diskRequestCount;
+    }
+
+    /**
+     * @return 内存缓存命中次数，包括 stale-while-revalidate 返回的过期响应
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return 在 stale-while-revalidate 窗口内返回过期响应的次数
+     */
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return 发送条件请求（If-None-Match/If-Modified-Since）的次数
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * @return 条件请求返回 304 的次数
+     */
+    public long getNotModified() {
+        return notModified;
+    }
+
+    /**
+     * @return 由内存缓存或 304 响应省下的响应体字节数
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getDiskHits() {
+        return diskHits;
+    }
+
+    public long getDiskNetworkCount() {
+        return diskNetworkCount;
+    }
+
+    public long getDiskRequestCount() {
+        return diskRequestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits + ", staleHits=" + staleHits + ", misses=" + misses + ", revalidations=" + revalidations
+                + ", notModified=" + notModified + ", bytesSaved=" + bytesSaved + ", entries=" + entries + ", memoryBytes=" + memoryBytes
+                + ", diskHits=" + diskHits + ", diskNetworkCount=" + diskNetworkCount + ", diskRequestCount=" + diskRequestCount + "}";
+    }
+}
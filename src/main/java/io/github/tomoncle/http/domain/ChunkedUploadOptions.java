@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.ChunkedUploadProtocol;
+import io.github.tomoncle.http.OffsetHeaderUploadProtocol;
+import io.github.tomoncle.http.ProgressListener;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分片上传参数
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class ChunkedUploadOptions {
+    private final long chunkSize;
+    private final int parallelism;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final boolean resume;
+    private final String uploadId;
+    private final ChunkedUploadProtocol protocol;
+    private final ProgressListener listener;
+
+    private ChunkedUploadOptions(Builder builder) {
+        this.chunkSize = builder.chunkSize;
+        this.parallelism = builder.parallelism;
+        this.maxRetries = builder.maxRetries;
+        this.retryBackoffMillis = builder.retryBackoffMillis;
+        this.resume = builder.resume;
+        this.uploadId = builder.uploadId;
+        this.protocol = builder.protocol;
+        this.listener = builder.listener;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static ChunkedUploadOptions defaults() {
+        return builder().build();
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public @Nullable String getUploadId() {
+        return uploadId;
+    }
+
+    public ChunkedUploadProtocol getProtocol() {
+        return protocol;
+    }
+
+    public @Nullable ProgressListener getListener() {
+        return listener;
+    }
+
+    public static class Builder {
+        private long chunkSize = 8 * 1024 * 1024L;
+        private int parallelism = 4;
+        private int maxRetries = 3;
+        private long retryBackoffMillis = 500;
+        private boolean resume = true;
+        private String uploadId;
+        private ChunkedUploadProtocol protocol = OffsetHeaderUploadProtocol.INSTANCE;
+        private ProgressListener listener;
+
+        Builder() {
+        }
+
+        public Builder chunkSize(long chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be > 0: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * @param parallelism 同时上传的分片数量
+         * @return Builder
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be > 0: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param maxRetries 单个分片失败后的最大重试次数
+         * @return Builder
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = Math.max(0, maxRetries);
+            return this;
+        }
+
+        public Builder retryBackoffMillis(long retryBackoffMillis) {
+            this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+            return this;
+        }
+
+        /**
+         * @param resume 是否根据状态文件跳过已完成的分片
+         * @return Builder
+         */
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        /**
+         * @param uploadId 上传ID，默认根据文件路径、大小和修改时间生成
+         * @return Builder
+         */
+        public Builder uploadId(String uploadId) {
+            this.uploadId = uploadId;
+            return this;
+        }
+
+        public Builder protocol(ChunkedUploadProtocol protocol) {
+            this.protocol = Objects.requireNonNull(protocol, "protocol");
+            return this;
+        }
+
+        /**
+         * @param listener 所有分片合并后的上传进度
+         * @return Builder
+         */
+        public Builder listener(ProgressListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public ChunkedUploadOptions build() {
+            return new ChunkedUploadOptions(this);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import javax.annotation.Nullable;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分片上传结果
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class ChunkedUploadResult {
+    private final String uploadId;
+    private final long fileSize;
+    private final int chunkCount;
+    private final int resumedChunks;
+    private final int completeCode;
+    private final String completeBody;
+
+    public ChunkedUploadResult(String uploadId, long fileSize, int chunkCount, int resumedChunks, int completeCode, @Nullable String completeBody) {
+        this.uploadId = uploadId;
+        this.fileSize = fileSize;
+        this.chunkCount = chunkCount;
+        this.resumedChunks = resumedChunks;
+        this.completeCode = completeCode;
+        this.completeBody = completeBody;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return 根据状态文件跳过的分片数量
+     */
+    public int getResumedChunks() {
+        return resumedChunks;
+    }
+
+    /**
+     * @return 合并请求的状态码，协议没有合并请求时为 -1
+     */
+    public int getCompleteCode() {
+        return completeCode;
+    }
+
+    public @Nullable String getCompleteBody() {
+        return completeBody;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkedUploadResult{" + uploadId + ", " + fileSize + " bytes, " + chunkCount + " chunks, resumed " + resumedChunks + "}";
+    }
+}
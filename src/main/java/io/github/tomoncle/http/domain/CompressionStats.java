@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：单个压缩编码的统计
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote CPU 时间取自当前线程的 CPU 时间，JVM 不支持时退化为墙钟时间；解压时间包含从连接读取压缩数据的开销。
+ * @since JDK1.8
+ */
+public class CompressionStats {
+    private final String encoding;
+    private final long requests;
+    private final long requestBytes;
+    private final long requestCompressedBytes;
+    private final long compressNanos;
+    private final long responses;
+    private final long responseCompressedBytes;
+    private final long responseBytes;
+    private final long decompressNanos;
+
+    public CompressionStats(String encoding, long requests, long requestBytes, long requestCompressedBytes, long compressNanos,
+                            long responses, long responseCompressedBytes, long responseBytes, long decompressNanos) {
+        this.encoding = encoding;
+        this.requests = requests;
+        this.requestBytes = requestBytes;
+        this.requestCompressedBytes = requestCompressedBytes;
+        this.compressNanos = compressNanos;
+        this.responses = responses;
+        this.responseCompressedBytes = responseCompressedBytes;
+        this.responseBytes = responseBytes;
+        this.decompressNanos = decompressNanos;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return 压缩前的请求体字节数
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getRequestCompressedBytes() {
+        return requestCompressedBytes;
+    }
+
+    public long getCompressNanos() {
+        return compressNanos;
+    }
+
+    public long getResponses() {
+        return responses;
+    }
+
+    public long getResponseCompressedBytes() {
+        return responseCompressedBytes;
+    }
+
+    /**
+     * @return 解压后的响应体字节数
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos;
+    }
+
+    /**
+     * @return 请求与响应合计节省的传输字节数
+     */
+    public long getBytesSaved() {
+        return requestBytes - requestCompressedBytes + responseBytes - responseCompressedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{encoding=" + encoding + ", requests=" + requests + ", requestBytes=" + requestBytes
+                + ", requestCompressedBytes=" + requestCompressedBytes + ", compressNanos=" + compressNanos + ", responses=" + responses
+                + ", responseCompressedBytes=" + responseCompressedBytes + ", responseBytes=" + responseBytes
+                + ", decompressNanos=" + decompressNanos + ", bytesSaved=" + getBytesSaved() + "}";
+    }
+}
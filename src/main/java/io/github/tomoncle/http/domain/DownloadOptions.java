@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.ProgressListener;
+import okhttp3.Headers;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分段下载参数
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class DownloadOptions {
+    private final int segments;
+    private final long minSegmentSize;
+    private final boolean resume;
+    private final long checkpointBytes;
+    private final Headers headers;
+    private final ProgressListener listener;
+    private final ProgressThrottle throttle;
+
+    private DownloadOptions(Builder builder) {
+        this.segments = builder.segments;
+        this.minSegmentSize = builder.minSegmentSize;
+        this.resume = builder.resume;
+        this.checkpointBytes = builder.checkpointBytes;
+        this.headers = builder.headers;
+        this.listener = builder.listener;
+        this.throttle = builder.throttle;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static DownloadOptions defaults() {
+        return builder().build();
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public long getMinSegmentSize() {
+        return minSegmentSize;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public long getCheckpointBytes() {
+        return checkpointBytes;
+    }
+
+    public @Nullable Headers getHeaders() {
+        return headers;
+    }
+
+    public @Nullable ProgressListener getListener() {
+        return listener;
+    }
+
+    public ProgressThrottle getThrottle() {
+        return throttle;
+    }
+
+    public static class Builder {
+        private int segments = 4;
+        private long minSegmentSize = 1024 * 1024L;
+        private boolean resume = true;
+        private long checkpointBytes = 4 * 1024 * 1024L;
+        private Headers headers;
+        private ProgressListener listener;
+        private ProgressThrottle throttle = ProgressThrottle.DEFAULT;
+
+        Builder() {
+        }
+
+        /**
+         * @param segments 并行下载的分段数量
+         * @return Builder
+         */
+        public Builder segments(int segments) {
+            if (segments <= 0) {
+                throw new IllegalArgumentException("segments must be > 0: " + segments);
+            }
+            this.segments = segments;
+            return this;
+        }
+
+        /**
+         * @param minSegmentSize 单个分段的最小字节数，文件较小时自动减少分段数量
+         * @return Builder
+         */
+        public Builder minSegmentSize(long minSegmentSize) {
+            this.minSegmentSize = Math.max(1, minSegmentSize);
+            return this;
+        }
+
+        /**
+         * @param resume 是否根据状态文件续传
+         * @return Builder
+         */
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        /**
+         * @param checkpointBytes 每个分段每写入多少字节保存一次状态文件
+         * @return Builder
+         */
+        public Builder checkpointBytes(long checkpointBytes) {
+            this.checkpointBytes = Math.max(1, checkpointBytes);
+            return this;
+        }
+
+        public Builder headers(Headers headers) {
+            this.headers = headers;
+            return this;
+        }
+
+        /**
+         * @param listener 下载进度监听，所有分段合并后报告，为空时不报告进度
+         * @return Builder
+         */
+        public Builder listener(@Nullable ProgressListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public Builder throttle(ProgressThrottle throttle) {
+            this.throttle = Objects.requireNonNull(throttle, "throttle");
+            return this;
+        }
+
+        public DownloadOptions build() {
+            return new DownloadOptions(this);
+        }
+    }
+}
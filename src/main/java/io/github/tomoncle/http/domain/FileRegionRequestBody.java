@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：文件中指定区间的请求体
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 每次 writeTo 按偏移量从文件读取，不会把区间内容读入内存，可以重复发送。
+ * @since JDK1.8
+ */
+public class FileRegionRequestBody extends RequestBody {
+    private final Path path;
+    private final long position;
+    private final long count;
+    private final MediaType contentType;
+
+    public FileRegionRequestBody(Path path, long position, long count, @Nullable MediaType contentType) {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("position and count must be >= 0");
+        }
+        this.path = path;
+        this.position = position;
+        this.count = count;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return count;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long written = 0;
+            while (written < count) {
+                long n = channel.transferTo(position + written, count - written, sink);
+                if (n <= 0) {
+                    throw new IOException("文件长度不足: " + path + " position=" + (position + written));
+                }
+                written += n;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：在 {@link #writeTo(BufferedSink)} 中才编码的表单请求体
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 与 {@link okhttp3.FormBody} 的编码规则一致，但不预先生成编码后的字符串列表，参数名与参数值逐字符编码后直接写入 sink；
+ * 长度在首次调用 {@link #contentLength()} 时计数得出，不分配内存。
+ * @since JDK1.8
+ */
+public class FormRequestBody extends RequestBody {
+    private static final MediaType CONTENT_TYPE = MediaType.parse("application/x-www-form-urlencoded");
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    private final String[] names;
+    private final String[] values;
+    private long contentLength = -1;
+
+    private FormRequestBody(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * 创建时复制参数名与参数值，之后修改 params 不影响请求体，缓存的长度始终与写出的内容一致
+     *
+     * @param params 表单参数，值通过 {@code toString()} 转换，null 写为空字符串
+     * @return FormRequestBody
+     */
+    public static FormRequestBody of(Map<String, ?> params) {
+        Objects.requireNonNull(params, "params");
+        String[] names = new String[params.size()];
+        String[] values = new String[params.size()];
+        int i = 0;
+        for (Map.Entry<String, ?> entry : params.entrySet()) {
+            names[i] = entry.getKey();
+            values[i] = Objects.toString(entry.getValue(), "");
+            i++;
+        }
+        return new FormRequestBody(names, values);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+        if (contentLength < 0) {
+            try {
+                contentLength = write(null);
+            } catch (IOException e) {
+                // 只计数时不会写入 sink，不会抛出
+                throw new IllegalStateException(e);
+            }
+        }
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        write(sink);
+    }
+
+    /**
+     * sink 为空时只计数
+     */
+    private long write(@Nullable BufferedSink sink) throws IOException {
+        long count = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                count += writeByte(sink, '&');
+            }
+            count += encode(sink, names[i]);
+            count += writeByte(sink, '=');
+            count += encode(sink, values[i]);
+        }
+        return count;
+    }
+
+    private static long encode(@Nullable BufferedSink sink, String value) throws IOException {
+        long count = 0;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (unreserved(codePoint)) {
+                count += writeByte(sink, codePoint);
+            } else if (codePoint < 0x80) {
+                count += percent(sink, codePoint);
+            } else if (codePoint < 0x800) {
+                count += percent(sink, 0xc0 | codePoint >> 6);
+                count += percent(sink, 0x80 | codePoint & 0x3f);
+            } else if (codePoint < 0x10000) {
+                count += percent(sink, 0xe0 | codePoint >> 12);
+                count += percent(sink, 0x80 | codePoint >> 6 & 0x3f);
+                count += percent(sink, 0x80 | codePoint & 0x3f);
+            } else {
+                count += percent(sink, 0xf0 | codePoint >> 18);
+                count += percent(sink, 0x80 | codePoint >> 12 & 0x3f);
+                count += percent(sink, 0x80 | codePoint >> 6 & 0x3f);
+                count += percent(sink, 0x80 | codePoint & 0x3f);
+            }
+        }
+        return count;
+    }
+
+    private static boolean unreserved(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '*';
+    }
+
+    private static int percent(@Nullable BufferedSink sink, int b) throws IOException {
+        if (Objects.nonNull(sink)) {
+            sink.writeByte('%').writeByte(HEX[b >> 4 & 0xf]).writeByte(HEX[b & 0xf]);
+        }
+        return 3;
+    }
+
+    private static int writeByte(@Nullable BufferedSink sink, int b) throws IOException {
+        if (Objects.nonNull(sink)) {
+            sink.writeByte(b);
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：HTTP 协议模式
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote HTTP_2 通过 TLS ALPN 协商，服务端不支持时回退到 HTTP/1.1；H2C 使用明文 HTTP/2（prior knowledge），
+ * 只能用于 http:// 地址，服务端必须支持 h2c，否则请求失败。
+ * @since JDK1.8
+ */
+public enum HttpVersion {
+    /**
+     * 只使用 HTTP/1.1，每个并发请求占用一个连接
+     */
+    HTTP_1_1(Protocol.HTTP_1_1),
+    /**
+     * TLS 下通过 ALPN 协商 HTTP/2，同一主机的请求复用一个连接
+     */
+    HTTP_2(Protocol.HTTP_2, Protocol.HTTP_1_1),
+    /**
+     * 明文 HTTP/2，不经过 Upgrade 协商直接发送 HTTP/2 连接前言
+     */
+    H2C(Protocol.H2_PRIOR_KNOWLEDGE);
+
+    private final List<Protocol> protocols;
+
+    HttpVersion(Protocol... protocols) {
+        this.protocols = Collections.unmodifiableList(Arrays.asList(protocols));
+    }
+
+    public List<Protocol> protocols() {
+        return protocols;
+    }
+
+    /**
+     * @return 是否在一个连接上多路复用多个请求
+     */
+    public boolean isMultiplexed() {
+        return this != HTTP_1_1;
+    }
+}
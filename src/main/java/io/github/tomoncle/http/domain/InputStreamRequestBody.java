@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：从输入流读取的请求体
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 长度未知时以 chunked 方式发送。数据直接读入 Okio Segment 后写出，不缓冲完整内容；
+ * 输入流只能读取一次（{@link #isOneShot()}），写出后关闭。
+ * @since JDK1.8
+ */
+public class InputStreamRequestBody extends RequestBody {
+    private final InputStream inputStream;
+    private final MediaType contentType;
+    private final long contentLength;
+
+    public InputStreamRequestBody(InputStream inputStream, @Nullable MediaType contentType) {
+        this(inputStream, contentType, -1);
+    }
+
+    /**
+     * @param contentLength 已知的长度，小于 0 表示未知；输入流不足该长度时写出失败
+     */
+    public InputStreamRequestBody(InputStream inputStream, @Nullable MediaType contentType, long contentLength) {
+        this.inputStream = Objects.requireNonNull(inputStream, "inputStream");
+        this.contentType = contentType;
+        this.contentLength = contentLength < 0 ? -1 : contentLength;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(inputStream)) {
+            if (contentLength < 0) {
+                sink.writeAll(source);
+            } else {
+                sink.write(source, contentLength);
+            }
+        }
+    }
+}
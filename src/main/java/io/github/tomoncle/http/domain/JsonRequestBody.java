@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：在 {@link #writeTo(BufferedSink)} 中才序列化的 JSON 请求体
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 对象直接序列化到 Okio 的 {@link BufferedSink}，不生成中间 String 和字节数组；
+ * NDJSON 与 JSON 数组模式逐条序列化，内存占用与记录数无关。长度未知，按 chunked 方式发送。
+ * 基于 {@link Iterator} 创建的请求体只能写出一次（{@link #isOneShot()}），基于 {@link Iterable} 创建的可以重复写出。
+ * @since JDK1.8
+ */
+public class JsonRequestBody extends RequestBody {
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    public static final MediaType NDJSON = MediaType.parse("application/x-ndjson; charset=utf-8");
+
+    private final Mode mode;
+    private final Object value;
+    private final Iterable<?> records;
+    private final Iterator<?> iterator;
+    private final AtomicBoolean consumed = new AtomicBoolean();
+
+    private JsonRequestBody(Mode mode, Object value, Iterable<?> records, Iterator<?> iterator) {
+        this.mode = mode;
+        this.value = value;
+        this.records = records;
+        this.iterator = iterator;
+    }
+
+    /**
+     * @param value POJO、Map 等任意可被 fastjson 序列化的对象
+     * @return JsonRequestBody
+     */
+    public static JsonRequestBody of(Object value) {
+        return new JsonRequestBody(Mode.VALUE, value, null, null);
+    }
+
+    /**
+     * 每条记录一行（换行分隔的 JSON）
+     *
+     * @param records 记录
+     * @return JsonRequestBody
+     */
+    public static JsonRequestBody ndjson(Iterable<?> records) {
+        return new JsonRequestBody(Mode.NDJSON, null, Objects.requireNonNull(records, "records"), null);
+    }
+
+    public static JsonRequestBody ndjson(Iterator<?> records) {
+        return new JsonRequestBody(Mode.NDJSON, null, null, Objects.requireNonNull(records, "records"));
+    }
+
+    /**
+     * 所有记录写成一个 JSON 数组
+     *
+     * @param records 记录
+     * @return JsonRequestBody
+     */
+    public static JsonRequestBody array(Iterable<?> records) {
+        return new JsonRequestBody(Mode.ARRAY, null, Objects.requireNonNull(records, "records"), null);
+    }
+
+    public static JsonRequestBody array(Iterator<?> records) {
+        return new JsonRequestBody(Mode.ARRAY, null, null, Objects.requireNonNull(records, "records"));
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mode == Mode.NDJSON ? NDJSON : JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return Objects.nonNull(iterator);
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        // 不关闭 sink 的 OutputStream，OutputStream 的写入会及时把完整的 Segment 推给下游
+        OutputStream out = sink.outputStream();
+        if (mode == Mode.VALUE) {
+            write(out, value);
+            return;
+        }
+        Iterator<?> it = Objects.nonNull(iterator) ? iterator : records.iterator();
+        if (Objects.nonNull(iterator) && !consumed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Iterator 请求体只能写出一次");
+        }
+        boolean first = true;
+        if (mode == Mode.ARRAY) {
+            sink.writeByte('[');
+        }
+        while (it.hasNext()) {
+            if (!first && mode == Mode.ARRAY) {
+                sink.writeByte(',');
+            }
+            write(out, it.next());
+            if (mode == Mode.NDJSON) {
+                sink.writeByte('\n');
+            }
+            first = false;
+        }
+        if (mode == Mode.ARRAY) {
+            sink.writeByte(']');
+        }
+    }
+
+    /**
+     * 每条记录使用新的 SerializeWriter 与 JSONSerializer，避免循环引用检测的状态在记录之间累积；
+     * SerializeWriter 的字符缓冲区取自 fastjson 的线程本地缓存，close 时归还，逐条创建不会重复分配
+     */
+    private static void write(OutputStream out, Object record) throws IOException {
+        try (SerializeWriter writer = new SerializeWriter()) {
+            new JSONSerializer(writer).write(record);
+            writer.writeToEx(out, StandardCharsets.UTF_8);
+        }
+    }
+
+    private enum Mode {
+        VALUE, NDJSON, ARRAY
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.ProgressListener;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：按 {@link ProgressThrottle} 决定是否把进度交给 {@link ProgressListener}
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 非线程安全，每次传输使用一个实例；更新时不分配对象。
+ * @since JDK1.8
+ */
+final class ProgressGate {
+    private final ProgressListener listener;
+    private final ProgressThrottle throttle;
+    private final long contentLength;
+    private final String logPrompt;
+    private long lastBytes;
+    private long lastNanos = System.nanoTime();
+    private boolean done;
+
+    ProgressGate(ProgressListener listener, ProgressThrottle throttle, long contentLength, String logPrompt) {
+        this.listener = listener;
+        this.throttle = throttle;
+        this.contentLength = contentLength;
+        this.logPrompt = logPrompt;
+    }
+
+    void update(long transferred) {
+        if (transferred == contentLength) {
+            complete(transferred);
+            return;
+        }
+        if (transferred - lastBytes < throttle.getMinBytes()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastNanos < throttle.getMinIntervalNanos()) {
+            return;
+        }
+        lastBytes = transferred;
+        lastNanos = now;
+        listener.onProgressUpdate(transferred, contentLength, false, logPrompt);
+    }
+
+    /**
+     * 传输结束时调用，只触发一次完成事件
+     */
+    void complete(long transferred) {
+        if (done) {
+            return;
+        }
+        done = true;
+        lastBytes = transferred;
+        listener.onProgressUpdate(transferred, contentLength, true, logPrompt);
+    }
+}
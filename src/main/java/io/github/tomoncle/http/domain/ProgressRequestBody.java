@@ -23,12 +23,13 @@ import okio.Buffer;
 import okio.BufferedSink;
 import okio.ForwardingSink;
 import okio.Okio;
+import okio.Sink;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.text.DecimalFormat;
+import java.util.Objects;
 
 /**
  * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
@@ -37,7 +38,7 @@ import java.text.DecimalFormat;
  *
  * @author tomoncle
  * @version 1.0.0
- * @apiNote 使用说明。
+ * @apiNote 进度事件按 {@link ProgressThrottle} 节流，写入的字节同时计入 {@link TransferRate#upload()}。
  * @since JDK1.8
  */
 public class ProgressRequestBody extends RequestBody {
@@ -45,41 +46,21 @@ public class ProgressRequestBody extends RequestBody {
     private final RequestBody requestBody;
     private final ProgressListener listener;
     private final String logPrompt;
+    private final ProgressThrottle throttle;
 
     public ProgressRequestBody(RequestBody requestBody, ProgressListener listener, String logPrompt) {
+        this(requestBody, listener, logPrompt, ProgressThrottle.DEFAULT);
+    }
+
+    public ProgressRequestBody(RequestBody requestBody, ProgressListener listener, String logPrompt, ProgressThrottle throttle) {
         this.requestBody = requestBody;
         this.listener = listener;
         this.logPrompt = getDefaultValue(logPrompt);
+        this.throttle = Objects.requireNonNull(throttle, "throttle");
     }
 
     public ProgressRequestBody(RequestBody requestBody, String logPrompt) {
-        this.requestBody = requestBody;
-        this.logPrompt = getDefaultValue(logPrompt);
-        this.listener = new ProgressListener() {
-            private long lastUpdateTime = System.currentTimeMillis();
-            private long lastBytesWritten = 0L;
-
-            @Override
-            public void onProgressUpdate(long bytesWritten, long contentLength, boolean done, String logPrompt) {
-                float percentage = Float.parseFloat(String.valueOf(bytesWritten)) / contentLength;
-                DecimalFormat df = new DecimalFormat("0.00%");
-                String progress = df.format(percentage);
-                long currentTime = System.currentTimeMillis();
-                long timeElapsed = currentTime - lastUpdateTime;
-                if (timeElapsed > 1000 || done) {
-                    long bytesUploaded = bytesWritten - lastBytesWritten;
-                    DecimalFormat dfs = new DecimalFormat("0.00 MB/s");
-                    float speedPerSec = (float) (bytesUploaded / 1024.0 / 1024.0 / (timeElapsed / 1000.0));
-                    String speed = dfs.format(speedPerSec);
-                    lastBytesWritten = bytesWritten;
-                    lastUpdateTime = currentTime;
-                    logger.debug("{}上传进度: {}, 当前速度: {}", logPrompt, progress, speed);
-                }
-                if (done) {
-                    logger.debug("{}上传完成!", logPrompt);
-                }
-            }
-        };
+        this(requestBody, new LoggingProgressListener("上传", TransferRate.upload()), logPrompt);
     }
 
     @Override
@@ -100,20 +81,75 @@ public class ProgressRequestBody extends RequestBody {
         }
     }
 
+    @Override
+    public boolean isOneShot() {
+        return requestBody.isOneShot();
+    }
+
     @Override
     public void writeTo(@NotNull BufferedSink sink) throws IOException {
-        BufferedSink bufferedSink = Okio.buffer(new ForwardingSink(sink) {
-            long bytesWritten = 0L;
-
-            @Override
-            public void write(@NotNull Buffer source, long byteCount) throws IOException {
-                super.write(source, byteCount);
-                bytesWritten += byteCount;
-                listener.onProgressUpdate(bytesWritten, contentLength(), bytesWritten == contentLength(), logPrompt);
-            }
-        });
+        // 长度只取一次，部分请求体计算长度需要遍历全部内容
+        ProgressGate gate = new ProgressGate(listener, throttle, contentLength(), logPrompt);
+        TransferRate rate = TransferRate.upload();
+        CountingSink counting = new CountingSink(sink, gate, rate);
+        BufferedSink bufferedSink = Okio.buffer(counting);
         requestBody.writeTo(bufferedSink);
         bufferedSink.flush();
+        gate.complete(counting.bytesWritten);
     }
-}
 
+    private static final class CountingSink extends ForwardingSink {
+        private final ProgressGate gate;
+        private final TransferRate rate;
+        private long bytesWritten;
+
+        CountingSink(Sink delegate, ProgressGate gate, TransferRate rate) {
+            super(delegate);
+            this.gate = gate;
+            this.rate = rate;
+        }
+
+        @Override
+        public void write(@NotNull Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            bytesWritten += byteCount;
+            rate.record(byteCount);
+            gate.update(bytesWritten);
+        }
+    }
+
+    /**
+     * 默认的进度监听，DEBUG 关闭时直接返回，开启时每秒最多输出一次日志
+     */
+    static class LoggingProgressListener implements ProgressListener {
+        private final String action;
+        private final TransferRate rate;
+        private long lastUpdateTime = System.currentTimeMillis();
+        private long lastBytesWritten = 0L;
+
+        LoggingProgressListener(String action, TransferRate rate) {
+            this.action = action;
+            this.rate = rate;
+        }
+
+        @Override
+        public void onProgressUpdate(long bytesWritten, long contentLength, boolean done, String logPrompt) {
+            if (!logger.isDebugEnabled()) {
+                return;
+            }
+            long currentTime = System.currentTimeMillis();
+            long timeElapsed = currentTime - lastUpdateTime;
+            if (timeElapsed > 1000 || done) {
+                double speed = (bytesWritten - lastBytesWritten) / 1024.0 / 1024.0 / (Math.max(1, timeElapsed) / 1000.0);
+                String progress = contentLength > 0 ? String.format("%.2f%%", bytesWritten * 100.0 / contentLength) : bytesWritten + " bytes";
+                lastBytesWritten = bytesWritten;
+                lastUpdateTime = currentTime;
+                logger.debug("{}{}进度: {}, 当前速度: {}, 总速度: {}", logPrompt, action, progress,
+                        String.format("%.2f MB/s", speed), String.format("%.2f MB/s", rate.bytesPerSecond() / 1024.0 / 1024.0));
+            }
+            if (done) {
+                logger.debug("{}{}完成!", logPrompt, action);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.ProgressListener;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：下载实体，读取响应体时报告进度
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 与 {@link ProgressRequestBody} 对应，进度事件按 {@link ProgressThrottle} 节流，读取的字节同时计入 {@link TransferRate#download()}。
+ * 读到流末尾时触发完成事件。
+ * @since JDK1.8
+ */
+public class ProgressResponseBody extends ResponseBody {
+    private final ResponseBody responseBody;
+    private final ProgressListener listener;
+    private final String logPrompt;
+    private final ProgressThrottle throttle;
+    private BufferedSource source;
+
+    public ProgressResponseBody(ResponseBody responseBody, @Nullable ProgressListener listener, String logPrompt, ProgressThrottle throttle) {
+        this.responseBody = Objects.requireNonNull(responseBody, "responseBody");
+        this.listener = Objects.isNull(listener) ? new ProgressRequestBody.LoggingProgressListener("下载", TransferRate.download()) : listener;
+        this.logPrompt = Objects.isNull(logPrompt) ? "" : logPrompt;
+        this.throttle = Objects.requireNonNull(throttle, "throttle");
+    }
+
+    public ProgressResponseBody(ResponseBody responseBody, @Nullable ProgressListener listener, String logPrompt) {
+        this(responseBody, listener, logPrompt, ProgressThrottle.DEFAULT);
+    }
+
+    /**
+     * 替换响应的响应体，响应体为空时原样返回
+     *
+     * @param response  响应
+     * @param listener  进度监听，为空时输出 DEBUG 日志
+     * @param logPrompt 日志前缀
+     * @param throttle  节流参数
+     * @return Response
+     */
+    public static Response wrap(Response response, @Nullable ProgressListener listener, String logPrompt, ProgressThrottle throttle) {
+        ResponseBody body = response.body();
+        if (Objects.isNull(body)) {
+            return response;
+        }
+        return response.newBuilder().body(new ProgressResponseBody(body, listener, logPrompt, throttle)).build();
+    }
+
+    @Override
+    public MediaType contentType() {
+        return responseBody.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return responseBody.contentLength();
+    }
+
+    @NotNull
+    @Override
+    public BufferedSource source() {
+        if (Objects.isNull(source)) {
+            ProgressGate gate = new ProgressGate(listener, throttle, contentLength(), logPrompt);
+            source = Okio.buffer(new CountingSource(responseBody.source(), gate, TransferRate.download()));
+        }
+        return source;
+    }
+
+    @Override
+    public void close() {
+        responseBody.close();
+    }
+
+    private static final class CountingSource extends ForwardingSource {
+        private final ProgressGate gate;
+        private final TransferRate rate;
+        private long bytesRead;
+
+        CountingSource(Source delegate, ProgressGate gate, TransferRate rate) {
+            super(delegate);
+            this.gate = gate;
+            this.rate = rate;
+        }
+
+        @Override
+        public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                gate.complete(bytesRead);
+                return -1;
+            }
+            bytesRead += read;
+            rate.record(read);
+            gate.update(bytesRead);
+            return read;
+        }
+    }
+}
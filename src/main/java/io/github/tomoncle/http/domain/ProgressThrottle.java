@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：进度事件的节流参数
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 距上次事件同时超过 {@code minBytes} 字节与 {@code minInterval} 时长才触发下一次事件，传输完成时始终触发。
+ * 字节数先于时间判断，未达到字节阈值时不读取时钟。
+ * @since JDK1.8
+ */
+public final class ProgressThrottle {
+    /**
+     * 默认每 64KB 且每 100 毫秒最多一次
+     */
+    public static final ProgressThrottle DEFAULT = of(100, TimeUnit.MILLISECONDS, 64 * 1024L);
+    /**
+     * 不节流，每次写入/读取都触发
+     */
+    public static final ProgressThrottle NONE = of(0, TimeUnit.MILLISECONDS, 0);
+
+    private final long minIntervalNanos;
+    private final long minBytes;
+
+    private ProgressThrottle(long minIntervalNanos, long minBytes) {
+        this.minIntervalNanos = minIntervalNanos;
+        this.minBytes = minBytes;
+    }
+
+    public static ProgressThrottle of(long minInterval, TimeUnit unit, long minBytes) {
+        return new ProgressThrottle(unit.toNanos(Math.max(0, minInterval)), Math.max(0, minBytes));
+    }
+
+    public long getMinIntervalNanos() {
+        return minIntervalNanos;
+    }
+
+    public long getMinBytes() {
+        return minBytes;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import io.github.tomoncle.http.Flow;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：由 {@link Flow.Publisher} 提供内容的请求体，以 chunked 方式发送
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 最多缓存 prefetch 个尚未写出的 ByteBuffer，每写出一个再向发布者请求一个，socket 写不动时发布者随之停下。
+ * 多数发布者只能被订阅一次，因此请求体按一次性处理（{@link #isOneShot()}），重试拦截器不会重放它。
+ * 发布者停滞超过 sink 的写超时（OkHttp 的 writeTimeout）时写出失败；通过本项目的 POST/PUT/PATCH/DELETE 发送时自动
+ * {@link #bind(Call)}，调用被取消或超过调用超时后立即停止等待，直接使用 OkHttp 时需要自行绑定。
+ * @since JDK1.8
+ */
+public class PublisherRequestBody extends RequestBody {
+    public static final int DEFAULT_PREFETCH = 4;
+    private static final Object COMPLETE = new Object();
+    private static final long POLL_MILLIS = 100;
+
+    private final Flow.Publisher<ByteBuffer> publisher;
+    private final MediaType contentType;
+    private final int prefetch;
+    private volatile Call call;
+
+    public PublisherRequestBody(Flow.Publisher<ByteBuffer> publisher, @Nullable MediaType contentType) {
+        this(publisher, contentType, DEFAULT_PREFETCH);
+    }
+
+    public PublisherRequestBody(Flow.Publisher<ByteBuffer> publisher, @Nullable MediaType contentType, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be > 0");
+        }
+        this.publisher = Objects.requireNonNull(publisher, "publisher");
+        this.contentType = contentType;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * 绑定发送该请求体的调用，等待发布者数据时检查调用是否已取消（OkHttp 在调用超时到期时取消调用）
+     *
+     * @param call 发送该请求体的调用
+     * @return PublisherRequestBody
+     */
+    public PublisherRequestBody bind(Call call) {
+        this.call = Objects.requireNonNull(call, "call");
+        return this;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        BodySubscriber subscriber = new BodySubscriber(prefetch);
+        publisher.subscribe(subscriber);
+        try {
+            Object signal;
+            while ((signal = subscriber.take(sink, call)) != COMPLETE) {
+                if (signal instanceof Throwable) {
+                    Throwable e = (Throwable) signal;
+                    throw e instanceof IOException ? (IOException) e : new IOException("请求体发布者出错", e);
+                }
+                ByteBuffer chunk = (ByteBuffer) signal;
+                while (chunk.hasRemaining()) {
+                    sink.write(chunk);
+                }
+                if (subscriber.queue.isEmpty()) {
+                    // 发布者暂时没有数据，把已经写入的内容发出去
+                    sink.flush();
+                }
+                subscriber.request(1);
+            }
+        } catch (IOException | RuntimeException e) {
+            subscriber.cancel();
+            throw e;
+        }
+    }
+
+    private static final class BodySubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final int prefetch;
+        // 终止信号不占用需求，多留一个位置
+        private final BlockingQueue<Object> queue;
+        private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        BodySubscriber(int prefetch) {
+            this.prefetch = prefetch;
+            this.queue = new ArrayBlockingQueue<>(prefetch + 1);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            if (cancelled || !subscription.compareAndSet(null, s)) {
+                s.cancel();
+                return;
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            if (!queue.offer(Objects.requireNonNull(item, "item"))) {
+                cancel();
+                queue.clear();
+                queue.offer(new IllegalStateException("发布者发送的数据超过了请求数量"));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            queue.offer(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            queue.offer(COMPLETE);
+        }
+
+        /**
+         * 等待下一个信号。OkHttp 的写超时与调用超时都不是 Okio 截止时间，throwIfReached 检查不到，
+         * 停滞时长按 sink 的 timeoutNanos 限制，取消通过绑定的调用检查
+         */
+        Object take(BufferedSink sink, @Nullable Call call) throws IOException {
+            long timeoutNanos = sink.timeout().timeoutNanos();
+            long start = System.nanoTime();
+            try {
+                Object signal;
+                while (null == (signal = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS))) {
+                    // 响应调用方设置的截止时间与线程中断
+                    sink.timeout().throwIfReached();
+                    if (null != call && call.isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+                    if (timeoutNanos > 0 && System.nanoTime() - start >= timeoutNanos) {
+                        throw new InterruptedIOException("timeout");
+                    }
+                }
+                return signal;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待请求体数据时被中断");
+            }
+        }
+
+        void request(long n) {
+            Flow.Subscription s = subscription.get();
+            if (null != s) {
+                s.request(n);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription s = subscription.get();
+            if (null != s) {
+                s.cancel();
+            }
+        }
+    }
+}
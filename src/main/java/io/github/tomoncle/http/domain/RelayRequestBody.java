@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：以另一个请求的响应体作为请求体，边读边写
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote Content-Type 与 Content-Length 取自响应体。数据以 Okio Segment 为单位从响应的 source 移交给请求的 sink，
+ * 不复制字节，内存占用只有少数几个 Segment，与响应体大小无关。响应体只能读取一次（{@link #isOneShot()}），写出后关闭。
+ * @since JDK1.8
+ */
+public class RelayRequestBody extends RequestBody {
+    private final ResponseBody body;
+    private final MediaType contentType;
+
+    public RelayRequestBody(ResponseBody body) {
+        this(body, null);
+    }
+
+    /**
+     * @param body        上游响应体
+     * @param contentType 为空时使用响应体的 Content-Type
+     */
+    public RelayRequestBody(ResponseBody body, @Nullable MediaType contentType) {
+        this.body = Objects.requireNonNull(body, "body");
+        this.contentType = null == contentType ? body.contentType() : contentType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return body.contentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        try (BufferedSource source = body.source()) {
+            sink.writeAll(source);
+        }
+    }
+}
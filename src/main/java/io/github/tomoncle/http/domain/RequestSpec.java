@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.Headers;
+import okhttp3.RequestBody;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：批量请求中的单个请求描述
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class RequestSpec {
+    private final String method;
+    private final String url;
+    private final Headers headers;
+    private final RequestBody requestBody;
+    private final Object tag;
+
+    private RequestSpec(Builder builder) {
+        this.method = builder.method;
+        this.url = builder.url;
+        this.headers = builder.headers;
+        this.requestBody = builder.requestBody;
+        this.tag = builder.tag;
+    }
+
+    public static Builder builder(String method, String url) {
+        return new Builder(method, url);
+    }
+
+    public static RequestSpec get(String url) {
+        return builder("GET", url).build();
+    }
+
+    public static RequestSpec post(String url, SimpleRequestBody simpleRequestBody) {
+        return builder("POST", url).body(simpleRequestBody).build();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public @Nullable Headers getHeaders() {
+        return headers;
+    }
+
+    public @Nullable RequestBody getRequestBody() {
+        return requestBody;
+    }
+
+    /**
+     * 调用方自定义的标识，原样返回到结果中
+     *
+     * @return tag
+     */
+    public @Nullable Object getTag() {
+        return tag;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+
+    public static class Builder {
+        private final String method;
+        private final String url;
+        private Headers headers;
+        private RequestBody requestBody;
+        private Object tag;
+
+        Builder(String method, String url) {
+            this.method = Objects.requireNonNull(method, "method").toUpperCase(Locale.ROOT);
+            this.url = Objects.requireNonNull(url, "url");
+        }
+
+        public Builder headers(Headers headers) {
+            this.headers = headers;
+            return this;
+        }
+
+        public Builder body(RequestBody requestBody) {
+            this.requestBody = requestBody;
+            return this;
+        }
+
+        public Builder body(SimpleRequestBody simpleRequestBody) {
+            this.requestBody = simpleRequestBody.toRequestBody();
+            return this;
+        }
+
+        public Builder tag(Object tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        public RequestSpec build() {
+            return new RequestSpec(this);
+        }
+    }
+}
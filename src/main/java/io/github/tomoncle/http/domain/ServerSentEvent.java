@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：text/event-stream 中的一个事件
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 多行 data 以换行符连接；json 方法在调用时才解析 data，不需要的事件不产生解析开销。
+ * @since JDK1.8
+ */
+public class ServerSentEvent {
+    public static final String DEFAULT_EVENT = "message";
+
+    private final String id;
+    private final String event;
+    private final String data;
+
+    public ServerSentEvent(@Nullable String id, @Nullable String event, String data) {
+        this.id = id;
+        this.event = null == event ? DEFAULT_EVENT : event;
+        this.data = data;
+    }
+
+    /**
+     * @return 最近一次收到的事件 ID，断线重连时作为 Last-Event-ID 发送
+     */
+    public @Nullable String getId() {
+        return id;
+    }
+
+    /**
+     * @return 事件类型，未声明时为 {@link #DEFAULT_EVENT}
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public <T> T json(Class<T> clazz) {
+        return json((Type) clazz);
+    }
+
+    public <T> T json(TypeReference<T> type) {
+        return json(type.getType());
+    }
+
+    public <T> T json(Type type) {
+        return JSON.parseObject(data, type);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent{id=" + id + ", event=" + event + ", data=" + data + "}";
+    }
+}
@@ -17,8 +17,6 @@
 package io.github.tomoncle.http.domain;
 
 import com.alibaba.fastjson.JSONObject;
-import okhttp3.FormBody;
-import okhttp3.MediaType;
 import okhttp3.RequestBody;
 
 import java.util.Map;
@@ -59,12 +57,8 @@ public class SimpleRequestBody {
         return dataType;
     }
 
-    private FormBody formBody(Map<String, Object> map) {
-        FormBody.Builder builder = new FormBody.Builder();
-        for (String name : map.keySet()) {
-            builder.add(name, map.get(name).toString());
-        }
-        return builder.build();
+    private RequestBody formBody(Map<String, Object> map) {
+        return FormRequestBody.of(map);
     }
 
     private RequestBody buildRequestBody(SimpleRequestBody simpleRequestBody) {
@@ -75,7 +69,7 @@ public class SimpleRequestBody {
             case FORM:
                 return formBody(simpleRequestBody.getValue());
             case BODY:
-                return RequestBody.create(simpleRequestBody.getValue().toJSONString(), MediaType.parse("application/json; charset=utf-8"));
+                return JsonRequestBody.of(simpleRequestBody.getValue());
             default:
                 return null;
         }
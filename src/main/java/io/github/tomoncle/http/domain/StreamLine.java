@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：按行分隔的流（NDJSON、JSON Lines 等）中的一行
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 保存该行的 UTF-8 字节，不含行结束符；json 方法直接从字节解析，不经过中间 String，只在调用时解析。
+ * @since JDK1.8
+ */
+public class StreamLine {
+    private final byte[] bytes;
+
+    public StreamLine(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return 该行的字节，不要修改
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    public String text() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public <T> T json(Class<T> clazz) {
+        return json((Type) clazz);
+    }
+
+    public <T> T json(TypeReference<T> type) {
+        return json(type.getType());
+    }
+
+    public <T> T json(Type type) {
+        return JSON.parseObject(bytes, type);
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：多个并发传输的合计速率
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote {@link ProgressRequestBody} 与 {@link ProgressResponseBody} 分别计入 {@link #upload()} 与 {@link #download()}。
+ * 记录只是一次 {@link LongAdder} 累加；速率在读取时按采样间隔计算，间隔不足 {@link #SAMPLE_NANOS} 时返回上一次的结果。
+ * @since JDK1.8
+ */
+public final class TransferRate {
+    static final long SAMPLE_NANOS = 1_000_000_000L;
+    private static final TransferRate UPLOAD = new TransferRate();
+    private static final TransferRate DOWNLOAD = new TransferRate();
+
+    private final LongAdder total = new LongAdder();
+    private long sampleNanos = System.nanoTime();
+    private long sampleTotal;
+    private volatile long bytesPerSecond;
+
+    public static TransferRate upload() {
+        return UPLOAD;
+    }
+
+    public static TransferRate download() {
+        return DOWNLOAD;
+    }
+
+    public void record(long bytes) {
+        total.add(bytes);
+    }
+
+    /**
+     * @return 累计传输的字节数
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * @return 最近一个采样间隔内的合计速率（字节/秒）
+     */
+    public long bytesPerSecond() {
+        long now = System.nanoTime();
+        synchronized (this) {
+            long elapsed = now - sampleNanos;
+            if (elapsed >= SAMPLE_NANOS) {
+                long current = total.sum();
+                bytesPerSecond = (current - sampleTotal) * 1_000_000_000L / elapsed;
+                sampleTotal = current;
+                sampleNanos = now;
+            }
+        }
+        return bytesPerSecond;
+    }
+}
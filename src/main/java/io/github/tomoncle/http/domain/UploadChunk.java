@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：分片上传中的单个分片
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class UploadChunk {
+    private final String uploadId;
+    private final String filename;
+    private final int index;
+    private final int chunkCount;
+    private final long offset;
+    private final long length;
+    private final long fileSize;
+
+    public UploadChunk(String uploadId, String filename, int index, int chunkCount, long offset, long length, long fileSize) {
+        this.uploadId = uploadId;
+        this.filename = filename;
+        this.index = index;
+        this.chunkCount = chunkCount;
+        this.offset = offset;
+        this.length = length;
+        this.fileSize = fileSize;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return 分片序号，从 0 开始
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadChunk{" + uploadId + ", " + (index + 1) + "/" + chunkCount + ", offset=" + offset + ", length=" + length + "}";
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：multipart/form-data 上传中的一个部分
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 每个部分有自己的 Content-Type；文件、输入流、ByteBuffer 与文件区间都在发送时才读取，不会先复制到磁盘或堆中。
+ * 任一部分长度未知时整个请求以 chunked 方式发送。
+ * @since JDK1.8
+ */
+public class UploadPart {
+    private final String name;
+    private final String filename;
+    private final RequestBody body;
+
+    private UploadPart(String name, @Nullable String filename, RequestBody body) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.filename = filename;
+        this.body = Objects.requireNonNull(body, "body");
+    }
+
+    public static UploadPart of(String name, @Nullable String filename, RequestBody body) {
+        return new UploadPart(name, filename, body);
+    }
+
+    /**
+     * 普通表单字段
+     */
+    public static UploadPart field(String name, String value) {
+        return new UploadPart(name, null, RequestBody.create(value, null));
+    }
+
+    public static UploadPart file(String name, Path path, @Nullable MediaType contentType) {
+        return new UploadPart(name, path.getFileName().toString(), RequestBody.create(path.toFile(), contentType));
+    }
+
+    /**
+     * 长度未知的输入流，发送后关闭
+     */
+    public static UploadPart stream(String name, String filename, InputStream inputStream, @Nullable MediaType contentType) {
+        return new UploadPart(name, filename, new InputStreamRequestBody(inputStream, contentType));
+    }
+
+    public static UploadPart bytes(String name, String filename, ByteBuffer buffer, @Nullable MediaType contentType) {
+        return new UploadPart(name, filename, new ByteBufferRequestBody(buffer, contentType));
+    }
+
+    /**
+     * 文件中的区间，发送时按偏移量读取
+     */
+    public static UploadPart region(String name, String filename, Path path, long position, long count, @Nullable MediaType contentType) {
+        return new UploadPart(name, filename, new FileRegionRequestBody(path, position, count, contentType));
+    }
+
+    /**
+     * 以内存映射方式发送文件中的区间
+     */
+    public static UploadPart mapped(String name, String filename, Path path, long position, long count, @Nullable MediaType contentType) throws IOException {
+        return new UploadPart(name, filename, ByteBufferRequestBody.map(path, position, count, contentType));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 文件名，普通表单字段为 null
+     */
+    public @Nullable String getFilename() {
+        return filename;
+    }
+
+    public RequestBody getBody() {
+        return body;
+    }
+}
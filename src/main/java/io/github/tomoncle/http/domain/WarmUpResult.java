@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.domain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：单个地址的连接预热结果
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 新建连接的 DNS、TCP 与 TLS 耗时之和即提前支付的建连延迟，之后的请求直接复用这些连接。
+ * @since JDK1.8
+ */
+public class WarmUpResult {
+    private final String url;
+    private final int requested;
+    private final int opened;
+    private final int failures;
+    private final long setupNanos;
+
+    public WarmUpResult(String url, int requested, int opened, int failures, long setupNanos) {
+        this.url = url;
+        this.requested = requested;
+        this.opened = opened;
+        this.failures = failures;
+        this.setupNanos = setupNanos;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return 期望保持的空闲连接数
+     */
+    public int getRequested() {
+        return requested;
+    }
+
+    /**
+     * @return 本次新建的连接数，其余请求复用了已有的空闲连接
+     */
+    public int getOpened() {
+        return opened;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return 新建连接的 DNS + TCP + TLS 耗时之和（毫秒），即后续请求省下的冷启动延迟
+     */
+    public long getSetupMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(setupNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpResult{url=" + url + ", requested=" + requested + ", opened=" + opened + ", failures=" + failures
+                + ", setupMillis=" + getSetupMillis() + "}";
+    }
+}
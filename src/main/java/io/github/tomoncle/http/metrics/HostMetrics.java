@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：单个主机的请求指标
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 各阶段耗时单位为微秒；按状态码分类（1xx-5xx）的总耗时直方图在首次出现时创建。
+ * @since JDK1.8
+ */
+class HostMetrics {
+    static final String[] STATUS_CLASSES = {"failed", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    final LatencyHistogram dns = new LatencyHistogram();
+    final LatencyHistogram connect = new LatencyHistogram();
+    final LatencyHistogram tls = new LatencyHistogram();
+    final LatencyHistogram ttfb = new LatencyHistogram();
+    final LatencyHistogram body = new LatencyHistogram();
+    final LatencyHistogram total = new LatencyHistogram();
+    final AtomicReferenceArray<LatencyHistogram> byStatus = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+    final LongAdder bytesIn = new LongAdder();
+    final LongAdder bytesOut = new LongAdder();
+    final LongAdder connections = new LongAdder();
+    final LongAdder multiplexedConnections = new LongAdder();
+    final LongAdder streams = new LongAdder();
+    final AtomicLong activeStreams = new AtomicLong();
+
+    static int statusClass(int code) {
+        int value = code / 100;
+        return value >= 1 && value <= 5 ? value : 0;
+    }
+
+    void recordTotal(int statusClass, long micros) {
+        total.record(micros);
+        LatencyHistogram histogram = byStatus.get(statusClass);
+        if (null == histogram) {
+            byStatus.compareAndSet(statusClass, null, new LatencyHistogram());
+            histogram = byStatus.get(statusClass);
+        }
+        histogram.record(micros);
+    }
+
+    HostSnapshot snapshot(String host) {
+        Map<String, HistogramSnapshot> statuses = new LinkedHashMap<>();
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            LatencyHistogram histogram = byStatus.get(i);
+            if (null != histogram) {
+                statuses.put(STATUS_CLASSES[i], histogram.snapshot());
+            }
+        }
+        return new HostSnapshot(host, dns.snapshot(), connect.snapshot(), tls.snapshot(), ttfb.snapshot(),
+                body.snapshot(), total.snapshot(), statuses, bytesIn.sum(), bytesOut.sum(), connections.sum(),
+                multiplexedConnections.sum(), streams.sum(), activeStreams.get());
+    }
+}
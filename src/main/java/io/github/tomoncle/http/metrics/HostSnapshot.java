@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：单个主机的指标快照
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class HostSnapshot {
+    private final String host;
+    private final HistogramSnapshot dns;
+    private final HistogramSnapshot connect;
+    private final HistogramSnapshot tls;
+    private final HistogramSnapshot ttfb;
+    private final HistogramSnapshot body;
+    private final HistogramSnapshot total;
+    private final Map<String, HistogramSnapshot> byStatus;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long connections;
+    private final long multiplexedConnections;
+    private final long streams;
+    private final long activeStreams;
+
+    public HostSnapshot(String host, HistogramSnapshot dns, HistogramSnapshot connect, HistogramSnapshot tls,
+                        HistogramSnapshot ttfb, HistogramSnapshot body, HistogramSnapshot total,
+                        Map<String, HistogramSnapshot> byStatus, long bytesIn, long bytesOut, long connections,
+                        long multiplexedConnections, long streams, long activeStreams) {
+        this.host = host;
+        this.dns = dns;
+        this.connect = connect;
+        this.tls = tls;
+        this.ttfb = ttfb;
+        this.body = body;
+        this.total = total;
+        this.byStatus = Collections.unmodifiableMap(byStatus);
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.connections = connections;
+        this.multiplexedConnections = multiplexedConnections;
+        this.streams = streams;
+        this.activeStreams = activeStreams;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public HistogramSnapshot getDns() {
+        return dns;
+    }
+
+    public HistogramSnapshot getConnect() {
+        return connect;
+    }
+
+    public HistogramSnapshot getTls() {
+        return tls;
+    }
+
+    /**
+     * @return 请求发送完成到收到响应头的耗时
+     */
+    public HistogramSnapshot getTtfb() {
+        return ttfb;
+    }
+
+    /**
+     * @return 响应体传输耗时
+     */
+    public HistogramSnapshot getBody() {
+        return body;
+    }
+
+    public HistogramSnapshot getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 按状态码分类（failed, 1xx-5xx）的总耗时
+     */
+    public Map<String, HistogramSnapshot> getByStatus() {
+        return byStatus;
+    }
+
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * @return 新建的连接数
+     */
+    public long getConnections() {
+        return connections;
+    }
+
+    /**
+     * @return 新建的 HTTP/2 连接数（ALPN 或 h2c）
+     */
+    public long getMultiplexedConnections() {
+        return multiplexedConnections;
+    }
+
+    /**
+     * @return 在 HTTP/2 连接上发出的请求数，即流的数量
+     */
+    public long getStreams() {
+        return streams;
+    }
+
+    /**
+     * @return 当前正在进行的 HTTP/2 流数量
+     */
+    public long getActiveStreams() {
+        return activeStreams;
+    }
+
+    @Override
+    public String toString() {
+        return host + "{total=" + total + ", dns=" + dns + ", connect=" + connect + ", tls=" + tls + ", ttfb=" + ttfb
+                + ", body=" + body + ", byStatus=" + byStatus + ", bytesIn=" + bytesIn + ", bytesOut=" + bytesOut
+                + ", connections=" + connections + ", multiplexedConnections=" + multiplexedConnections + ", streams=" + streams
+                + ", activeStreams=" + activeStreams + "}";
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：客户端指标快照
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 使用说明。
+ * @since JDK1.8
+ */
+public class MetricsSnapshot {
+    private final long timestamp;
+    private final Map<String, HostSnapshot> hosts;
+    private final long connectionsAcquired;
+    private final long connectionsCreated;
+    private final int connectionCount;
+    private final int idleConnectionCount;
+    private final int queuedCalls;
+    private final int runningCalls;
+
+    public MetricsSnapshot(long timestamp, Map<String, HostSnapshot> hosts, long connectionsAcquired, long connectionsCreated,
+                           int connectionCount, int idleConnectionCount, int queuedCalls, int runningCalls) {
+        this.timestamp = timestamp;
+        this.hosts = Collections.unmodifiableMap(hosts);
+        this.connectionsAcquired = connectionsAcquired;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionCount = connectionCount;
+        this.idleConnectionCount = idleConnectionCount;
+        this.queuedCalls = queuedCalls;
+        this.runningCalls = runningCalls;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, HostSnapshot> getHosts() {
+        return hosts;
+    }
+
+    public long getConnectionsAcquired() {
+        return connectionsAcquired;
+    }
+
+    /**
+     * @return 新建的连接数，即连接池未命中次数
+     */
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    /**
+     * @return 复用连接池中已有连接的次数
+     */
+    public long getConnectionsReused() {
+        return Math.max(0, connectionsAcquired - connectionsCreated);
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public int getIdleConnectionCount() {
+        return idleConnectionCount;
+    }
+
+    /**
+     * @return Dispatcher 中等待执行的异步请求数
+     */
+    public int getQueuedCalls() {
+        return queuedCalls;
+    }
+
+    public int getRunningCalls() {
+        return runningCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{connections=" + connectionCount + " (idle " + idleConnectionCount + "), acquired=" + connectionsAcquired
+                + ", created=" + connectionsCreated + ", queued=" + queuedCalls + ", running=" + runningCalls + ", hosts=" + hosts.values() + "}";
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.metrics;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 项目地址：<a href="https://github.com/tomoncle/http-requests">项目地址</a>
+ * <p>创建时间：2026-10-17
+ * <p>描述信息：基于 {@link EventListener} 的请求指标，按主机统计 DNS、连接、TLS、首字节、响应体传输各阶段耗时
+ *
+ * @author tomoncle
+ * @version 1.0.0
+ * @apiNote 通过 {@link OkHttpClient.Builder#eventListenerFactory(EventListener.Factory)} 注册，
+ * 构建客户端后调用 {@link #bind(OkHttpClient)} 以便快照中包含连接池与 Dispatcher 的状态。
+ * @since JDK1.8
+ */
+public class RequestsMetrics implements EventListener.Factory {
+    private static final Logger logger = LoggerFactory.getLogger(RequestsMetrics.class);
+
+    private final Map<String, HostMetrics> hosts = new ConcurrentHashMap<>();
+    private final LongAdder connectionsAcquired = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final Set<Call> ignored = ConcurrentHashMap.newKeySet();
+    private final Map<Call, Integer> outcomes = new ConcurrentHashMap<>();
+    private final Interceptor interceptor = chain -> {
+        Response response = chain.proceed(chain.request());
+        outcomes.put(chain.call(), response.code());
+        return response;
+    };
+    private volatile OkHttpClient client;
+    private volatile ScheduledExecutorService scheduler;
+
+    public RequestsMetrics bind(OkHttpClient client) {
+        this.client = client;
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public EventListener create(@NotNull Call call) {
+        return new CallMetrics(host(call.request().url().host()));
+    }
+
+    /**
+     * 记录调用方最终拿到的状态码的应用拦截器，需要注册在所有应用拦截器之前（{@link io.github.tomoncle.http.RequestsConfig} 会自动注册）。
+     * 缓存命中、请求合并等没有发起网络请求的调用按该状态码分类，未注册时这些调用计入 failed
+     *
+     * @return Interceptor
+     */
+    public Interceptor interceptor() {
+        return interceptor;
+    }
+
+    /**
+     * 不统计该调用的总耗时与状态码。用于只等待其它调用结果、自身不发起网络请求的调用（如对冲请求的父请求），
+     * 实际的网络请求由子调用各自统计，避免同一次请求计入两次
+     *
+     * @param call 进行中的调用
+     */
+    public void ignore(Call call) {
+        ignored.add(call);
+    }
+
+    private HostMetrics host(String host) {
+        HostMetrics metrics = hosts.get(host);
+        return null != metrics ? metrics : hosts.computeIfAbsent(host, h -> new HostMetrics());
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, HostSnapshot> snapshots = new TreeMap<>();
+        hosts.forEach((host, metrics) -> snapshots.put(host, metrics.snapshot(host)));
+        OkHttpClient current = client;
+        return new MetricsSnapshot(System.currentTimeMillis(), snapshots, connectionsAcquired.sum(), connectionsCreated.sum(),
+                null == current ? 0 : current.connectionPool().connectionCount(),
+                null == current ? 0 : current.connectionPool().idleConnectionCount(),
+                null == current ? 0 : current.dispatcher().queuedCallsCount(),
+                null == current ? 0 : current.dispatcher().runningCallsCount());
+    }
+
+    /**
+     * 定时导出指标快照，重复调用时替换之前的导出任务
+     *
+     * @param exporter exporter
+     * @param period   导出周期
+     * @param unit     时间单位
+     */
+    public synchronized void startExporter(MetricsExporter exporter, long period, TimeUnit unit) {
+        stopExporter();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "requests-metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                exporter.export(snapshot());
+            } catch (RuntimeException e) {
+                logger.error("导出指标失败!", e);
+            }
+        }, period, period, unit);
+    }
+
+    public synchronized void stopExporter() {
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public void reset() {
+        hosts.clear();
+        connectionsAcquired.reset();
+        connectionsCreated.reset();
+    }
+
+    private static boolean isMultiplexed(@Nullable Protocol protocol) {
+        return protocol == Protocol.HTTP_2 || protocol == Protocol.H2_PRIOR_KNOWLEDGE;
+    }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000L;
+    }
+
+    /**
+     * 单次请求的事件监听，同一个请求的事件按顺序回调，不需要同步
+     */
+    private final class CallMetrics extends EventListener {
+        private final HostMetrics metrics;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestEnd;
+        private long responseHeadersEnd;
+        private int statusClass;
+        private boolean multiplexed;
+
+        CallMetrics(HostMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void callStart(@NotNull Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+            metrics.dns.record(micros(dnsStart));
+        }
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+            connectStart = System.nanoTime();
+            connectionsCreated.increment();
+        }
+
+        @Override
+        public void secureConnectStart(@NotNull Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+            metrics.tls.record(micros(secureConnectStart));
+        }
+
+        @Override
+        public void connectEnd(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy, @Nullable Protocol protocol) {
+            metrics.connect.record(micros(connectStart));
+            metrics.connections.increment();
+            if (isMultiplexed(protocol)) {
+                metrics.multiplexedConnections.increment();
+            }
+        }
+
+        @Override
+        public void connectFailed(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy, @Nullable Protocol protocol, @NotNull IOException ioe) {
+            metrics.connect.record(micros(connectStart));
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            connectionsAcquired.increment();
+            multiplexed = isMultiplexed(connection.protocol());
+            if (multiplexed) {
+                metrics.streams.increment();
+                metrics.activeStreams.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+            if (multiplexed) {
+                multiplexed = false;
+                metrics.activeStreams.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void requestHeadersEnd(@NotNull Call call, @NotNull okhttp3.Request request) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(@NotNull Call call, long byteCount) {
+            requestEnd = System.nanoTime();
+            metrics.bytesOut.add(byteCount);
+        }
+
+        @Override
+        public void responseHeadersEnd(@NotNull Call call, @NotNull Response response) {
+            responseHeadersEnd = System.nanoTime();
+            if (requestEnd != 0) {
+                metrics.ttfb.record((responseHeadersEnd - requestEnd) / 1000L);
+            }
+            statusClass = HostMetrics.statusClass(response.code());
+        }
+
+        @Override
+        public void responseBodyEnd(@NotNull Call call, long byteCount) {
+            if (responseHeadersEnd != 0) {
+                metrics.body.record(micros(responseHeadersEnd));
+            }
+            metrics.bytesIn.add(byteCount);
+        }
+
+        @Override
+        public void callEnd(@NotNull Call call) {
+            Integer code = outcomes.remove(call);
+            if (ignored.remove(call)) {
+                return;
+            }
+            metrics.recordTotal(null == code ? statusClass : HostMetrics.statusClass(code), micros(callStart));
+        }
+
+        @Override
+        public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+            outcomes.remove(call);
+            if (ignored.remove(call)) {
+                return;
+            }
+            metrics.recordTotal(0, micros(callStart));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author tomoncle
+ */
+public class TestAsyncRequests {
+
+    @Test
+    public void getAsync() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().text("/hello", "hello")) {
+            Assert.assertEquals("hello", Requests.GET.requestAsync(server.url("/hello")).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void postAsyncWithExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "callback"));
+        try (LocalHttpServer server = new LocalHttpServer().echo("/echo")) {
+            SimpleRequestBody body = SimpleRequestBody.builder(DataType.BODY).setParam("name", "tom").build();
+            String thread = Requests.POST.requestAsync(server.url("/echo"), body, null, executor)
+                    .thenApply(s -> Thread.currentThread().getName() + ":" + s)
+                    .get(10, TimeUnit.SECONDS);
+            Assert.assertEquals("callback:{\"name\":\"tom\"}", thread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void postRequestBodyAsync() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().echo("/echo")) {
+            RequestBody body = RequestBody.create("{\"name\":\"tom\"}", MediaType.get("application/json"));
+            Assert.assertEquals("{\"name\":\"tom\"}", Requests.POST.requestAsync(server.url("/echo"), body).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void cancelPropagatesToCall() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Call> call = new AtomicReference<>();
+        RequestsClient client = Requests.register("async-cancel", RequestsConfig.builder().addInterceptor(chain -> {
+            call.set(chain.call());
+            return chain.proceed(chain.request());
+        }).build());
+        try (LocalHttpServer server = new LocalHttpServer().handle("/slow", exchange -> {
+            received.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        })) {
+            CompletableFuture<Response> future = client.GET.responseAsync(server.url("/slow"));
+            Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+            Assert.assertFalse(call.get().isCanceled());
+            Assert.assertTrue(future.cancel(true));
+            Assert.assertTrue(future.isCancelled());
+            // 取消传递到底层调用
+            Assert.assertTrue(call.get().isCanceled());
+            release.countDown();
+        }
+    }
+}
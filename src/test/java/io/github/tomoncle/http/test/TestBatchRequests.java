@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.BatchRequests;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.BatchResult;
+import io.github.tomoncle.http.domain.RequestSpec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author tomoncle
+ */
+public class TestBatchRequests {
+
+    @Test
+    public void batch() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().text("/ok", "ok")) {
+            List<RequestSpec> specs = IntStream.range(0, 200)
+                    .mapToObj(i -> RequestSpec.get(i % 50 == 0 ? "http://127.0.0.1:1/refused" : server.url("/ok")))
+                    .collect(Collectors.toList());
+            try (BatchRequests batch = Requests.batch(specs, 16)) {
+                List<BatchResult> results = batch.stream().collect(Collectors.toList());
+                Assert.assertEquals(200, results.size());
+                Assert.assertEquals(4, results.stream().filter(r -> r.getError() != null).count());
+                Assert.assertEquals(196, results.stream().filter(r -> "ok".equals(r.getBody())).count());
+                Assert.assertEquals(200, results.stream().mapToLong(BatchResult::getIndex).distinct().count());
+            }
+        }
+    }
+
+    private static LocalHttpServer slowServer(AtomicInteger requests, long millis) throws Exception {
+        return new LocalHttpServer().handle("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void unconsumedResultsHoldPermits() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (LocalHttpServer server = slowServer(requests, 10)) {
+            List<RequestSpec> specs = IntStream.range(0, 50).mapToObj(i -> RequestSpec.get(server.url("/slow"))).collect(Collectors.toList());
+            try (BatchRequests batch = Requests.batch(specs, 4)) {
+                Thread.sleep(500);
+                // 调用方未消费结果时最多执行 concurrency 个请求
+                Assert.assertEquals(4, requests.get());
+                Assert.assertEquals(50, batch.stream().count());
+                Assert.assertEquals(50, requests.get());
+            }
+        }
+    }
+
+    @Test
+    public void closeCancelsInFlightCalls() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (LocalHttpServer server = slowServer(requests, 3000)) {
+            List<RequestSpec> specs = IntStream.range(0, 50).mapToObj(i -> RequestSpec.get(server.url("/slow"))).collect(Collectors.toList());
+            BatchRequests batch = Requests.batch(specs.iterator(), 4, executor);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requests.get() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            batch.close();
+            executor.shutdown();
+            // 在途请求被取消，工作线程不必等到服务端响应
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+            Assert.assertFalse(batch.hasNext());
+            Assert.assertEquals(4, requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
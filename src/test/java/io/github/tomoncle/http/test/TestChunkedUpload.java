@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.OffsetHeaderUploadProtocol;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.ChunkedUploadOptions;
+import io.github.tomoncle.http.domain.ChunkedUploadResult;
+import io.github.tomoncle.http.domain.UploadChunk;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author tomoncle
+ */
+public class TestChunkedUpload {
+    private static final int CHUNK = 256 * 1024;
+
+    private static LocalHttpServer server(byte[] received, AtomicInteger failures, AtomicInteger requests) throws IOException {
+        return new LocalHttpServer().handle("/upload", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = LocalHttpServer.readAll(exchange.getRequestBody());
+            int part = Integer.parseInt(exchange.getRequestHeaders().getFirst("Upload-Part-Number"));
+            if (part == 2 && failures.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            int offset = Integer.parseInt(exchange.getRequestHeaders().getFirst("Upload-Offset"));
+            System.arraycopy(body, 0, received, offset, body.length);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+    }
+
+    @Test
+    public void encodeNonAsciiFilename() throws Exception {
+        // 文件系统编码不一定支持中文路径，直接构造分片请求
+        UploadChunk chunk = new UploadChunk("id-1", "季度报告 2026.bin", 0, 1, 0, 3, 3);
+        Request request = OffsetHeaderUploadProtocol.INSTANCE.chunkRequest("http://localhost/upload", chunk,
+                RequestBody.create(new byte[3]), null);
+        String value = request.header("Upload-Filename");
+        Assert.assertTrue(value.startsWith("UTF-8''"));
+        Assert.assertEquals("季度报告 2026.bin", URLDecoder.decode(value.substring(7), "UTF-8"));
+        chunk = new UploadChunk("id-1", "report.bin", 0, 1, 0, 3, 3);
+        Assert.assertEquals("report.bin", OffsetHeaderUploadProtocol.INSTANCE.chunkRequest("http://localhost/upload", chunk,
+                RequestBody.create(new byte[3]), null).header("Upload-Filename"));
+    }
+
+    private static Path file(byte[] data) throws IOException {
+        new Random(7).nextBytes(data);
+        Path path = Files.createTempFile("requests", ".bin");
+        Files.write(path, data);
+        return path;
+    }
+
+    @Test
+    public void uploadWithRetry() throws Exception {
+        byte[] data = new byte[CHUNK * 5 + 99];
+        byte[] received = new byte[data.length];
+        Path path = file(data);
+        AtomicLong progress = new AtomicLong();
+        try (LocalHttpServer server = server(received, new AtomicInteger(1), new AtomicInteger())) {
+            ChunkedUploadOptions options = ChunkedUploadOptions.builder().chunkSize(CHUNK).parallelism(3).retryBackoffMillis(1)
+                    .listener((bytesWritten, contentLength, done, logPrompt) -> progress.set(bytesWritten)).build();
+            ChunkedUploadResult result = Requests.POST.uploadChunked(server.url("/upload"), path.toString(), options, null);
+            Assert.assertEquals(6, result.getChunkCount());
+            Assert.assertArrayEquals(data, received);
+            Assert.assertEquals(data.length, progress.get());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void resume() throws Exception {
+        byte[] data = new byte[CHUNK * 4];
+        byte[] received = new byte[data.length];
+        Path path = file(data);
+        AtomicInteger requests = new AtomicInteger();
+        try (LocalHttpServer server = server(received, new AtomicInteger(1), requests)) {
+            ChunkedUploadOptions options = ChunkedUploadOptions.builder().chunkSize(CHUNK).parallelism(1).maxRetries(0).build();
+            try {
+                Requests.POST.uploadChunked(server.url("/upload"), path.toString(), options, null);
+                Assert.fail("first attempt should fail");
+            } catch (IOException expected) {
+                Assert.assertTrue(Files.exists(path.resolveSibling(path.getFileName() + ".upload")));
+            }
+            int first = requests.get();
+            ChunkedUploadResult result = Requests.POST.uploadChunked(server.url("/upload"), path.toString(), options, null);
+            Assert.assertEquals(first - 1, result.getResumedChunks());
+            Assert.assertEquals(4 + 1, requests.get());
+            Assert.assertArrayEquals(data, received);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".upload"));
+        }
+    }
+
+    @Test
+    public void parallelismBoundsConcurrentChunks() throws Exception {
+        byte[] data = new byte[CHUNK * 8];
+        Path path = file(data);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (LocalHttpServer server = new LocalHttpServer().handle("/upload", exchange -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            LocalHttpServer.readAll(exchange.getRequestBody());
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        })) {
+            ChunkedUploadOptions options = ChunkedUploadOptions.builder().chunkSize(CHUNK).parallelism(2).build();
+            Assert.assertEquals(8, Requests.POST.uploadChunked(server.url("/upload"), path.toString(), options, null).getChunkCount());
+            // JDK21+ 的虚拟线程执行器不限制并发，同时上传的分片数由 parallelism 约束
+            Assert.assertTrue(peak.get() <= 2);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
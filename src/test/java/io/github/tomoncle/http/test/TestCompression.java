@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.CompressionCodec;
+import io.github.tomoncle.http.CompressionInterceptor;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.CompressionStats;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @author tomoncle
+ */
+public class TestCompression {
+    private static final String TEXT;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append("{\"id\":").append(i).append(",\"name\":\"tomoncle\"}\n");
+        }
+        TEXT = builder.toString();
+    }
+
+    /**
+     * 请求体按 Content-Encoding 解压后原样返回，Accept-Encoding 包含 deflate 时以 deflate 压缩响应
+     */
+    private static LocalHttpServer server() throws Exception {
+        return new LocalHttpServer().handle("/echo", exchange -> {
+            InputStream in = exchange.getRequestBody();
+            String requestEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            byte[] bytes = LocalHttpServer.readAll("gzip".equals(requestEncoding) ? new GZIPInputStream(in) : in);
+            exchange.getResponseHeaders().add("X-Request-Encoding", String.valueOf(requestEncoding));
+            String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (accept != null && accept.contains("deflate")) {
+                exchange.getResponseHeaders().add("Content-Encoding", "deflate");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream os = new DeflaterOutputStream(exchange.getResponseBody())) {
+                    os.write(bytes);
+                }
+            } else {
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(bytes);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void compressRequestAndDecodeResponse() throws Exception {
+        CompressionInterceptor compression = CompressionInterceptor.builder().build();
+        RequestsClient client = Requests.register("compression", RequestsConfig.builder().compression(compression).build());
+        try (LocalHttpServer server = server()) {
+            RequestBody body = RequestBody.create(TEXT, MediaType.parse("application/x-ndjson"));
+            Assert.assertEquals(TEXT, client.POST.request(server.url("/echo"), body));
+            CompressionStats gzip = compression.stats().get("gzip");
+            Assert.assertEquals(1, gzip.getRequests());
+            Assert.assertEquals(TEXT.length(), gzip.getRequestBytes());
+            Assert.assertTrue(gzip.getRequestCompressedBytes() < TEXT.length() / 5);
+            CompressionStats deflate = compression.stats().get("deflate");
+            Assert.assertEquals(1, deflate.getResponses());
+            Assert.assertEquals(TEXT.length(), deflate.getResponseBytes());
+            Assert.assertTrue(deflate.getBytesSaved() > 0);
+        }
+    }
+
+    @Test
+    public void thresholdAndPerRequestOverride() throws Exception {
+        RequestsClient client = Requests.register("compression-threshold", RequestsConfig.builder()
+                .compression(CompressionInterceptor.builder().minSize(1024).build())
+                .build());
+        try (LocalHttpServer server = server()) {
+            String url = server.url("/echo");
+            RequestBody small = RequestBody.create("small", MediaType.parse("text/plain"));
+            Assert.assertEquals("null", requestEncoding(client, url, small, null));
+            RequestBody large = RequestBody.create(TEXT.getBytes(StandardCharsets.UTF_8), MediaType.parse("text/plain"));
+            Headers identity = Headers.of(CompressionInterceptor.ENCODING_HEADER, "identity");
+            Assert.assertEquals("null", requestEncoding(client, url, large, identity));
+            Assert.assertEquals("gzip", requestEncoding(client, url, large, null));
+        }
+    }
+
+    @Test
+    public void encoderEndsWhenBodyFails() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        CompressionCodec gzip = CompressionCodec.gzip();
+        CompressionCodec tracking = new CompressionCodec() {
+            @Override
+            public String encoding() {
+                return "gzip";
+            }
+
+            @Override
+            public OutputStream encode(OutputStream out) throws IOException {
+                opened.incrementAndGet();
+                return new FilterOutputStream(gzip.encode(out)) {
+                    @Override
+                    public void close() throws IOException {
+                        closed.incrementAndGet();
+                        super.close();
+                    }
+                };
+            }
+
+            @Override
+            public InputStream decode(InputStream in) throws IOException {
+                return gzip.decode(in);
+            }
+        };
+        RequestsClient client = Requests.register("compression-failure", RequestsConfig.builder()
+                .compression(CompressionInterceptor.builder().codec(tracking).build())
+                .build());
+        RequestBody failing = new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return MediaType.parse("text/plain");
+            }
+
+            @Override
+            public long contentLength() {
+                return TEXT.length() * 2L;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeUtf8(TEXT);
+                throw new IOException("body source failed");
+            }
+        };
+        try (LocalHttpServer server = server()) {
+            try (Response ignored = client.POST.response(server.url("/echo"), failing)) {
+                Assert.fail("request body failure should fail the call");
+            } catch (IOException e) {
+                // 请求失败时编码器同样被结束
+                Assert.assertTrue(opened.get() > 0);
+                Assert.assertEquals(opened.get(), closed.get());
+            }
+        }
+    }
+
+    @Test
+    public void rangeRequestIsNotNegotiated() throws Exception {
+        RequestsClient client = Requests.register("compression-range", RequestsConfig.builder()
+                .compression(CompressionInterceptor.builder().build())
+                .build());
+        byte[] text = TEXT.getBytes(StandardCharsets.UTF_8);
+        try (LocalHttpServer server = new LocalHttpServer().handle("/range", exchange -> {
+            String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            exchange.getResponseHeaders().add("X-Accept-Encoding", String.valueOf(accept));
+            exchange.getResponseHeaders().add("Content-Range", "bytes 10-19/" + text.length);
+            exchange.sendResponseHeaders(206, 10);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(text, 10, 10);
+            }
+        })) {
+            try (Response response = client.GET.response(server.url("/range"), Headers.of("Range", "bytes=10-19"))) {
+                Assert.assertEquals(206, response.code());
+                // 分段下载的片段必须是未编码的原始字节
+                Assert.assertEquals("null", response.header("X-Accept-Encoding"));
+                Assert.assertEquals(new String(text, 10, 10, StandardCharsets.UTF_8), response.body().string());
+            }
+        }
+    }
+
+    private static String requestEncoding(RequestsClient client, String url, RequestBody body, Headers headers) throws Exception {
+        try (Response response = client.POST.response(url, body, headers)) {
+            return response.header("X-Request-Encoding");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.ConcurrencyLimiter;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestConcurrencyLimiter {
+
+    private static LocalHttpServer server(AtomicInteger status, long delayMillis) throws Exception {
+        return new LocalHttpServer().handle("/work", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void rejectFastWhenLimitReached() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limit(1, 1, 1).build();
+        RequestsClient client = Requests.register("limiter-reject", RequestsConfig.builder().limiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger(200), 300)) {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.GET.request(server.url("/work"));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            while (limiter.inFlight("127.0.0.1") == 0) {
+                Thread.sleep(5);
+            }
+            try {
+                client.GET.request(server.url("/work"));
+                Assert.fail("应当被拒绝");
+            } catch (ConcurrencyLimiter.RejectedException e) {
+                Assert.assertEquals("127.0.0.1", e.getHost());
+            }
+            Assert.assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, limiter.rejected());
+        }
+    }
+
+    @Test
+    public void queueUntilPermitReleased() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limit(1, 1, 1)
+                .queueTimeout(5, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("limiter-queue", RequestsConfig.builder().limiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger(200), 100)) {
+            CompletableFuture<?>[] calls = new CompletableFuture<?>[3];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        Assert.assertEquals("ok", client.GET.request(server.url("/work")));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            CompletableFuture.allOf(calls).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(0, limiter.rejected());
+        }
+    }
+
+    @Test
+    public void circuitOpensAndRecovers() throws Exception {
+        AtomicInteger status = new AtomicInteger(500);
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().failureThreshold(2)
+                .openDuration(200, TimeUnit.MILLISECONDS).build();
+        RequestsClient client = Requests.register("limiter-circuit", RequestsConfig.builder().limiter(limiter).build());
+        try (LocalHttpServer server = server(status, 0)) {
+            for (int i = 0; i < 2; i++) {
+                try (Response response = client.GET.response(server.url("/work"))) {
+                    Assert.assertEquals(500, response.code());
+                }
+            }
+            Assert.assertEquals(ConcurrencyLimiter.CircuitState.OPEN, limiter.state("127.0.0.1"));
+            try {
+                client.GET.request(server.url("/work"));
+                Assert.fail("熔断打开时应当被拒绝");
+            } catch (ConcurrencyLimiter.RejectedException e) {
+                Assert.assertEquals(1, limiter.rejected());
+            }
+            status.set(200);
+            Thread.sleep(250);
+            Assert.assertEquals("ok", client.GET.request(server.url("/work")));
+            Assert.assertEquals(ConcurrencyLimiter.CircuitState.CLOSED, limiter.state("127.0.0.1"));
+            Assert.assertEquals(1, limiter.circuitOpened());
+        }
+    }
+
+    @Test
+    public void overloadDecreasesLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().limit(10, 1, 100).backoffRatio(0.5).build();
+        RequestsClient client = Requests.register("limiter-aimd", RequestsConfig.builder().limiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger(503), 0)) {
+            try (Response response = client.GET.response(server.url("/work"))) {
+                Assert.assertEquals(503, response.code());
+            }
+            Assert.assertEquals(5, limiter.limit("127.0.0.1"));
+        }
+    }
+}
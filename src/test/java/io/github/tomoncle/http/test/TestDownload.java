@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.DownloadOptions;
+import io.github.tomoncle.http.domain.ProgressResponseBody;
+import io.github.tomoncle.http.domain.ProgressThrottle;
+import io.github.tomoncle.http.domain.TransferRate;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author tomoncle
+ */
+public class TestDownload {
+    private static final byte[] DATA = new byte[4 * 1024 * 1024 + 123];
+
+    static {
+        new Random(42).nextBytes(DATA);
+    }
+
+    private static LocalHttpServer server(AtomicBoolean failOnce, AtomicLong served) throws IOException {
+        return new LocalHttpServer().handle("/file", exchange -> {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Content-Length", String.valueOf(DATA.length));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            String[] range = exchange.getRequestHeaders().getFirst("Range").substring("bytes=".length()).split("-");
+            int start = Integer.parseInt(range[0]);
+            int end = Integer.parseInt(range[1]);
+            int length = end - start + 1;
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + DATA.length);
+            exchange.sendResponseHeaders(206, length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                if (failOnce.compareAndSet(true, false)) {
+                    os.write(DATA, start, length / 2);
+                    served.addAndGet(length / 2);
+                    os.flush();
+                    throw new IOException("broken");
+                }
+                os.write(DATA, start, length);
+                served.addAndGet(length);
+            }
+        });
+    }
+
+    @Test
+    public void parallelDownload() throws Exception {
+        Path path = Files.createTempFile("requests", ".bin");
+        try (LocalHttpServer server = server(new AtomicBoolean(false), new AtomicLong())) {
+            DownloadOptions options = DownloadOptions.builder().segments(4).minSegmentSize(1024).build();
+            Assert.assertEquals(DATA.length, Requests.download(server.url("/file"), path, options));
+            Assert.assertArrayEquals(DATA, Files.readAllBytes(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void resume() throws Exception {
+        Path path = Files.createTempFile("requests", ".bin");
+        Path state = path.resolveSibling(path.getFileName() + ".download");
+        AtomicLong served = new AtomicLong();
+        try (LocalHttpServer server = server(new AtomicBoolean(true), served)) {
+            DownloadOptions options = DownloadOptions.builder().segments(4).minSegmentSize(1024).checkpointBytes(1).build();
+            try {
+                Requests.download(server.url("/file"), path, options);
+                Assert.fail("first attempt should fail");
+            } catch (IOException expected) {
+                Assert.assertTrue(Files.exists(state));
+            }
+            Requests.download(server.url("/file"), path, options);
+            Assert.assertArrayEquals(DATA, Files.readAllBytes(path));
+            Assert.assertFalse(Files.exists(state));
+            Assert.assertTrue(served.get() < DATA.length * 2L);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(state);
+        }
+    }
+
+    @Test
+    public void downloadProgress() throws Exception {
+        Path path = Files.createTempFile("requests", ".bin");
+        AtomicInteger events = new AtomicInteger();
+        AtomicLong last = new AtomicLong();
+        AtomicBoolean done = new AtomicBoolean();
+        long before = TransferRate.download().total();
+        try (LocalHttpServer server = server(new AtomicBoolean(false), new AtomicLong())) {
+            DownloadOptions options = DownloadOptions.builder().segments(4).minSegmentSize(1024)
+                    .listener((bytes, length, finished, prompt) -> {
+                        events.incrementAndGet();
+                        last.set(bytes);
+                        done.set(finished);
+                    })
+                    .build();
+            Requests.download(server.url("/file"), path, options);
+            Assert.assertEquals(DATA.length, last.get());
+            Assert.assertTrue(done.get());
+            // 每 64KB 最多一次，4MB 远少于 8KB 一次的读取次数
+            Assert.assertTrue(events.get() <= DATA.length / (64 * 1024) + 1);
+            Assert.assertTrue(TransferRate.download().total() - before >= DATA.length);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void singleConnectionFallbackRejectsErrorStatus() throws Exception {
+        Path path = Files.createTempFile("requests", ".bin");
+        Files.write(path, new byte[]{1, 2, 3});
+        try (LocalHttpServer server = new LocalHttpServer().handle("/missing", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                // 没有 Accept-Ranges，走单连接下载
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = "not found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            for (DownloadOptions options : new DownloadOptions[]{DownloadOptions.builder().build(),
+                    DownloadOptions.builder().listener((bytes, length, finished, prompt) -> {
+                    }).build()}) {
+                try {
+                    Requests.download(server.url("/missing"), path, options);
+                    Assert.fail("404 响应不应被当作下载成功");
+                } catch (IOException e) {
+                    Assert.assertTrue(e.getMessage(), e.getMessage().contains("404"));
+                }
+                // 错误响应不会截断已有文件
+                Assert.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(path));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void progressResponseBodyThrottle() throws Exception {
+        AtomicInteger events = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        ResponseBody body = ResponseBody.create(DATA, MediaType.parse("application/octet-stream"));
+        try (ProgressResponseBody progress = new ProgressResponseBody(body, (bytes, length, finished, prompt) -> {
+            events.incrementAndGet();
+            done.set(finished && bytes == DATA.length);
+        }, "", ProgressThrottle.of(1, TimeUnit.HOURS, 1024))) {
+            progress.source().readAll(Okio.blackhole());
+        }
+        // 时间阈值未到，只触发完成事件
+        Assert.assertEquals(1, events.get());
+        Assert.assertTrue(done.get());
+    }
+}
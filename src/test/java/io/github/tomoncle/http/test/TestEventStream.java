@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import io.github.tomoncle.http.RecordStream;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.ServerSentEvent;
+import io.github.tomoncle.http.domain.StreamLine;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestEventStream {
+
+    private static void write(HttpExchange exchange, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void parseEvents() throws Exception {
+        String body = ": heartbeat\nretry: 10\n"
+                + "event: update\r\nid: 7\r\ndata: {\"n\":1}\r\n\r\n"
+                + "data: first\rdata:second\r\r"
+                + "data\n\n"
+                + "id: 8\nevent: ignored\n\n"
+                + "data: tail-without-blank-line";
+        try (LocalHttpServer server = new LocalHttpServer().handle("/sse", exchange -> {
+            if (null == exchange.getRequestHeaders().getFirst("Last-Event-ID")) {
+                write(exchange, body);
+            } else {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        })) {
+            List<ServerSentEvent> events = new ArrayList<>();
+            Assert.assertEquals(3, Requests.GET.events(server.url("/sse"), null, events::add));
+            Assert.assertEquals("update", events.get(0).getEvent());
+            Assert.assertEquals("7", events.get(0).getId());
+            Assert.assertEquals(1, events.get(0).json(JSONObject.class).getIntValue("n"));
+            Assert.assertEquals("message", events.get(1).getEvent());
+            Assert.assertEquals("first\nsecond", events.get(1).getData());
+            Assert.assertEquals("7", events.get(1).getId());
+            Assert.assertEquals("", events.get(2).getData());
+        }
+    }
+
+    @Test
+    public void reconnectWithLastEventId() throws Exception {
+        List<String> lastIds = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger connections = new AtomicInteger();
+        try (LocalHttpServer server = new LocalHttpServer().handle("/sse", exchange -> {
+            lastIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            switch (connections.incrementAndGet()) {
+                case 1:
+                    write(exchange, "retry: 10\nid: 1\ndata: a\n\nid: 2\ndata: b\n\n");
+                    break;
+                case 2:
+                    write(exchange, "id: 3\ndata: c\n\n");
+                    break;
+                default:
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+            }
+        })) {
+            StringBuilder data = new StringBuilder();
+            try (RecordStream<ServerSentEvent> stream = Requests.GET.events(server.url("/sse"), null)) {
+                stream.forEachRemaining(event -> data.append(event.getData()));
+            }
+            Assert.assertEquals("abc", data.toString());
+            Assert.assertEquals(3, connections.get());
+            Assert.assertEquals(Arrays.asList("null", "2", "3"), lastIds);
+        }
+    }
+
+    @Test
+    public void deliverBeforeResponseEnds() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        try (LocalHttpServer server = new LocalHttpServer().handle("/sse", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream os = exchange.getResponseBody();
+            try {
+                os.write("data: live\n\n".getBytes(StandardCharsets.UTF_8));
+                os.flush();
+                received.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        })) {
+            RecordStream<ServerSentEvent> stream = Requests.GET.events(server.url("/sse"), null);
+            Assert.assertEquals("live", stream.read().getData());
+            received.countDown();
+            stream.close();
+            Assert.assertNull(stream.read());
+        }
+    }
+
+    @Test
+    public void rejectErrorStatus() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        try (LocalHttpServer server = new LocalHttpServer().handle("/sse", exchange -> {
+            connections.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        })) {
+            try {
+                Requests.GET.events(server.url("/sse"), null, event -> Assert.fail());
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("503"));
+            }
+            Assert.assertEquals(1, connections.get());
+        }
+    }
+
+    @Test
+    public void readLines() throws Exception {
+        String body = "{\"id\":1}\r\n\n{\"id\":2}\n{\"id\":3}";
+        try (LocalHttpServer server = new LocalHttpServer().handle("/ndjson", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        })) {
+            List<Integer> ids = new ArrayList<>();
+            try (RecordStream<StreamLine> lines = Requests.GET.lines(server.url("/ndjson"), null)) {
+                StreamLine line;
+                while (null != (line = lines.read())) {
+                    ids.add(line.json(JSONObject.class).getIntValue("id"));
+                }
+            }
+            Assert.assertEquals(Arrays.asList(1, 2, 3), ids);
+        }
+    }
+}
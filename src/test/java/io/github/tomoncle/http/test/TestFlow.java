@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Flow;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.PublisherRequestBody;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author tomoncle
+ */
+public class TestFlow {
+    private static final int SIZE = 4 * 1024 * 1024;
+
+    private static LocalHttpServer server() throws Exception {
+        return new LocalHttpServer().handle("/large", exchange -> {
+            byte[] block = new byte[64 * 1024];
+            Arrays.fill(block, (byte) 'x');
+            exchange.sendResponseHeaders(200, SIZE);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int i = 0; i < SIZE / block.length; i++) {
+                    os.write(block);
+                }
+            } catch (IOException ignored) {
+                // 订阅者取消后连接被关闭
+            }
+        }).handle("/count", exchange -> {
+            long count = 0;
+            byte[] buffer = new byte[8192];
+            try (InputStream in = exchange.getRequestBody()) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    count += n;
+                }
+            }
+            String encoding = String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            byte[] body = (encoding + ":" + count).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+    }
+
+    @Test
+    public void publishResponseOnDemand() throws Exception {
+        try (LocalHttpServer server = server()) {
+            AtomicLong bytes = new AtomicLong();
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            Requests.GET.publisher(server.url("/large"), null).subscribe(new Flow.Subscriber<ByteBuffer>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription = s;
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    bytes.addAndGet(item.remaining());
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error.set(throwable);
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertNull(error.get());
+            Assert.assertEquals(SIZE, bytes.get());
+        }
+    }
+
+    @Test
+    public void stopReadingWithoutDemand() throws Exception {
+        try (LocalHttpServer server = server()) {
+            AtomicInteger chunks = new AtomicInteger();
+            AtomicInteger terminal = new AtomicInteger();
+            AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+            CountDownLatch received = new CountDownLatch(2);
+            Requests.GET.publisher(server.url("/large"), null).subscribe(new Flow.Subscriber<ByteBuffer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription.set(s);
+                    s.request(2);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    chunks.incrementAndGet();
+                    received.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    terminal.incrementAndGet();
+                }
+
+                @Override
+                public void onComplete() {
+                    terminal.incrementAndGet();
+                }
+            });
+            Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            Assert.assertEquals(2, chunks.get());
+            subscription.get().cancel();
+            Thread.sleep(100);
+            Assert.assertEquals(0, terminal.get());
+        }
+    }
+
+    @Test
+    public void rejectNonPositiveRequest() throws Exception {
+        try (LocalHttpServer server = server()) {
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            Requests.GET.publisher(server.url("/large"), null).subscribe(new Flow.Subscriber<ByteBuffer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    s.request(0);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error.set(throwable);
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(error.get() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void publisherRequestBody() throws Exception {
+        int count = 256;
+        AtomicLong outstanding = new AtomicLong();
+        AtomicLong maxOutstanding = new AtomicLong();
+        try (LocalHttpServer server = server()) {
+            String result = Requests.POST.request(server.url("/count"),
+                    new PublisherRequestBody(chunks(count, outstanding, maxOutstanding, null), MediaType.get("application/octet-stream")), null);
+            Assert.assertEquals("chunked:" + (count * 8192L), result);
+            Assert.assertTrue(maxOutstanding.get() <= PublisherRequestBody.DEFAULT_PREFETCH);
+        }
+    }
+
+    @Test
+    public void publisherErrorFailsRequest() throws Exception {
+        try (LocalHttpServer server = server()) {
+            IOException failure = new IOException("boom");
+            try {
+                Requests.POST.request(server.url("/count"),
+                        new PublisherRequestBody(chunks(8, new AtomicLong(), new AtomicLong(), failure), null), null);
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertEquals("boom", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 订阅后从不发送数据的发布者，记录是否被取消
+     */
+    private static Flow.Publisher<ByteBuffer> stalled(CountDownLatch cancelled) {
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.countDown();
+            }
+        });
+    }
+
+    @Test
+    public void stalledPublisherStopsAtCallTimeout() throws Exception {
+        RequestsClient client = Requests.register("flow-stalled", RequestsConfig.builder().callTimeout(500, TimeUnit.MILLISECONDS).build());
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (LocalHttpServer server = server()) {
+            Future<String> future = executor.submit(() -> client.POST.request(server.url("/count"),
+                    new PublisherRequestBody(stalled(cancelled), MediaType.get("application/octet-stream")), null));
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assert.fail("stalled publisher should fail the call");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+            Assert.assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stalledPublisherStopsAtWriteTimeout() throws Exception {
+        RequestsClient client = Requests.register("flow-write-timeout", RequestsConfig.builder().writeTimeout(300, TimeUnit.MILLISECONDS).build());
+        CountDownLatch cancelled = new CountDownLatch(1);
+        try (LocalHttpServer server = server()) {
+            // 直接使用 OkHttp、没有绑定调用时按写超时结束
+            Request request = new Request.Builder().url(server.url("/count"))
+                    .post(new PublisherRequestBody(stalled(cancelled), MediaType.get("application/octet-stream"))).build();
+            long start = System.nanoTime();
+            try {
+                client.okHttpClient().newCall(request).execute().close();
+                Assert.fail("stalled publisher should fail the call");
+            } catch (IOException e) {
+                Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            }
+            Assert.assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * 按需求同步发送 count 个 8K 的块，记录未满足的请求数量
+     */
+    private static Flow.Publisher<ByteBuffer> chunks(int count, AtomicLong outstanding, AtomicLong maxOutstanding, IOException failure) {
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int sent;
+            private boolean emitting;
+            private boolean completed;
+
+            @Override
+            public synchronized void request(long n) {
+                maxOutstanding.accumulateAndGet(outstanding.addAndGet(n), Math::max);
+                if (emitting) {
+                    return;
+                }
+                emitting = true;
+                while (outstanding.get() > 0 && sent < count) {
+                    if (null != failure && sent == count / 2) {
+                        sent = count;
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    outstanding.decrementAndGet();
+                    sent++;
+                    subscriber.onNext(ByteBuffer.allocate(8192));
+                }
+                emitting = false;
+                if (sent == count && !completed) {
+                    completed = true;
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                sent = count;
+            }
+        });
+    }
+}
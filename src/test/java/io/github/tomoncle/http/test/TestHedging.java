@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.HedgingInterceptor;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import io.github.tomoncle.http.metrics.HostSnapshot;
+import okhttp3.Call;
+import okhttp3.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestHedging {
+
+    /**
+     * 第一次请求等待 slowMillis 后返回，之后的请求立即返回
+     */
+    private static LocalHttpServer server(AtomicInteger requests, long slowMillis) throws Exception {
+        return new LocalHttpServer().handle("/slow", exchange -> {
+            int n = requests.incrementAndGet();
+            if (n == 1) {
+                try {
+                    Thread.sleep(slowMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = String.valueOf(n).getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(bytes);
+                }
+            } catch (IOException e) {
+                // 对冲取消后客户端已断开
+            }
+        });
+    }
+
+    @Test
+    public void hedgeWinsOverSlowRequest() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(50, TimeUnit.MILLISECONDS).build();
+        RequestsClient client = Requests.register("hedging-get", RequestsConfig.builder().hedging(hedging).build());
+        try (LocalHttpServer server = server(requests, 2000)) {
+            long start = System.nanoTime();
+            Assert.assertEquals("2", client.GET.request(server.url("/slow")));
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+            Assert.assertEquals(1, hedging.hedgesSent());
+            Assert.assertEquals(1, hedging.hedgesWon());
+        }
+    }
+
+    @Test
+    public void parentCallIsNotCounted() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(1, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("hedging-metrics", RequestsConfig.builder().hedging(hedging).build());
+        try (LocalHttpServer server = server(requests, 0)) {
+            for (int i = 0; i < 3; i++) {
+                client.GET.request(server.url("/slow"));
+            }
+            HostSnapshot host = client.metrics().snapshot().getHosts().get("127.0.0.1");
+            Assert.assertEquals(3, host.getTotal().getCount());
+            Assert.assertEquals(3, host.getByStatus().get("2xx").getCount());
+            Assert.assertNull(host.getByStatus().get("failed"));
+        }
+    }
+
+    @Test
+    public void attemptsStopAtCallTimeout() throws Exception {
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(50, TimeUnit.MILLISECONDS).build();
+        RequestsClient client = Requests.register("hedging-timeout", RequestsConfig.builder().hedging(hedging).build());
+        try (LocalHttpServer server = new LocalHttpServer().handle("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException | IOException e) {
+                // 客户端超时后断开
+            } finally {
+                exchange.close();
+            }
+        })) {
+            Call call = client.okHttpClient().newCall(new Request.Builder().url(server.url("/slow")).build());
+            call.timeout().timeout(300, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            try {
+                call.execute().close();
+                Assert.fail();
+            } catch (IOException expected) {
+                Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+            }
+            Assert.assertEquals(1, hedging.hedgesSent());
+        }
+    }
+
+    @Test
+    public void fastResponseIsNotHedged() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(1, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("hedging-fast", RequestsConfig.builder().hedging(hedging).build());
+        try (LocalHttpServer server = server(requests, 0)) {
+            Assert.assertEquals("1", client.GET.request(server.url("/slow")));
+            Assert.assertEquals(0, hedging.hedgesSent());
+            Assert.assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void postIsNotHedgedByDefault() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(50, TimeUnit.MILLISECONDS).build();
+        RequestsClient client = Requests.register("hedging-post", RequestsConfig.builder().hedging(hedging).build());
+        SimpleRequestBody body = SimpleRequestBody.builder(DataType.FORM).setParam("a", 1).build();
+        try (LocalHttpServer server = server(requests, 300)) {
+            Assert.assertEquals("1", client.POST.request(server.url("/slow"), body));
+            Assert.assertEquals(0, hedging.hedgesSent());
+        }
+    }
+
+    @Test
+    public void hedgesAreCappedByBudget() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HedgingInterceptor hedging = HedgingInterceptor.builder().delay(50, TimeUnit.MILLISECONDS)
+                .burst(0).maxHedgeRatio(0.1).build();
+        RequestsClient client = Requests.register("hedging-budget", RequestsConfig.builder().hedging(hedging).build());
+        try (LocalHttpServer server = server(requests, 300)) {
+            Assert.assertEquals("1", client.GET.request(server.url("/slow")));
+            Assert.assertEquals(0, hedging.hedgesSent());
+        }
+    }
+}
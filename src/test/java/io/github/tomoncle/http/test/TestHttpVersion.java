@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.HttpVersion;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestHttpVersion {
+
+    @Test
+    public void protocolsFollowVersion() {
+        Assert.assertEquals(Collections.singletonList(Protocol.HTTP_1_1),
+                RequestsConfig.builder().httpVersion(HttpVersion.HTTP_1_1).build().getProtocols());
+        Assert.assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1),
+                RequestsConfig.builder().httpVersion(HttpVersion.HTTP_2).build().getProtocols());
+        Assert.assertEquals(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE),
+                RequestsConfig.builder().httpVersion(HttpVersion.H2C).build().getProtocols());
+        Assert.assertFalse(RequestsConfig.defaults().isMultiplexed());
+    }
+
+    @Test
+    public void multiplexedClientAllowsAllStreamsPerHost() {
+        OkHttpClient h2c = Requests.register("h2c", RequestsConfig.builder().httpVersion(HttpVersion.H2C).build()).okHttpClient();
+        Assert.assertEquals(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE), h2c.protocols());
+        Assert.assertEquals(h2c.dispatcher().getMaxRequests(), h2c.dispatcher().getMaxRequestsPerHost());
+        Assert.assertNotSame(Requests.client().okHttpClient().dispatcher(), h2c.dispatcher());
+
+        OkHttpClient http1 = Requests.register("http1", RequestsConfig.builder().httpVersion(HttpVersion.HTTP_1_1).build()).okHttpClient();
+        Assert.assertSame(Requests.client().okHttpClient().dispatcher(), http1.dispatcher());
+
+        OkHttpClient configured = Requests.register("h2-configured", RequestsConfig.builder().httpVersion(HttpVersion.HTTP_2)
+                .dispatcher(128, 8).build()).okHttpClient();
+        Assert.assertEquals(8, configured.dispatcher().getMaxRequestsPerHost());
+
+        // HTTP_2 可能协商为 HTTP/1.1，保留单主机并发上限
+        OkHttpClient h2 = Requests.register("h2", RequestsConfig.builder().httpVersion(HttpVersion.HTTP_2).build()).okHttpClient();
+        Assert.assertEquals(Requests.client().okHttpClient().dispatcher().getMaxRequestsPerHost(), h2.dispatcher().getMaxRequestsPerHost());
+        Assert.assertSame(Requests.client().okHttpClient().dispatcher(), h2.dispatcher());
+    }
+
+    @Test
+    public void gateResetsAfterConnectionCloses() throws Exception {
+        AtomicInteger resolved = new AtomicInteger();
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        Dns slowDns = hostname -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resolved.incrementAndGet();
+            return Collections.singletonList(InetAddress.getLoopbackAddress());
+        };
+        RequestsClient client = Requests.register("h2-gate", RequestsConfig.builder().httpVersion(HttpVersion.HTTP_2)
+                .dns(slowDns)
+                .addInterceptor(chain -> {
+                    seen.add(resolved.get());
+                    return chain.proceed(chain.request());
+                }).build());
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try (LocalHttpServer server = new LocalHttpServer().handle("/gate", exchange -> {
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            // 使用主机名，IP 地址不经过 DNS 解析
+            String url = server.url("/gate").replace("127.0.0.1", "localhost");
+            for (int round = 0; round < 2; round++) {
+                int before = resolved.get();
+                seen.clear();
+                burst(executor, 5, () -> client.GET.request(url));
+                // 只有第一个请求在连接建立前通过闸门
+                Assert.assertEquals(1, seen.stream().filter(count -> count == before).count());
+                client.okHttpClient().connectionPool().evictAll();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void burst(ExecutorService executor, int callers, Callable<String> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<String> future : futures) {
+            Assert.assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import com.alibaba.fastjson.TypeReference;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * @author tomoncle
+ */
+public class TestJsonResponse {
+
+    private static LocalHttpServer json(String path, String json, String charset) throws Exception {
+        return json(path, 200, json, charset);
+    }
+
+    private static LocalHttpServer json(String path, int code, String json, String charset) throws Exception {
+        return new LocalHttpServer().handle(path, exchange -> {
+            byte[] bytes = json.getBytes(Charset.forName(charset));
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=" + charset);
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void getAsClassAndTypeReference() throws Exception {
+        try (LocalHttpServer server = json("/user", "{\"name\":\"汤姆\",\"age\":18}", "GBK")) {
+            User user = Requests.GET.json(server.url("/user"), User.class);
+            Assert.assertEquals("汤姆", user.getName());
+            Assert.assertEquals(18, user.getAge());
+        }
+        // 超过 8KB 的响应体走流式解析
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i == 0 ? "" : ",").append("{\"name\":\"用户").append(i).append("\",\"age\":").append(i).append('}');
+        }
+        try (LocalHttpServer server = json("/users", builder.append(']').toString(), "GBK")) {
+            List<User> users = Requests.GET.json(server.url("/users"), new TypeReference<List<User>>() {
+            });
+            Assert.assertEquals(1000, users.size());
+            Assert.assertEquals("用户999", users.get(999).getName());
+        }
+    }
+
+    @Test
+    public void postAsClass() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().echo("/echo")) {
+            SimpleRequestBody body = SimpleRequestBody.builder(DataType.BODY)
+                    .setParam("name", "tomoncle")
+                    .setParam("age", 20)
+                    .build();
+            User user = Requests.POST.json(server.url("/echo"), body, User.class);
+            Assert.assertEquals("tomoncle", user.getName());
+            Assert.assertEquals(20, user.getAge());
+        }
+    }
+
+    @Test
+    public void errorStatusIsNotDecoded() throws Exception {
+        try (LocalHttpServer server = json("/missing", 404, "{\"name\":\"not found\"}", "UTF-8")) {
+            Requests.GET.json(server.url("/missing"), User.class);
+            Assert.fail("404 响应不应被解析");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("404"));
+        }
+    }
+
+    public static class User {
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.metrics.HistogramSnapshot;
+import io.github.tomoncle.http.metrics.HostSnapshot;
+import io.github.tomoncle.http.metrics.LatencyHistogram;
+import io.github.tomoncle.http.metrics.MetricsSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author tomoncle
+ */
+public class TestMetrics {
+
+    @Test
+    public void histogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100_000, snapshot.getCount());
+        Assert.assertEquals(50_000, snapshot.getP50(), 50_000 * 0.02);
+        Assert.assertEquals(99_000, snapshot.getP99(), 99_000 * 0.02);
+        Assert.assertEquals(99_900, snapshot.getP999(), 99_900 * 0.02);
+        Assert.assertEquals(100_000, snapshot.getMax());
+    }
+
+    @Test
+    public void requestMetrics() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().text("/metrics", "ok")) {
+            Requests.metrics().reset();
+            for (int i = 0; i < 20; i++) {
+                Requests.GET.request(server.url("/metrics"));
+            }
+            MetricsSnapshot snapshot = Requests.metrics().snapshot();
+            HostSnapshot host = snapshot.getHosts().get("127.0.0.1");
+            Assert.assertEquals(20, host.getTotal().getCount());
+            Assert.assertEquals(20, host.getByStatus().get("2xx").getCount());
+            Assert.assertEquals(40, host.getBytesIn());
+            Assert.assertEquals(20, snapshot.getConnectionsAcquired());
+            Assert.assertTrue(snapshot.getConnectionsReused() >= 19);
+            Assert.assertEquals(1, host.getConnections());
+            Assert.assertEquals(0, host.getMultiplexedConnections());
+            Assert.assertEquals(0, host.getStreams());
+        }
+    }
+}
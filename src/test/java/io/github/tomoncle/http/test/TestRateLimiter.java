@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.RateLimiter;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestRateLimiter {
+
+    private static LocalHttpServer server(AtomicInteger tooMany) throws Exception {
+        return new LocalHttpServer().handle("/", exchange -> {
+            int code = 200;
+            if (tooMany.getAndDecrement() > 0) {
+                code = 429;
+                exchange.getResponseHeaders().add("Retry-After", "1");
+            }
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void failFastAfterBurst() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().host("127.0.0.1", 1, 2).build();
+        RequestsClient client = Requests.register("rate-fail-fast", RequestsConfig.builder().rateLimiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger())) {
+            Assert.assertEquals("ok", client.GET.request(server.url("/a")));
+            Assert.assertEquals("ok", client.GET.request(server.url("/a")));
+            try {
+                client.GET.request(server.url("/a"));
+                Assert.fail("令牌用尽时应当立即失败");
+            } catch (RateLimiter.RateLimitedException e) {
+                Assert.assertTrue(e.getRetryAfterMillis() > 0);
+            }
+            Assert.assertEquals(2, limiter.permits());
+            Assert.assertEquals(1, limiter.rejected());
+        }
+    }
+
+    @Test
+    public void syncRequestsWaitForPermit() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().host("127.0.0.1", 20, 1).maxWait(1, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("rate-sync", RequestsConfig.builder().rateLimiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger())) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals("ok", client.GET.request(server.url("/a")));
+            }
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+            Assert.assertEquals(4, limiter.throttled());
+        }
+    }
+
+    @Test
+    public void asyncRequestsAreDeferred() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().host("127.0.0.1", 10, 1).maxWait(2, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("rate-async", RequestsConfig.builder().rateLimiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger())) {
+            long start = System.nanoTime();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(client.GET.requestAsync(server.url("/a")));
+            }
+            // 入队不等待令牌
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+            for (CompletableFuture<String> future : futures) {
+                Assert.assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+            Assert.assertEquals(2, limiter.throttled());
+        }
+    }
+
+    @Test
+    public void prefixRuleTakesPrecedence() throws Exception {
+        try (LocalHttpServer server = server(new AtomicInteger())) {
+            RateLimiter limiter = RateLimiter.builder().prefix(server.url("/limited"), 1, 1).build();
+            RequestsClient client = Requests.register("rate-prefix", RequestsConfig.builder().rateLimiter(limiter).build());
+            Assert.assertEquals("ok", client.GET.request(server.url("/limited/1")));
+            Assert.assertEquals("ok", client.GET.request(server.url("/free")));
+            Assert.assertEquals("ok", client.GET.request(server.url("/free")));
+            try {
+                client.GET.request(server.url("/limited/2"));
+                Assert.fail("前缀规则应当限流");
+            } catch (RateLimiter.RateLimitedException e) {
+                Assert.assertEquals(1, limiter.rejected());
+            }
+        }
+    }
+
+    @Test
+    public void retryAfterPausesHost() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().build();
+        RequestsClient client = Requests.register("rate-adaptive", RequestsConfig.builder().rateLimiter(limiter).build());
+        try (LocalHttpServer server = server(new AtomicInteger(1))) {
+            try (Response response = client.GET.response(server.url("/a"))) {
+                Assert.assertEquals(429, response.code());
+            }
+            try {
+                client.GET.request(server.url("/a"));
+                Assert.fail("Retry-After 期间应当限流");
+            } catch (RateLimiter.RateLimitedException e) {
+                Assert.assertTrue(e.getRetryAfterMillis() > 500);
+            }
+        }
+    }
+
+    private static LocalHttpServer quota(String remaining, String reset) throws Exception {
+        return new LocalHttpServer().handle("/", exchange -> {
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", remaining);
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", reset);
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void quotaHeadersDoNotLimitUnconfiguredHosts() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().build();
+        RequestsClient client = Requests.register("rate-quota", RequestsConfig.builder().rateLimiter(limiter).build());
+        try (LocalHttpServer server = quota("4999", "3600")) {
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals("ok", client.GET.request(server.url("/a")));
+            }
+            Assert.assertEquals(0, limiter.throttled());
+            Assert.assertEquals(0, limiter.rejected());
+        }
+    }
+
+    @Test
+    public void spreadOnlyBelowThreshold() throws Exception {
+        try (LocalHttpServer server = quota("5", "10")) {
+            RateLimiter plenty = RateLimiter.builder().host("127.0.0.1", 1000, 1).build();
+            RequestsClient free = Requests.register("rate-spread-off", RequestsConfig.builder().rateLimiter(plenty).build());
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals("ok", free.GET.request(server.url("/a")));
+                Thread.sleep(2);
+            }
+            Assert.assertEquals(0, plenty.rejected());
+            // 剩余 5 个低于阈值，10 秒内均匀发送，即每 2 秒一个
+            RateLimiter low = RateLimiter.builder().host("127.0.0.1", 1000, 1).spreadBelow(10).build();
+            RequestsClient spread = Requests.register("rate-spread-on", RequestsConfig.builder().rateLimiter(low).build());
+            Assert.assertEquals("ok", spread.GET.request(server.url("/a")));
+            Assert.assertEquals("ok", spread.GET.request(server.url("/a")));
+            try {
+                spread.GET.request(server.url("/a"));
+                Assert.fail("额度低于阈值时应当均匀发送");
+            } catch (RateLimiter.RateLimitedException e) {
+                Assert.assertTrue(e.getRetryAfterMillis() > 1000);
+            }
+        }
+    }
+
+    @Test
+    public void waitStopsAtCallTimeout() throws Exception {
+        RateLimiter limiter = RateLimiter.builder().host("127.0.0.1", 0.5, 1).maxWait(10, TimeUnit.SECONDS).build();
+        RequestsClient client = Requests.register("rate-timeout", RequestsConfig.builder()
+                .rateLimiter(limiter)
+                .callTimeout(300, TimeUnit.MILLISECONDS)
+                .build());
+        try (LocalHttpServer server = server(new AtomicInteger())) {
+            Assert.assertEquals("ok", client.GET.request(server.url("/a")));
+            long start = System.nanoTime();
+            try {
+                client.GET.request(server.url("/a"));
+                Assert.fail("调用超时应当结束限流等待");
+            } catch (IOException e) {
+                Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author tomoncle
+ */
+public class TestRelay {
+    private static final int SIZE = 16 * 1024 * 1024;
+
+    private static LocalHttpServer server(Map<String, String> received, AtomicInteger uploads) throws Exception {
+        return new LocalHttpServer().handle("/object", exchange -> {
+            byte[] block = new byte[64 * 1024];
+            Arrays.fill(block, (byte) 'x');
+            exchange.getResponseHeaders().set("Content-Type", "application/x-object");
+            exchange.sendResponseHeaders(200, SIZE);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int i = 0; i < SIZE / block.length; i++) {
+                    os.write(block);
+                }
+            } catch (IOException ignored) {
+                // 转发失败时客户端断开
+            }
+        }).handle("/truncated", exchange -> {
+            exchange.sendResponseHeaders(200, SIZE);
+            OutputStream os = exchange.getResponseBody();
+            os.write(new byte[1024]);
+            os.flush();
+            // 声明的长度没有写完就断开
+            exchange.getHttpContext().getServer().stop(0);
+        }).handle("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        }).handle("/sink", exchange -> {
+            uploads.incrementAndGet();
+            long count = 0;
+            byte[] buffer = new byte[8192];
+            try (InputStream in = exchange.getRequestBody()) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    count += n;
+                }
+            } catch (IOException e) {
+                return;
+            }
+            received.put("count", String.valueOf(count));
+            received.put("type", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+            received.put("length", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Length")));
+            byte[] body = "stored".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+    }
+
+    @Test
+    public void relayKeepsTypeAndLength() throws Exception {
+        Map<String, String> received = new ConcurrentHashMap<>();
+        AtomicLong progress = new AtomicLong();
+        AtomicBoolean done = new AtomicBoolean();
+        try (LocalHttpServer server = server(received, new AtomicInteger())) {
+            Response upstream = Requests.GET.response(server.url("/object"));
+            try (Response response = Requests.PUT.relay(server.url("/sink"), upstream, null, (bytesWritten, contentLength, finished, logPrompt) -> {
+                progress.set(bytesWritten);
+                done.compareAndSet(false, finished);
+            })) {
+                Assert.assertEquals(201, response.code());
+                Assert.assertEquals("stored", response.body().string());
+            }
+            Assert.assertEquals(String.valueOf(SIZE), received.get("count"));
+            Assert.assertEquals(String.valueOf(SIZE), received.get("length"));
+            Assert.assertEquals("application/x-object", received.get("type"));
+            Assert.assertEquals(SIZE, progress.get());
+            Assert.assertTrue(done.get());
+        }
+    }
+
+    @Test
+    public void rejectFailedUpstream() throws Exception {
+        AtomicInteger uploads = new AtomicInteger();
+        try (LocalHttpServer server = server(new ConcurrentHashMap<>(), uploads)) {
+            try {
+                Requests.POST.relay(server.url("/sink"), Requests.GET.response(server.url("/missing")), null).close();
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("404"));
+            }
+            Assert.assertEquals(0, uploads.get());
+        }
+    }
+
+    @Test
+    public void failWhenUpstreamBreaks() throws Exception {
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (LocalHttpServer upstream = server(received, new AtomicInteger());
+             LocalHttpServer sink = server(received, new AtomicInteger())) {
+            Response response = Requests.GET.response(upstream.url("/truncated"));
+            try {
+                Requests.PUT.relay(sink.url("/sink"), response, null).close();
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertNull(received.get("count"));
+            }
+        }
+    }
+}
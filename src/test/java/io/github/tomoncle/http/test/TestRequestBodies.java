@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.FormRequestBody;
+import io.github.tomoncle.http.domain.JsonRequestBody;
+import okhttp3.FormBody;
+import okio.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * @author tomoncle
+ */
+public class TestRequestBodies {
+
+    @Test
+    public void formMatchesFormBody() throws Exception {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("name", "tom oncle+1");
+        params.put("中文", "值/?&=%~*-._😀");
+        params.put("age", 18);
+        FormRequestBody body = FormRequestBody.of(params);
+        FormBody expected = new FormBody.Builder()
+                .add("name", "tom oncle+1")
+                .add("中文", "值/?&=%~*-._😀")
+                .add("age", "18")
+                .build();
+        Buffer actualBuffer = new Buffer();
+        body.writeTo(actualBuffer);
+        Buffer expectedBuffer = new Buffer();
+        expected.writeTo(expectedBuffer);
+        Assert.assertEquals(expectedBuffer.readUtf8(), actualBuffer.readUtf8());
+        Assert.assertEquals(expected.contentLength(), body.contentLength());
+    }
+
+    @Test
+    public void formSnapshotsParams() throws Exception {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("name", "tom");
+        FormRequestBody body = FormRequestBody.of(params);
+        params.put("name", "tomoncle");
+        params.put("age", 18);
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        Assert.assertEquals("name=tom", buffer.readUtf8());
+        Assert.assertEquals(8, body.contentLength());
+    }
+
+    @Test
+    public void ndjsonAndArray() throws Exception {
+        Iterator<JSONObject> records = IntStream.range(0, 3).mapToObj(i -> new JSONObject().fluentPut("id", i)).iterator();
+        Buffer buffer = new Buffer();
+        JsonRequestBody ndjson = JsonRequestBody.ndjson(records);
+        Assert.assertTrue(ndjson.isOneShot());
+        ndjson.writeTo(buffer);
+        Assert.assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", buffer.readUtf8());
+
+        JsonRequestBody array = JsonRequestBody.array(Arrays.asList("a", 1, null));
+        array.writeTo(buffer);
+        Assert.assertEquals("[\"a\",1,null]", buffer.readUtf8());
+        Assert.assertFalse(array.isOneShot());
+    }
+
+    @Test
+    public void streamManyRecords() throws Exception {
+        int count = 200_000;
+        Iterator<JSONObject> records = IntStream.range(0, count)
+                .mapToObj(i -> new JSONObject().fluentPut("id", i).fluentPut("name", "record-" + i)).iterator();
+        try (LocalHttpServer server = new LocalHttpServer().echo("/echo")) {
+            String echo = Requests.POST.request(server.url("/echo"), JsonRequestBody.array(records));
+            Assert.assertEquals(count, JSON.parseArray(echo).size());
+        }
+    }
+}
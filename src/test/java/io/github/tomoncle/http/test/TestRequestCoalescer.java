@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.RequestCoalescer;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestRequestCoalescer {
+
+    @Test
+    public void concurrentGetSharesOneCall() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        RequestsClient client = Requests.register("coalescing", RequestsConfig.builder().coalescing(coalescer).build());
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try (LocalHttpServer server = new LocalHttpServer().handle("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "shared".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            String url = server.url("/slow");
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return client.GET.request(url);
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                Assert.assertEquals("shared", future.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, requests.get());
+            Assert.assertEquals(1, coalescer.leaders());
+            Assert.assertEquals(callers - 1, coalescer.coalesced());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LocalHttpServer slowServer(AtomicInteger requests, long millis) throws Exception {
+        return new LocalHttpServer().handle("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "shared".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void credentialsAreNotShared() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        RequestsClient client = Requests.register("coalescing-credentials", RequestsConfig.builder().coalescing(coalescer).build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer server = slowServer(requests, 300)) {
+            String url = server.url("/slow");
+            Future<String> alice = executor.submit(() -> client.GET.request(url, Headers.of("Authorization", "Bearer alice")));
+            Future<String> bob = executor.submit(() -> client.GET.request(url, Headers.of("Cookie", "session=bob")));
+            Assert.assertEquals("shared", alice.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals("shared", bob.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(2, requests.get());
+            Assert.assertEquals(2, coalescer.leaders());
+            Assert.assertEquals(0, coalescer.coalesced());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void canceledWaiterStopsWaiting() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        RequestsClient client = Requests.register("coalescing-cancel", RequestsConfig.builder().coalescing(coalescer).build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer server = slowServer(requests, 2000)) {
+            Request request = new Request.Builder().url(server.url("/slow")).build();
+            Future<String> leader = executor.submit(() -> client.GET.request(server.url("/slow")));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requests.get() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Call waiter = client.okHttpClient().newCall(request);
+            Future<?> waiting = executor.submit(() -> waiter.execute());
+            Thread.sleep(100);
+            long canceledAt = System.nanoTime();
+            waiter.cancel();
+            try {
+                waiting.get(10, TimeUnit.SECONDS);
+                Assert.fail("canceled waiter should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+            // 等待者在取消后很快返回，而不是等到 leader 完成
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - canceledAt) < 1000);
+            Assert.assertEquals("shared", leader.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void canceledLeaderLetsWaitersProceed() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        RequestsClient client = Requests.register("coalescing-leader-cancel", RequestsConfig.builder().coalescing(coalescer).build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer server = slowServer(requests, 500)) {
+            Call leader = client.okHttpClient().newCall(new Request.Builder().url(server.url("/slow")).build());
+            Future<?> leading = executor.submit(() -> leader.execute());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requests.get() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Future<String> waiter = executor.submit(() -> client.GET.request(server.url("/slow")));
+            Thread.sleep(100);
+            leader.cancel();
+            try {
+                leading.get(10, TimeUnit.SECONDS);
+                Assert.fail("canceled leader should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+            // leader 被取消不是等待者的失败，等待者自己发起请求
+            Assert.assertEquals("shared", waiter.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(2, requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
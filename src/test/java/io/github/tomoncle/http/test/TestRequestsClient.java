@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author tomoncle
+ */
+public class TestRequestsClient {
+
+    @Test
+    public void namedClient() throws Exception {
+        RequestsClient billing = Requests.register("billing", RequestsConfig.builder()
+                .dispatcher(128, 32)
+                .readTimeout(5, TimeUnit.SECONDS)
+                .build());
+        Assert.assertSame(billing, Requests.client("billing"));
+        Assert.assertEquals(32, billing.okHttpClient().dispatcher().getMaxRequestsPerHost());
+        Assert.assertNotSame(Requests.client().okHttpClient().dispatcher(), billing.okHttpClient().dispatcher());
+        // 未配置连接池时与默认客户端共享
+        Assert.assertSame(Requests.client().okHttpClient().connectionPool(), billing.okHttpClient().connectionPool());
+
+        try (LocalHttpServer server = new LocalHttpServer().text("/billing", "ok")) {
+            Assert.assertEquals("ok", Requests.client("billing").GET.request(server.url("/billing")));
+            Assert.assertEquals(1, billing.metrics().snapshot().getHosts().get("127.0.0.1").getTotal().getCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownClient() {
+        Requests.client("unknown");
+    }
+}
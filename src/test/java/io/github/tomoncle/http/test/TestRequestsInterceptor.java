@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.RequestsInterceptor;
+import okhttp3.Headers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author tomoncle
+ */
+public class TestRequestsInterceptor {
+
+    @Test
+    public void requestIdPropagatesWithoutDebug() throws Exception {
+        // 测试环境没有日志实现，DEBUG 处于关闭状态
+        RequestsClient client = Requests.register("request-id", RequestsConfig.builder()
+                .logging(RequestsInterceptor.builder().sampleRate(1000).propagateRequestId(true).build()).build());
+        try (LocalHttpServer server = new LocalHttpServer().handle("/id", exchange -> {
+            String id = exchange.getRequestHeaders().getFirst("X-Request-Id");
+            byte[] bytes = String.valueOf(id).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            String first = client.GET.request(server.url("/id"));
+            String second = client.GET.request(server.url("/id"));
+            Assert.assertNotEquals("null", first);
+            Assert.assertNotEquals(first, second);
+            // 调用方指定的请求ID原样发送
+            Assert.assertEquals("caller-id", client.GET.request(server.url("/id"), Headers.of("X-Request-Id", "caller-id")));
+        }
+    }
+}
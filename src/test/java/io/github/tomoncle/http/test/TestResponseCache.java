@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.ResponseCache;
+import io.github.tomoncle.http.domain.CacheStats;
+import io.github.tomoncle.http.metrics.HostSnapshot;
+import okhttp3.Headers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestResponseCache {
+
+    private static LocalHttpServer server(AtomicInteger requests, AtomicInteger notModified, String cacheControl) throws Exception {
+        return new LocalHttpServer().handle("/etag", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = ("body-" + requests.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void freshHitAndRevalidation() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger notModified = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-revalidate", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = server(requests, notModified, "max-age=0")) {
+            String url = server.url("/etag");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            // max-age=0 每次都重新验证，304 时复用第一次的响应体
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals(3, requests.get());
+            Assert.assertEquals(2, notModified.get());
+            CacheStats stats = client.cache().stats();
+            Assert.assertEquals(1, stats.getMisses());
+            Assert.assertEquals(2, stats.getRevalidations());
+            Assert.assertEquals(2, stats.getNotModified());
+            Assert.assertEquals(12, stats.getBytesSaved());
+        }
+    }
+
+    @Test
+    public void freshHitSkipsNetwork() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-fresh", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = server(requests, new AtomicInteger(), "max-age=60")) {
+            String url = server.url("/etag");
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals("body-1", client.GET.request(url));
+            }
+            Assert.assertEquals(1, requests.get());
+            Assert.assertEquals(4, client.cache().stats().getHits());
+        }
+    }
+
+    @Test
+    public void staleWhileRevalidate() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-swr", RequestsConfig.builder()
+                .cache(ResponseCache.builder().staleWhileRevalidate(1, TimeUnit.MINUTES).build())
+                .build());
+        try (LocalHttpServer server = server(requests, new AtomicInteger(), "max-age=0")) {
+            String url = server.url("/etag");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            // 过期响应立即返回，重新验证在后台完成
+            Assert.assertEquals("body-1", client.GET.request(url));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requests.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(2, requests.get());
+            Assert.assertEquals(1, client.cache().stats().getStaleHits());
+        }
+    }
+
+    private static LocalHttpServer aged(AtomicInteger requests, String cacheControl, String age) throws Exception {
+        return new LocalHttpServer().handle("/aged", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            exchange.getResponseHeaders().add("Age", age);
+            byte[] bytes = ("body-" + requests.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    public void ageHeaderReducesFreshness() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-age", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        // 上游缓存已存放 60 秒，max-age=60 的响应收到时就已过期
+        try (LocalHttpServer server = aged(requests, "max-age=60", "60")) {
+            String url = server.url("/aged");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals("body-2", client.GET.request(url));
+            Assert.assertEquals(0, client.cache().stats().getHits());
+        }
+        requests.set(0);
+        client.cache().evictAll();
+        try (LocalHttpServer server = aged(requests, "max-age=60", "30")) {
+            String url = server.url("/aged");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void requestDirectivesLimitFreshness() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-request-directives", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = aged(requests, "max-age=60", "20")) {
+            String url = server.url("/aged");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            // 响应年龄 20 秒，超过请求允许的 10 秒
+            Assert.assertEquals("body-2", client.GET.request(url, Headers.of("Cache-Control", "max-age=10")));
+            Assert.assertEquals("body-2", client.GET.request(url, Headers.of("Cache-Control", "max-age=30")));
+            // 剩余 40 秒，不满足 min-fresh=50
+            Assert.assertEquals("body-3", client.GET.request(url, Headers.of("Cache-Control", "min-fresh=50")));
+            Assert.assertEquals("body-3", client.GET.request(url, Headers.of("Cache-Control", "min-fresh=30")));
+            Assert.assertEquals(3, requests.get());
+        }
+        requests.set(0);
+        client.cache().evictAll();
+        // 过期 10 秒的响应只有 max-stale 足够大时才直接返回
+        try (LocalHttpServer server = aged(requests, "max-age=60", "70")) {
+            String url = server.url("/aged");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals("body-1", client.GET.request(url, Headers.of("Cache-Control", "max-stale=30")));
+            Assert.assertEquals("body-1", client.GET.request(url, Headers.of("Cache-Control", "max-stale")));
+            Assert.assertEquals("body-2", client.GET.request(url, Headers.of("Cache-Control", "max-stale=5")));
+            Assert.assertEquals(2, requests.get());
+        }
+        requests.set(0);
+        client.cache().evictAll();
+        try (LocalHttpServer server = aged(requests, "max-age=60, must-revalidate", "70")) {
+            String url = server.url("/aged");
+            Assert.assertEquals("body-1", client.GET.request(url));
+            Assert.assertEquals("body-2", client.GET.request(url, Headers.of("Cache-Control", "max-stale=30")));
+        }
+    }
+
+    @Test
+    public void freshHitIsCountedByStatus() throws Exception {
+        RequestsClient client = Requests.register("cache-metrics", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = server(new AtomicInteger(), new AtomicInteger(), "max-age=60")) {
+            for (int i = 0; i < 3; i++) {
+                client.GET.request(server.url("/etag"));
+            }
+            HostSnapshot host = client.metrics().snapshot().getHosts().get("127.0.0.1");
+            Assert.assertEquals(3, host.getTotal().getCount());
+            Assert.assertEquals(3, host.getByStatus().get("2xx").getCount());
+            Assert.assertNull(host.getByStatus().get("failed"));
+        }
+    }
+
+    @Test
+    public void privateResponseIsNotStored() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-private", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = server(requests, new AtomicInteger(), "private, max-age=60")) {
+            Assert.assertEquals("body-1", client.GET.request(server.url("/etag")));
+            Assert.assertEquals("body-2", client.GET.request(server.url("/etag")));
+            Assert.assertEquals(2, requests.get());
+        }
+    }
+
+    @Test
+    public void authorizedResponseNeedsPublic() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("cache-authorized", RequestsConfig.builder()
+                .cache(ResponseCache.builder().build())
+                .build());
+        try (LocalHttpServer server = server(requests, new AtomicInteger(), "max-age=60")) {
+            String url = server.url("/etag");
+            Assert.assertEquals("body-1", client.GET.request(url, Headers.of("Authorization", "Bearer alice")));
+            // 不同凭证的请求不能拿到上一个用户的响应
+            Assert.assertEquals("body-2", client.GET.request(url, Headers.of("Authorization", "Bearer bob")));
+            Assert.assertEquals(2, requests.get());
+        }
+        AtomicInteger shared = new AtomicInteger();
+        try (LocalHttpServer server = server(shared, new AtomicInteger(), "public, max-age=60")) {
+            String url = server.url("/etag");
+            Assert.assertEquals("body-1", client.GET.request(url, Headers.of("Authorization", "Bearer alice")));
+            Assert.assertEquals("body-1", client.GET.request(url, Headers.of("Authorization", "Bearer bob")));
+            Assert.assertEquals(1, shared.get());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.RetryInterceptor;
+import io.github.tomoncle.http.domain.DataType;
+import io.github.tomoncle.http.domain.SimpleRequestBody;
+import okhttp3.Headers;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestRetry {
+
+    /**
+     * 前 failures 次返回 503，之后返回 200
+     */
+    private static LocalHttpServer server(AtomicInteger requests, int failures, String retryAfter) throws Exception {
+        return new LocalHttpServer().handle("/flaky", exchange -> {
+            int n = requests.incrementAndGet();
+            int code = n <= failures ? 503 : 200;
+            if (code == 503 && retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            byte[] bytes = String.valueOf(n).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    private static RetryInterceptor.Builder fast() {
+        return RetryInterceptor.builder().backoff(1, 5, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void retryIdempotentUntilSuccess() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RetryInterceptor retry = fast().maxAttempts(3).build();
+        RequestsClient client = Requests.register("retry-get", RequestsConfig.builder().retry(retry).build());
+        try (LocalHttpServer server = server(requests, 2, null)) {
+            Assert.assertEquals("3", client.GET.request(server.url("/flaky")));
+            Assert.assertEquals(2, retry.retries());
+        }
+    }
+
+    @Test
+    public void postNeedsIdempotencyKey() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("retry-post", RequestsConfig.builder().retry(fast().build()).build());
+        SimpleRequestBody body = SimpleRequestBody.builder(DataType.BODY).setParam("a", 1).build();
+        try (LocalHttpServer server = server(requests, 1, null)) {
+            try (Response response = client.POST.response(server.url("/flaky"), body)) {
+                Assert.assertEquals(503, response.code());
+            }
+            requests.set(0);
+            try (Response response = client.POST.response(server.url("/flaky"), body, Headers.of("Idempotency-Key", "k1"))) {
+                Assert.assertEquals(200, response.code());
+            }
+            Assert.assertEquals(2, requests.get());
+        }
+    }
+
+    @Test
+    public void retryAfterAboveLimitIsNotRetried() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("retry-after", RequestsConfig.builder()
+                .retry(fast().maxRetryAfter(1, TimeUnit.SECONDS).build())
+                .build());
+        try (LocalHttpServer server = server(requests, 1, "120")) {
+            try (Response response = client.GET.response(server.url("/flaky"))) {
+                Assert.assertEquals(503, response.code());
+            }
+            Assert.assertEquals(1, requests.get());
+        }
+    }
+
+    @Test
+    public void budgetLimitsRetries() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RetryInterceptor retry = fast().maxAttempts(5).budget(2, 0.1).build();
+        RequestsClient client = Requests.register("retry-budget", RequestsConfig.builder().retry(retry).build());
+        try (LocalHttpServer server = server(requests, Integer.MAX_VALUE, null)) {
+            for (int i = 0; i < 3; i++) {
+                try (Response response = client.GET.response(server.url("/flaky"))) {
+                    Assert.assertEquals(503, response.code());
+                }
+            }
+            // 预算只有 2 个令牌，失败时不会补充
+            Assert.assertEquals(2, retry.retries());
+            Assert.assertEquals(5, requests.get());
+            Assert.assertTrue(retry.budgetExhausted() >= 2);
+        }
+    }
+
+    @Test
+    public void backoffStopsAtCallTimeout() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RequestsClient client = Requests.register("retry-timeout", RequestsConfig.builder()
+                .retry(fast().build())
+                .callTimeout(300, TimeUnit.MILLISECONDS)
+                .build());
+        try (LocalHttpServer server = server(requests, 1, "10")) {
+            long start = System.nanoTime();
+            try {
+                client.GET.request(server.url("/flaky"));
+                Assert.fail("call timeout should end the Retry-After wait");
+            } catch (IOException e) {
+                // 调用超时取消调用，不必等满 Retry-After 的 10 秒
+                Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            }
+            Assert.assertEquals(1, requests.get());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author tomoncle
+ */
+public class TestStreamingResponse {
+    private static final int SIZE = 32 * 1024 * 1024;
+
+    private static LocalHttpServer server() throws Exception {
+        return new LocalHttpServer().handle("/large", exchange -> {
+            byte[] block = new byte[64 * 1024];
+            Arrays.fill(block, (byte) 'x');
+            exchange.sendResponseHeaders(200, SIZE);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int i = 0; i < SIZE / block.length; i++) {
+                    os.write(block);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void writeToPath() throws Exception {
+        Path path = Files.createTempFile("requests", ".bin");
+        try (LocalHttpServer server = server()) {
+            Assert.assertEquals(SIZE, Requests.GET.writeTo(server.url("/large"), null, path));
+            Assert.assertEquals(SIZE, Files.size(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void consumeChunks() throws Exception {
+        AtomicLong count = new AtomicLong();
+        try (LocalHttpServer server = server()) {
+            Requests.GET.consume(server.url("/large"), null, chunk -> count.addAndGet(chunk.remaining()));
+            Assert.assertEquals(SIZE, count.get());
+            try (InputStream in = Requests.GET.stream(server.url("/large"), null)) {
+                Assert.assertEquals('x', in.read());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(SIZE, Requests.GET.writeTo(server.url("/large"), null, out));
+            Assert.assertEquals(SIZE, out.size());
+        }
+    }
+
+    @Test
+    public void errorStatusIsNotConsumed() throws Exception {
+        AtomicLong count = new AtomicLong();
+        try (LocalHttpServer server = new LocalHttpServer().handle("/failed", exchange -> {
+            exchange.sendResponseHeaders(500, 5);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("error".getBytes(StandardCharsets.UTF_8));
+            }
+        })) {
+            try {
+                Requests.GET.consume(server.url("/failed"), null, chunk -> count.addAndGet(chunk.remaining()));
+                Assert.fail("500 响应不应被消费");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("500"));
+            }
+            Assert.assertEquals(0, count.get());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                Requests.GET.writeTo(server.url("/failed"), null, out);
+                Assert.fail("500 响应不应被写出");
+            } catch (IOException e) {
+                Assert.assertEquals(0, out.size());
+            }
+        }
+    }
+}
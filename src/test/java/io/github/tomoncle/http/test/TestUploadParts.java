@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.domain.ByteBufferRequestBody;
+import io.github.tomoncle.http.domain.InputStreamRequestBody;
+import io.github.tomoncle.http.domain.UploadPart;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author tomoncle
+ */
+public class TestUploadParts {
+    private static final MediaType CSV = MediaType.get("text/csv");
+
+    private static LocalHttpServer server(Map<String, String> received) throws Exception {
+        return new LocalHttpServer().handle("/upload", exchange -> {
+            received.put("body", new String(LocalHttpServer.readAll(exchange.getRequestBody()), StandardCharsets.ISO_8859_1));
+            received.put("encoding", String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding")));
+            received.put("length", String.valueOf(exchange.getRequestHeaders().getFirst("Content-Length")));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+    }
+
+    @Test
+    public void uploadSeveralParts() throws Exception {
+        Path path = Files.createTempFile("requests", ".txt");
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (LocalHttpServer server = server(received)) {
+            Files.write(path, "0123456789".getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap("--bytes--".getBytes(StandardCharsets.UTF_8));
+            try (Response response = Requests.POST.upload(server.url("/upload"), Arrays.asList(
+                    UploadPart.field("owner", "tomoncle"),
+                    UploadPart.file("file", path, MediaType.get("text/plain")),
+                    UploadPart.stream("rows", "rows.csv", new ByteArrayInputStream("a,b\n1,2\n".getBytes(StandardCharsets.UTF_8)), CSV),
+                    UploadPart.bytes("bytes", "bytes.bin", buffer, Requests.OCTET_STREAM),
+                    UploadPart.region("region", "region.txt", path, 2, 3, null),
+                    UploadPart.mapped("mapped", "mapped.txt", path, 5, 4, null)), null)) {
+                Assert.assertEquals(200, response.code());
+            }
+            String body = received.get("body");
+            Assert.assertTrue(body.contains("name=\"owner\"\r\nContent-Length: 8\r\n\r\ntomoncle"));
+            Assert.assertTrue(body.contains("filename=\"" + path.getFileName() + "\"\r\nContent-Type: text/plain"));
+            Assert.assertTrue(body.contains("filename=\"rows.csv\"\r\nContent-Type: text/csv\r\n\r\na,b\n1,2\n"));
+            Assert.assertTrue(body.contains("\r\n\r\n--bytes--\r\n"));
+            Assert.assertTrue(body.contains("filename=\"region.txt\"\r\nContent-Length: 3\r\n\r\n234\r\n"));
+            Assert.assertTrue(body.contains("filename=\"mapped.txt\"\r\nContent-Length: 4\r\n\r\n5678\r\n"));
+            // 输入流长度未知，整个请求以 chunked 方式发送
+            Assert.assertEquals("chunked", received.get("encoding"));
+            // ByteBuffer 的 position 不变
+            Assert.assertEquals(0, buffer.position());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void uploadInputStream() throws Exception {
+        byte[] data = new byte[1024 * 1024];
+        Arrays.fill(data, (byte) 'x');
+        Map<String, String> received = new ConcurrentHashMap<>();
+        try (LocalHttpServer server = server(received)) {
+            Requests.POST.response(server.url("/upload"), new InputStreamRequestBody(new ByteArrayInputStream(data), Requests.OCTET_STREAM)).close();
+            Assert.assertEquals(data.length, received.get("body").length());
+            Assert.assertEquals("chunked", received.get("encoding"));
+
+            Requests.PUT.response(server.url("/upload"), new ByteBufferRequestBody(ByteBuffer.wrap(data), Requests.OCTET_STREAM)).close();
+            Assert.assertEquals(String.valueOf(data.length), received.get("length"));
+            Assert.assertEquals(data.length, received.get("body").length());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 tomoncle
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.tomoncle.http.test;
+
+import io.github.tomoncle.http.CachingDns;
+import io.github.tomoncle.http.ConnectionWarmer;
+import io.github.tomoncle.http.Requests;
+import io.github.tomoncle.http.RequestsClient;
+import io.github.tomoncle.http.RequestsConfig;
+import io.github.tomoncle.http.domain.WarmUpResult;
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author tomoncle
+ */
+public class TestWarmUp {
+
+    /**
+     * 只能解析 *.test，记录解析次数
+     */
+    private static Dns counting(AtomicInteger lookups) {
+        return hostname -> {
+            lookups.incrementAndGet();
+            if (!hostname.endsWith(".test")) {
+                throw new UnknownHostException(hostname);
+            }
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1}));
+        };
+    }
+
+    @Test
+    public void cachesAndRefreshesAhead() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = CachingDns.builder().delegate(counting(lookups))
+                .ttl(400, TimeUnit.MILLISECONDS).refreshAhead(0.25).build();
+        Assert.assertEquals("127.0.0.1", dns.lookup("api.test").get(0).getHostAddress());
+        dns.lookup("api.test");
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertEquals(1, dns.misses());
+        Assert.assertEquals(1, dns.hits());
+        Thread.sleep(150);
+        // 超过刷新比例后仍返回缓存结果，同时在后台刷新
+        dns.lookup("api.test");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (lookups.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(2, lookups.get());
+        Assert.assertEquals(1, dns.refreshes());
+        Assert.assertEquals(1, dns.misses());
+    }
+
+    @Test
+    public void cachesFailures() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = CachingDns.builder().delegate(counting(lookups)).negativeTtl(1, TimeUnit.SECONDS).build();
+        for (int i = 0; i < 2; i++) {
+            try {
+                dns.lookup("missing.invalid");
+                Assert.fail("应当解析失败");
+            } catch (UnknownHostException e) {
+                Assert.assertEquals(1, lookups.get());
+            }
+        }
+        Assert.assertEquals(1, dns.negativeHits());
+    }
+
+    @Test
+    public void preResolvesInBackground() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = CachingDns.builder().delegate(counting(lookups)).preResolve("warm.test").build();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (lookups.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        dns.lookup("warm.test");
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertEquals(0, dns.misses());
+    }
+
+    @Test
+    public void warmsIdleConnections() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().text("/", "ok")) {
+            // JDK HttpServer 响应 HEAD 后会关闭连接，这里使用 GET 预热
+            ConnectionWarmer warmer = ConnectionWarmer.builder().method("GET").target(server.url("/"), 3).build();
+            RequestsClient client = Requests.register("warm-up", RequestsConfig.builder().warmer(warmer).build());
+            List<WarmUpResult> results = warmer.ready().get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(1, results.size());
+            Assert.assertEquals(3, results.get(0).getOpened());
+            Assert.assertEquals(0, results.get(0).getFailures());
+            Assert.assertEquals(3, client.okHttpClient().connectionPool().idleConnectionCount());
+            // 再次预热复用已有的空闲连接
+            Assert.assertEquals(0, warmer.warm(client.okHttpClient()).get(0).getOpened());
+        }
+    }
+
+    @Test
+    public void keepWarmStopsWhenClientIsReplaced() throws Exception {
+        AtomicInteger warmUps = new AtomicInteger();
+        try (LocalHttpServer server = new LocalHttpServer().handle("/", exchange -> {
+            warmUps.incrementAndGet();
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            ConnectionWarmer warmer = ConnectionWarmer.builder().method("GET").target(server.url("/"), 1)
+                    .keepWarm(50, TimeUnit.MILLISECONDS).build();
+            Requests.register("keep-warm", RequestsConfig.builder().warmer(warmer).build());
+            warmer.ready().get(10, TimeUnit.SECONDS);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (warmUps.get() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(warmUps.get() >= 3);
+            // 重新注册同名客户端，旧客户端的周期预热随之停止
+            Requests.register("keep-warm", RequestsConfig.builder().build());
+            Thread.sleep(100);
+            int stopped = warmUps.get();
+            Thread.sleep(300);
+            Assert.assertEquals(stopped, warmUps.get());
+        }
+    }
+
+    @Test
+    public void timedOutWarmUpLeavesNoBusyConnections() throws Exception {
+        try (LocalHttpServer server = new LocalHttpServer().handle("/slow", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        })) {
+            ConnectionWarmer warmer = ConnectionWarmer.builder().method("GET").target(server.url("/slow"), 3)
+                    .timeout(100, TimeUnit.MILLISECONDS).build();
+            RequestsClient client = Requests.register("warm-up-timeout", RequestsConfig.builder().build());
+            WarmUpResult result = warmer.warm(client.okHttpClient()).get(0);
+            Assert.assertEquals(3, result.getFailures());
+            Thread.sleep(600);
+            // 放弃等待的请求不会一直占用连接
+            ConnectionPool pool = client.okHttpClient().connectionPool();
+            Assert.assertEquals(pool.connectionCount(), pool.idleConnectionCount());
+        }
+    }
+}